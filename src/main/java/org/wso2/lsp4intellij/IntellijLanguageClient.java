@@ -23,6 +23,7 @@ import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.editor.EditorFactory;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.project.ProjectManager;
 import com.intellij.openapi.util.Disposer;
@@ -43,11 +44,14 @@ import org.wso2.lsp4intellij.requests.Timeouts;
 import org.wso2.lsp4intellij.services.DefinitionRegistry;
 import org.wso2.lsp4intellij.services.LspApplicationServerRegistry;
 import org.wso2.lsp4intellij.services.LspServerManager;
+import org.wso2.lsp4intellij.services.ProjectServerStartup;
 import org.wso2.lsp4intellij.utils.FileUtils;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -83,17 +87,24 @@ public class IntellijLanguageClient implements ApplicationComponent, Disposable
 
     /**
      * Use it to initialize the server connection for the given project (useful if no editor is launched).
+     * The servers are started concurrently, without blocking the caller, and their initialization is shown as
+     * one background task.
      */
     public void initProjectConnections(@NotNull Project project) {
         // Only project-scoped definitions are started here, matching the previous behavior:
         // application-level definitions (registered without a project) are started lazily instead,
         // when an editor for a matching file is opened.
+        List<LanguageServerWrapper> wrappers = new ArrayList<>();
         LspServerManager.getInstance(project).definitions().asMap().forEach((ext, definition) -> {
             LanguageServerWrapper wrapper = getOrCreateWrapper(project, ext, definition);
-            if (wrapper != null) {
-                wrapper.start();
+            // One wrapper can serve several extensions of the same definition.
+            if (wrapper != null && !wrappers.contains(wrapper)) {
+                wrappers.add(wrapper);
             }
         });
+        if (!wrappers.isEmpty()) {
+            ProgressManager.getInstance().run(new ProjectServerStartup(project, wrappers));
+        }
     }
 
     /**
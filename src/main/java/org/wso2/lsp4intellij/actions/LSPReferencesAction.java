@@ -72,7 +72,7 @@ public class LSPReferencesAction extends DumbAwareAction {
     public void forManagerAndOffset(EditorEventManager manager, int offset) {
         // The references lookup blocks on the server response, so it runs on the wrapper's
         // dispatcher; only showing the results runs on the EDT.
-        manager.wrapper.pool(() -> {
+        manager.wrapper.poolWhenStarted(() -> {
             Pair<List<PsiElement>, List<VirtualFile>> references = manager.references(offset);
             List<PsiElement2UsageTargetAdapter> targets = computableReadAction(() -> {
                 List<PsiElement2UsageTargetAdapter> adapters = new ArrayList<>();
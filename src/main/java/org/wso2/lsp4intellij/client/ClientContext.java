@@ -19,8 +19,12 @@ import com.intellij.openapi.project.Project;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.wso2.lsp4intellij.client.languageserver.requestmanager.RequestManager;
+import org.wso2.lsp4intellij.client.languageserver.serverdefinition.LanguageServerDefinition;
 import org.wso2.lsp4intellij.editor.EditorEventManager;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * The client context which is received by {@link DefaultLanguageClient}. The context contains
  * information about the runtime and its components.
@@ -41,6 +45,34 @@ public interface ClientContext {
     @Nullable
     Project getProject();
 
+    /**
+     * Returns the {@link Project} the given document belongs to. Differs from {@link #getProject()} only when one
+     * server connection is shared by several projects.
+     */
+    @Nullable
+    default Project getProjectFor(@NotNull String documentUri) {
+        return getProject();
+    }
+
+    /**
+     * Returns the projects served by the connection, for messages which are about no document. Only holds more than
+     * {@link #getProject()} when one server connection is shared by several projects; {@link #getProject()} is null
+     * then.
+     */
+    @NotNull
+    default Collection<Project> getProjects() {
+        Project project = getProject();
+        return project != null ? List.of(project) : List.of();
+    }
+
+    /**
+     * Returns the definition of the server of the connection, or null if it is not known.
+     */
+    @Nullable
+    default LanguageServerDefinition getServerDefinition() {
+        return null;
+    }
+
     /**
      * Returns the {@link RequestManager} associated with the Language Server Connection.
      */
@@ -15,6 +15,7 @@
  */
 package org.wso2.lsp4intellij.client;
 
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
 import com.intellij.notification.Notification;
 import com.intellij.notification.NotificationAction;
 import com.intellij.notification.NotificationGroup;
@@ -24,6 +25,7 @@ import com.intellij.notification.Notifications;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.Messages;
 import com.intellij.util.ui.UIUtil;
 import groovy.lang.Tuple2;
@@ -145,7 +147,30 @@ public class DefaultLanguageClient implements LanguageClient {
     public void publishDiagnostics(PublishDiagnosticsParams publishDiagnosticsParams) {
         String uri = FileUtils.sanitizeURI(publishDiagnosticsParams.getUri());
         List<Diagnostic> diagnostics = publishDiagnosticsParams.getDiagnostics();
-        EditorEventManagerBase.diagnostics(uri, diagnostics);
+        Project project = context.getProjectFor(uri);
+        if (project != null && !project.isDisposed()) {
+            EditorEventManagerBase.diagnostics(project, context.getServerDefinition(), uri, diagnostics);
+        }
+    }
+
+    /**
+     * Pulled diagnostics are requested by the daemon, so running it again on the open files pulls them again. Those
+     * of the whole workspace are pulled again as well. A shared server refreshes every project it serves.
+     */
+    @Override
+    public CompletableFuture<Void> refreshDiagnostics() {
+        if (context instanceof ServerWrapperBaseClientContext) {
+            for (LanguageServerWrapper wrapper : ((ServerWrapperBaseClientContext) context).getWrappers()) {
+                wrapper.pool(wrapper::pullWorkspaceDiagnostics);
+            }
+        }
+        for (Project project : context.getProjects()) {
+            if (!project.isDisposed()) {
+                ApplicationManager.getApplication().invokeLater(
+                        () -> DaemonCodeAnalyzer.getInstance(project).restart(), project.getDisposed());
+            }
+        }
+        return CompletableFuture.completedFuture(null);
     }
 
     @Override
@@ -174,9 +199,11 @@ public class DefaultLanguageClient implements LanguageClient {
             });
         } else {
             NotificationType type = getNotificationType(messageParams.getType());
-            final Notification notification = new Notification(
-                    "lsp", messageParams.getType().toString(), messageParams.getMessage(), type);
-            notification.notify(context.getProject());
+            // A shared server's message is shown in every project it serves.
+            for (Project project : context.getProjects()) {
+                new Notification("lsp", messageParams.getType().toString(), messageParams.getMessage(), type)
+                        .notify(project);
+            }
         }
     }
 
@@ -249,6 +276,7 @@ public class DefaultLanguageClient implements LanguageClient {
                     integerCompletableFuture.complete(-1);
                 }
             });
+            // A shared server has no single project; the notification is not tied to one then, and answered once.
             notification.notify(context.getProject());
 
             try {
@@ -355,9 +383,11 @@ public class DefaultLanguageClient implements LanguageClient {
         String extension = null;
         if (context instanceof ServerWrapperBaseClientContext) {
             ServerWrapperBaseClientContext serverContext = (ServerWrapperBaseClientContext) context;
-            LanguageServerWrapper wrapper = serverContext.getWrapper();
-            if (wrapper != null && wrapper.serverDefinition != null) {
-                extension = wrapper.serverDefinition.ext;
+            // The wrappers of a shared server all have the same definition.
+            for (LanguageServerWrapper wrapper : serverContext.getWrappers()) {
+                if (wrapper.serverDefinition != null) {
+                    extension = wrapper.serverDefinition.ext;
+                }
             }
         }
         if (extension != null) {
@@ -19,9 +19,13 @@ import com.intellij.openapi.project.Project;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.wso2.lsp4intellij.client.languageserver.requestmanager.RequestManager;
+import org.wso2.lsp4intellij.client.languageserver.serverdefinition.LanguageServerDefinition;
 import org.wso2.lsp4intellij.client.languageserver.wrapper.LanguageServerWrapper;
 import org.wso2.lsp4intellij.editor.EditorEventManager;
 
+import java.util.Collection;
+import java.util.List;
+
 public class ServerWrapperBaseClientContext implements ClientContext {
 
     private final LanguageServerWrapper wrapper;
@@ -47,7 +51,22 @@ public class ServerWrapperBaseClientContext implements ClientContext {
         return wrapper.getRequestManager();
     }
 
+    @Nullable
+    @Override
+    public LanguageServerDefinition getServerDefinition() {
+        return wrapper.getServerDefinition();
+    }
+
     public LanguageServerWrapper getWrapper() {
         return wrapper;
     }
+
+    /**
+     * @return The wrappers served by the connection; more than {@link #getWrapper()}, which is null then, only when
+     * one server connection is shared by several projects
+     */
+    @NotNull
+    public Collection<LanguageServerWrapper> getWrappers() {
+        return List.of(wrapper);
+    }
 }
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.connection;
+
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.diagnostic.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Adds AppCDS (application class data sharing) options to the command lines of JVM language servers, so that
+ * they spend less of their start loading classes.
+ * <p>
+ * The first launch of a server records the classes it loads into an archive when the JVM exits
+ * ({@code -XX:ArchiveClassesAtExit}); later launches map that archive ({@code -XX:SharedArchiveFile}). An archive
+ * belongs to one java executable and one set of application jars, and is keyed by their sizes and modification
+ * times: once any of them changes, the archive is deleted and recorded again. Command lines which do not start
+ * java 13 or later with {@code -jar} or a class path are left as they are.
+ */
+public class AppCdsArchives {
+
+    private static final Logger LOG = Logger.getInstance(AppCdsArchives.class);
+    private static final String EXTENSION = ".jsa";
+    private static final String RECORD_OPTION = "-XX:ArchiveClassesAtExit=";
+    private static final int MIN_JAVA_VERSION = 13;
+    private static final Pattern JAVA_VERSION = Pattern.compile("^JAVA_VERSION=\"(?:1\\.)?(\\d+)", Pattern.MULTILINE);
+
+    private final Path directory;
+    // Archives being recorded in this session; a second JVM writing the same file at exit could corrupt it.
+    private final Set<Path> recording = ConcurrentHashMap.newKeySet();
+
+    AppCdsArchives(@NotNull Path directory) {
+        this.directory = directory;
+    }
+
+    public static AppCdsArchives getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * @param command    The command line of the server
+     * @param workingDir The directory the server is started in, against which relative paths are resolved;
+     *                   null for the IDE's own
+     * @return the command line with the class data sharing options added, or the given list if they do not apply
+     */
+    @NotNull
+    public List<String> apply(@NotNull List<String> command, @Nullable String workingDir) {
+        if (command.isEmpty() || command.stream().anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile")
+                || arg.startsWith("-XX:ArchiveClassesAtExit") || arg.startsWith("-Xshare"))) {
+            return command;
+        }
+        try {
+            Path java = resolveExecutable(command.get(0));
+            if (java == null || javaVersion(java.getParent().getParent()) < MIN_JAVA_VERSION) {
+                return command;
+            }
+            Path base = workingDir != null ? Paths.get(workingDir) : Paths.get("").toAbsolutePath();
+            List<Path> files = new ArrayList<>();
+            files.add(java);
+            if (!applicationFiles(command, base, files)) {
+                return command;
+            }
+            StringBuilder identity = new StringBuilder();
+            StringBuilder stamp = new StringBuilder();
+            for (Path file : files) {
+                identity.append(file).append(File.pathSeparatorChar);
+                stamp.append(file).append(':').append(Files.size(file)).append(':')
+                        .append(Files.getLastModifiedTime(file).toMillis()).append(File.pathSeparatorChar);
+            }
+            String prefix = uuid(identity.toString()) + "-";
+            Path archive = directory.resolve(prefix + uuid(stamp.toString()) + EXTENSION);
+            deleteStale(prefix, archive);
+
+            List<String> result = new ArrayList<>(command.size() + 3);
+            result.add(command.get(0));
+            // The JVM reports a stale or damaged archive on stdout by default, which would corrupt the protocol.
+            result.add("-Xlog:disable");
+            result.add("-Xlog:all=warning:stderr");
+            if (Files.isRegularFile(archive)) {
+                result.add("-XX:SharedArchiveFile=" + archive);
+            } else if (recording.add(archive)) {
+                Files.createDirectories(directory);
+                result.add(RECORD_OPTION + archive);
+            } else {
+                return command;
+            }
+            result.addAll(command.subList(1, command.size()));
+            return result;
+        } catch (IOException | InvalidPathException e) {
+            LOG.warn("Not using class data sharing for " + command, e);
+            return command;
+        }
+    }
+
+    /**
+     * Ends the recording started by the given command line, if any, once its process exits. A JVM which is killed
+     * or crashes writes no archive, and the next launch records again instead of going without class data sharing
+     * for the rest of the session.
+     *
+     * @param command The command line returned by {@link #apply(List, String)}
+     * @param process The process started from it, or null if it could not be started
+     */
+    public void started(@NotNull List<String> command, @Nullable Process process) {
+        for (String arg : command) {
+            if (arg.startsWith(RECORD_OPTION)) {
+                Path archive = Paths.get(arg.substring(RECORD_OPTION.length()));
+                if (process == null) {
+                    recording.remove(archive);
+                } else {
+                    process.onExit().thenRun(() -> recording.remove(archive));
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return a copy of the given builder with the class data sharing options added, or the builder itself if they
+     * do not apply
+     */
+    @NotNull
+    public ProcessBuilder apply(@NotNull ProcessBuilder builder) {
+        File dir = builder.directory();
+        List<String> command = apply(builder.command(), dir != null ? dir.getPath() : null);
+        if (command == builder.command()) {
+            return builder;
+        }
+        ProcessBuilder copy = new ProcessBuilder(command)
+                .directory(dir)
+                .redirectInput(builder.redirectInput())
+                .redirectOutput(builder.redirectOutput())
+                .redirectError(builder.redirectError())
+                .redirectErrorStream(builder.redirectErrorStream());
+        copy.environment().clear();
+        copy.environment().putAll(builder.environment());
+        return copy;
+    }
+
+    /**
+     * Collects the jar given to {@code -jar}, or the class path entries, of a java command line.
+     *
+     * @return false if the command line names neither, or names a file which does not exist
+     */
+    private static boolean applicationFiles(List<String> command, Path base, List<Path> files) throws IOException {
+        int found = files.size();
+        for (int i = 1; i < command.size() - 1; i++) {
+            String arg = command.get(i);
+            if (arg.equals("-jar")) {
+                files.add(base.resolve(command.get(i + 1)));
+                break;
+            } else if (arg.equals("-cp") || arg.equals("-classpath") || arg.equals("--class-path")) {
+                for (String entry : command.get(++i).split(File.pathSeparator)) {
+                    if (entry.endsWith("*")) {
+                        // A wildcard entry stands for the jars of the directory.
+                        Path dir = base.resolve(entry.substring(0, entry.length() - 1));
+                        try (DirectoryStream<Path> jars = Files.newDirectoryStream(dir, "*.{jar,JAR}")) {
+                            jars.forEach(files::add);
+                        }
+                    } else if (!entry.isEmpty()) {
+                        files.add(base.resolve(entry));
+                    }
+                }
+            } else if (!arg.startsWith("-")) {
+                // The main class; what follows are the arguments of the server.
+                break;
+            }
+        }
+        return files.size() > found && files.stream().allMatch(Files::exists);
+    }
+
+    @Nullable
+    private static Path resolveExecutable(String executable) throws IOException {
+        Path path = Paths.get(executable);
+        String name = path.getFileName() != null ? path.getFileName().toString() : "";
+        if (!name.equals("java") && !name.equals("java.exe")) {
+            return null;
+        }
+        if (path.getNameCount() == 1 && !path.isAbsolute()) {
+            String searchPath = System.getenv("PATH");
+            path = null;
+            for (String dir : searchPath != null ? searchPath.split(File.pathSeparator) : new String[0]) {
+                Path candidate = Paths.get(dir, name);
+                if (Files.isRegularFile(candidate)) {
+                    path = candidate;
+                    break;
+                }
+            }
+        }
+        // Symbolic links such as /usr/bin/java lead to the JDK the archive depends on.
+        return path != null && path.isAbsolute() && Files.isRegularFile(path) ? path.toRealPath() : null;
+    }
+
+    /**
+     * @return the feature version of the JDK in the given directory, or 0 if it is unknown
+     */
+    static int javaVersion(@Nullable Path javaHome) {
+        if (javaHome == null) {
+            return 0;
+        }
+        try {
+            Matcher matcher = JAVA_VERSION.matcher(Files.readString(javaHome.resolve("release")));
+            return matcher.find() ? Integer.parseInt(matcher.group(1)) : 0;
+        } catch (IOException | NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private void deleteStale(String prefix, Path current) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> archives = Files.newDirectoryStream(directory, prefix + "*" + EXTENSION)) {
+            for (Path archive : archives) {
+                if (!archive.equals(current)) {
+                    Files.deleteIfExists(archive);
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not delete stale class data sharing archives in " + directory, e);
+        }
+    }
+
+    private static String uuid(String text) {
+        return UUID.nameUUIDFromBytes(text.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    private static final class Holder {
+        private static final AppCdsArchives INSTANCE = new AppCdsArchives(
+                Paths.get(PathManager.getSystemPath(), "lsp4intellij", "cds"));
+    }
+}
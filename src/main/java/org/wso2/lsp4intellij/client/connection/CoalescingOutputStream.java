@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.connection;
+
+import com.intellij.openapi.diagnostic.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sits between the lsp4j message writer and the server's stdin and merges consecutive messages into larger
+ * writes.
+ * <p>
+ * lsp4j flushes the stream after every message. Here {@link #flush()} is only a hint: buffered bytes are
+ * written out once the buffer fills up, or when the linger interval has passed since the first unflushed
+ * message, whichever comes first. Messages somebody is waiting for (requests, and responses to server
+ * requests) must be followed by {@link #flushNow()}, which writes the whole buffer out immediately. Bytes are
+ * never reordered: everything goes through the same buffer, and a direct write of a large message drains the
+ * buffer first.
+ */
+public class CoalescingOutputStream extends OutputStream {
+
+    private static final Logger LOG = Logger.getInstance(CoalescingOutputStream.class);
+
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+    public static final long DEFAULT_LINGER_MS = 5;
+
+    private final OutputStream out;
+    private final ScheduledExecutorService scheduler;
+    private final long lingerMs;
+    private final byte[] buffer;
+    private int count = 0;
+    private ScheduledFuture<?> pendingFlush;
+    private boolean closed = false;
+
+    public CoalescingOutputStream(@NotNull OutputStream out, @NotNull ScheduledExecutorService scheduler) {
+        this(out, scheduler, DEFAULT_CAPACITY, DEFAULT_LINGER_MS);
+    }
+
+    /**
+     * @param out       The stream connected to the server
+     * @param scheduler The scheduler running deferred flushes; a shared pool, not a dedicated thread
+     * @param capacity  The buffer size in bytes; a full buffer is written out without waiting
+     * @param lingerMs  The longest time a flushed message may wait in the buffer
+     */
+    public CoalescingOutputStream(@NotNull OutputStream out, @NotNull ScheduledExecutorService scheduler,
+                                  int capacity, long lingerMs) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Buffer capacity must be positive: " + capacity);
+        }
+        this.out = out;
+        this.scheduler = scheduler;
+        this.buffer = new byte[capacity];
+        this.lingerMs = lingerMs;
+    }
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+        ensureOpen();
+        if (count == buffer.length) {
+            drain();
+        }
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public synchronized void write(@NotNull byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if (len > buffer.length - count) {
+            drain();
+        }
+        if (len >= buffer.length) {
+            // Nothing to gain from copying a message that would fill the buffer on its own.
+            out.write(b, off, len);
+            return;
+        }
+        System.arraycopy(b, off, buffer, count, len);
+        count += len;
+    }
+
+    /**
+     * Schedules the buffered bytes to be written out after the linger interval, unless a flush is already
+     * scheduled. Returns without touching the underlying stream.
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        ensureOpen();
+        if (count == 0 || pendingFlush != null) {
+            return;
+        }
+        if (lingerMs <= 0) {
+            flushNow();
+            return;
+        }
+        try {
+            pendingFlush = scheduler.schedule(this::deferredFlush, lingerMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // The application is shutting down; there is nobody left to run the deferred flush.
+            flushNow();
+        }
+    }
+
+    /**
+     * Writes all buffered bytes to the underlying stream and flushes it.
+     */
+    public synchronized void flushNow() throws IOException {
+        if (closed) {
+            return;
+        }
+        cancelPendingFlush();
+        drain();
+        out.flush();
+    }
+
+    /**
+     * @return The number of bytes currently waiting in the buffer
+     */
+    public synchronized int getBufferedCount() {
+        return count;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            flushNow();
+        } finally {
+            closed = true;
+            out.close();
+        }
+    }
+
+    private synchronized void deferredFlush() {
+        pendingFlush = null;
+        if (closed) {
+            return;
+        }
+        try {
+            drain();
+            out.flush();
+        } catch (IOException e) {
+            // Most likely the server went away; the next write on the lsp4j side reports the broken pipe.
+            LOG.debug("Deferred flush to the language server failed", e);
+        }
+    }
+
+    private void drain() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    private void cancelPendingFlush() {
+        if (pendingFlush != null) {
+            pendingFlush.cancel(false);
+            pendingFlush = null;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream is closed");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.connection;
+
+import com.intellij.openapi.diagnostic.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+
+/**
+ * Keeps the most recent error output of a server process in a fixed-size ring buffer.
+ * <p>
+ * The stream is drained by a pooled thread as fast as the process writes to it, so a verbose server never
+ * blocks on a full pipe; once the buffer is full, the oldest bytes are overwritten.
+ */
+public class ErrorOutputBuffer {
+
+    private static final Logger LOG = Logger.getInstance(ErrorOutputBuffer.class);
+
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    private final int capacity;
+    // One byte more than the capacity, to tell whether the oldest kept byte starts a line.
+    private final byte[] buffer;
+    // Total number of bytes appended; the next byte goes to position written % buffer.length.
+    private long written = 0;
+
+    public ErrorOutputBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity The number of most recent bytes to keep
+     */
+    public ErrorOutputBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Buffer capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.buffer = new byte[capacity + 1];
+    }
+
+    /**
+     * Reads the given stream on the executor until it ends or is closed, appending everything read.
+     *
+     * @param in       The error stream of the process
+     * @param executor The executor running the read loop; the loop occupies a thread for the process lifetime
+     */
+    public void drain(@NotNull InputStream in, @NotNull Executor executor) {
+        executor.execute(() -> {
+            byte[] chunk = new byte[8192];
+            try (InputStream stream = in) {
+                int read;
+                while ((read = stream.read(chunk)) != -1) {
+                    append(chunk, 0, read);
+                }
+            } catch (IOException e) {
+                // The stream is closed when the process is stopped.
+                LOG.debug("Stopped reading the error output of the language server", e);
+            }
+        });
+    }
+
+    public synchronized void append(@NotNull byte[] b, int off, int len) {
+        if (len >= buffer.length) {
+            // Only the tail of the chunk survives.
+            off += len - buffer.length;
+            written += len - buffer.length;
+            len = buffer.length;
+        }
+        int pos = (int) (written % buffer.length);
+        int first = Math.min(len, buffer.length - pos);
+        System.arraycopy(b, off, buffer, pos, first);
+        System.arraycopy(b, off + first, buffer, 0, len - first);
+        written += len;
+    }
+
+    /**
+     * @return The kept output, decoded as UTF-8. Once older output has been overwritten, the text starts at the
+     * first complete line.
+     */
+    @NotNull
+    public synchronized String getText() {
+        if (written <= capacity) {
+            return new String(buffer, 0, (int) written, StandardCharsets.UTF_8);
+        }
+        // ordered[0] is the byte preceding the kept output.
+        int pos = (int) (written % buffer.length);
+        byte[] ordered = new byte[buffer.length];
+        System.arraycopy(buffer, pos, ordered, 0, buffer.length - pos);
+        System.arraycopy(buffer, 0, ordered, buffer.length - pos, pos);
+        int start = 0;
+        while (start < ordered.length && ordered[start] != '\n') {
+            start++;
+        }
+        // Without a line break in the whole buffer, a partial line is better than nothing.
+        start = start < ordered.length ? start + 1 : 1;
+        return new String(ordered, start, ordered.length - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return The total number of bytes the process has written, including overwritten ones
+     */
+    public synchronized long getWrittenCount() {
+        return written;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.connection;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+
+/**
+ * A one-way, bounded byte channel between two threads of the same process.
+ * <p>
+ * Unlike {@link java.io.PipedInputStream}, a read returns as soon as any bytes are available and a waiting
+ * reader is woken up by the write itself rather than by polling, and the pipe is not tied to the threads which
+ * first used it. A writer blocks while the buffer is full. Closing the output stream ends the stream for the
+ * reader once it has read what is buffered; closing the input stream fails further writes.
+ */
+public class InMemoryPipe {
+
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    private final byte[] buffer;
+    private int head = 0;
+    private int count = 0;
+    private boolean writerClosed = false;
+    private boolean readerClosed = false;
+    private final InputStream input = new PipeInputStream();
+    private final OutputStream output = new PipeOutputStream();
+
+    public InMemoryPipe() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity The number of bytes which can be written ahead of the reader
+     */
+    public InMemoryPipe(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Pipe capacity must be positive: " + capacity);
+        }
+        this.buffer = new byte[capacity];
+    }
+
+    @NotNull
+    public InputStream getInputStream() {
+        return input;
+    }
+
+    @NotNull
+    public OutputStream getOutputStream() {
+        return output;
+    }
+
+    /**
+     * Closes both ends: blocked reads and writes fail, and so do later ones.
+     */
+    public synchronized void close() {
+        readerClosed = true;
+        writerClosed = true;
+        notifyAll();
+    }
+
+    private synchronized int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (count == 0 && !writerClosed && !readerClosed) {
+            await();
+        }
+        if (readerClosed) {
+            throw new IOException("Pipe closed");
+        }
+        if (count == 0) {
+            return -1;
+        }
+        int read = Math.min(len, count);
+        int first = Math.min(read, buffer.length - head);
+        System.arraycopy(buffer, head, b, off, first);
+        System.arraycopy(buffer, 0, b, off + first, read - first);
+        head = (head + read) % buffer.length;
+        count -= read;
+        notifyAll();
+        return read;
+    }
+
+    private synchronized void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            while (count == buffer.length && !readerClosed && !writerClosed) {
+                await();
+            }
+            if (readerClosed || writerClosed) {
+                throw new IOException("Pipe closed");
+            }
+            int tail = (head + count) % buffer.length;
+            int chunk = Math.min(len, buffer.length - count);
+            int first = Math.min(chunk, buffer.length - tail);
+            System.arraycopy(b, off, buffer, tail, first);
+            System.arraycopy(b, off + first, buffer, 0, chunk - first);
+            count += chunk;
+            off += chunk;
+            len -= chunk;
+            notifyAll();
+        }
+    }
+
+    private synchronized int available() {
+        return count;
+    }
+
+    private synchronized void closeReader() {
+        readerClosed = true;
+        notifyAll();
+    }
+
+    private synchronized void closeWriter() {
+        writerClosed = true;
+        notifyAll();
+    }
+
+    private void await() throws InterruptedIOException {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting on the pipe");
+        }
+    }
+
+    private class PipeInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return InMemoryPipe.this.read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(@NotNull byte[] b, int off, int len) throws IOException {
+            return InMemoryPipe.this.read(b, off, len);
+        }
+
+        @Override
+        public int available() {
+            return InMemoryPipe.this.available();
+        }
+
+        @Override
+        public void close() {
+            closeReader();
+        }
+    }
+
+    private class PipeOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            InMemoryPipe.this.write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(@NotNull byte[] b, int off, int len) throws IOException {
+            InMemoryPipe.this.write(b, off, len);
+        }
+
+        @Override
+        public void close() {
+            closeWriter();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.connection;
+
+import com.intellij.openapi.diagnostic.Logger;
+import org.eclipse.lsp4j.jsonrpc.Launcher;
+import org.eclipse.lsp4j.launch.LSPLauncher;
+import org.eclipse.lsp4j.services.LanguageClient;
+import org.eclipse.lsp4j.services.LanguageClientAware;
+import org.eclipse.lsp4j.services.LanguageServer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a JVM language server inside the IDE process. The server class is loaded in an {@link IsolatedClassLoader}
+ * and talks to the client over a pair of {@link InMemoryPipe}s, so the wrapper drives it exactly like a server
+ * process. Stopping the connection closes the pipes, stops the server's threads and closes the class loader, so
+ * that the server's classes can be unloaded.
+ * <p>
+ * The server must not terminate the JVM on {@code exit}, as a standalone server usually does.
+ */
+public class InProcessStreamConnectionProvider implements StreamConnectionProvider {
+
+    private static final Logger LOG = Logger.getInstance(InProcessStreamConnectionProvider.class);
+
+    private final String serverClass;
+    private final URL[] classpath;
+    private final ClassLoader parent;
+    @Nullable
+    private IsolatedClassLoader classLoader;
+    @Nullable
+    private ExecutorService executor;
+    @Nullable
+    private Future<Void> listening;
+    @Nullable
+    private InMemoryPipe toServer;
+    @Nullable
+    private InMemoryPipe toClient;
+
+    /**
+     * @param serverClass The fully qualified name of a {@link LanguageServer} implementation with a public no-arg
+     *                    constructor
+     * @param classpath   The jars and directories of the server and its dependencies
+     * @param parent      The class loader providing the lsp4j API
+     */
+    public InProcessStreamConnectionProvider(@NotNull String serverClass, @NotNull URL[] classpath,
+                                             @NotNull ClassLoader parent) {
+        this.serverClass = serverClass;
+        this.classpath = classpath.clone();
+        this.parent = parent;
+    }
+
+    @Override
+    public synchronized void start() throws IOException {
+        IsolatedClassLoader loader = new IsolatedClassLoader(classpath, parent);
+        LanguageServer server;
+        try {
+            server = instantiate(loader);
+        } catch (IOException e) {
+            loader.close();
+            throw e;
+        }
+        toServer = new InMemoryPipe();
+        toClient = new InMemoryPipe();
+        // The server's own threads see its class loader as the context loader, as they would in its own process.
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "Language server " + serverClass);
+            thread.setDaemon(true);
+            thread.setContextClassLoader(loader);
+            return thread;
+        });
+        Launcher<LanguageClient> launcher = LSPLauncher.createServerLauncher(server, toServer.getInputStream(),
+                toClient.getOutputStream(), executor, null);
+        if (server instanceof LanguageClientAware) {
+            ((LanguageClientAware) server).connect(launcher.getRemoteProxy());
+        }
+        listening = launcher.startListening();
+        classLoader = loader;
+        LOG.info("Started in-process language server " + serverClass);
+    }
+
+    private LanguageServer instantiate(ClassLoader loader) throws IOException {
+        Thread current = Thread.currentThread();
+        ClassLoader previous = current.getContextClassLoader();
+        current.setContextClassLoader(loader);
+        try {
+            Object server = loader.loadClass(serverClass).getConstructor().newInstance();
+            if (!(server instanceof LanguageServer)) {
+                throw new IOException(serverClass + " does not implement " + LanguageServer.class.getName());
+            }
+            return (LanguageServer) server;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new IOException("Unable to load language server " + serverClass, e);
+        } finally {
+            current.setContextClassLoader(previous);
+        }
+    }
+
+    @Nullable
+    @Override
+    public synchronized InputStream getInputStream() {
+        return toClient != null ? toClient.getInputStream() : null;
+    }
+
+    @Nullable
+    @Override
+    public synchronized OutputStream getOutputStream() {
+        return toServer != null ? toServer.getOutputStream() : null;
+    }
+
+    @Override
+    public synchronized boolean isAlive() {
+        return listening != null && !listening.isDone();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (toServer != null) {
+            // The server's message loop ends on the end of its input, and its pending writes fail.
+            toServer.close();
+            toClient.close();
+        }
+        if (listening != null) {
+            listening.cancel(true);
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (classLoader != null) {
+            try {
+                classLoader.close();
+            } catch (IOException e) {
+                LOG.warn("Failed to close the class loader of language server " + serverClass, e);
+            }
+        }
+        toServer = null;
+        toClient = null;
+        listening = null;
+        executor = null;
+        classLoader = null;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof InProcessStreamConnectionProvider) {
+            InProcessStreamConnectionProvider other = (InProcessStreamConnectionProvider) obj;
+            return serverClass.equals(other.serverClass) && Arrays.equals(classpath, other.classpath);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return serverClass.hashCode() ^ Arrays.hashCode(classpath);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.connection;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * Loads a language server from its own classpath ahead of the plugin's, so that its dependencies cannot clash
+ * with the ones of the IDE or of other servers. Only the JDK and the lsp4j API, which the server and the client
+ * exchange objects of, are taken from the parent.
+ */
+public class IsolatedClassLoader extends URLClassLoader {
+
+    private static final String[] SHARED_PACKAGES = {"java.", "javax.", "org.eclipse.lsp4j.", "com.google.gson."};
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    public IsolatedClassLoader(@NotNull URL[] classpath, @NotNull ClassLoader parent) {
+        super(classpath, parent);
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (isShared(name)) {
+            return super.loadClass(name, resolve);
+        }
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> loaded = findLoadedClass(name);
+            if (loaded == null) {
+                try {
+                    loaded = findClass(name);
+                } catch (ClassNotFoundException e) {
+                    return super.loadClass(name, resolve);
+                }
+            }
+            if (resolve) {
+                resolveClass(loaded);
+            }
+            return loaded;
+        }
+    }
+
+    @Override
+    public URL getResource(String name) {
+        URL resource = findResource(name);
+        return resource != null ? resource : super.getResource(name);
+    }
+
+    static boolean isShared(String className) {
+        for (String prefix : SHARED_PACKAGES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
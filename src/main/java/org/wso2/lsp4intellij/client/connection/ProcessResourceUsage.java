@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.connection;
+
+import com.intellij.openapi.diagnostic.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * A sample of the resources used by a language server process. The resident set size and the thread count are
+ * read from {@code /proc} and are only known on Linux; the CPU time comes from {@link ProcessHandle}.
+ */
+public final class ProcessResourceUsage {
+
+    private static final Logger LOG = Logger.getInstance(ProcessResourceUsage.class);
+
+    /**
+     * The value of fields which could not be sampled.
+     */
+    public static final long UNKNOWN = -1;
+
+    private final long pid;
+    private final long residentBytes;
+    private final long cpuTimeMillis;
+    private final long threads;
+
+    ProcessResourceUsage(long pid, long residentBytes, long cpuTimeMillis, long threads) {
+        this.pid = pid;
+        this.residentBytes = residentBytes;
+        this.cpuTimeMillis = cpuTimeMillis;
+        this.threads = threads;
+    }
+
+    /**
+     * Samples the given process.
+     *
+     * @return the sample, or null if the process is no longer alive
+     */
+    @Nullable
+    public static ProcessResourceUsage sample(@NotNull ProcessHandle process) {
+        if (!process.isAlive()) {
+            return null;
+        }
+        long cpuTime = process.info().totalCpuDuration().map(Duration::toMillis).orElse(UNKNOWN);
+        Path status = Paths.get("/proc", Long.toString(process.pid()), "status");
+        if (!Files.isReadable(status)) {
+            return new ProcessResourceUsage(process.pid(), UNKNOWN, cpuTime, UNKNOWN);
+        }
+        try {
+            return fromProcStatus(process.pid(), Files.readString(status, StandardCharsets.UTF_8), cpuTime);
+        } catch (IOException e) {
+            // The process exited between the check and the read.
+            LOG.debug("Could not read " + status, e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads the resident set size and the thread count from the content of {@code /proc/<pid>/status}.
+     */
+    static ProcessResourceUsage fromProcStatus(long pid, String status, long cpuTimeMillis) {
+        long resident = UNKNOWN;
+        long threads = UNKNOWN;
+        for (String line : status.split("\n")) {
+            if (line.startsWith("VmRSS:")) {
+                // The kernel always reports this field in kB.
+                long kiloBytes = parseNumber(line.substring("VmRSS:".length()));
+                resident = kiloBytes == UNKNOWN ? UNKNOWN : kiloBytes * 1024;
+            } else if (line.startsWith("Threads:")) {
+                threads = parseNumber(line.substring("Threads:".length()));
+            }
+        }
+        return new ProcessResourceUsage(pid, resident, cpuTimeMillis, threads);
+    }
+
+    private static long parseNumber(String field) {
+        String value = field.trim();
+        int end = value.indexOf(' ');
+        try {
+            return Long.parseLong(end < 0 ? value : value.substring(0, end));
+        } catch (NumberFormatException e) {
+            return UNKNOWN;
+        }
+    }
+
+    public long getPid() {
+        return pid;
+    }
+
+    /**
+     * @return the resident set size in bytes, or {@link #UNKNOWN}
+     */
+    public long getResidentBytes() {
+        return residentBytes;
+    }
+
+    /**
+     * @return the CPU time used by the process so far in milliseconds, or {@link #UNKNOWN}
+     */
+    public long getCpuTimeMillis() {
+        return cpuTimeMillis;
+    }
+
+    /**
+     * @return the number of threads of the process, or {@link #UNKNOWN}
+     */
+    public long getThreads() {
+        return threads;
+    }
+
+    @Override
+    public String toString() {
+        return "pid " + pid + ", rss " + residentBytes + " B, cpu " + cpuTimeMillis + " ms, " + threads + " threads";
+    }
+}
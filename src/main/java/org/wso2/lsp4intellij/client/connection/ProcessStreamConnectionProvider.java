@@ -16,6 +16,7 @@
 package org.wso2.lsp4intellij.client.connection;
 
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -26,6 +27,7 @@ import java.io.OutputStream;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -43,6 +45,7 @@ public class ProcessStreamConnectionProvider implements StreamConnectionProvider
     private final ProcessBuilder builder;
     @Nullable
     private Process process = null;
+    private final ErrorOutputBuffer errorOutput = new ErrorOutputBuffer();
     private List<String> commands;
     private String workingDir;
 
@@ -63,7 +66,17 @@ public class ProcessStreamConnectionProvider implements StreamConnectionProvider
         }
         ProcessBuilder builder = createProcessBuilder();
         LOG.info("Starting server process with commands " + commands + " and workingDir " + workingDir);
-        process = builder.start();
+        Process started = null;
+        try {
+            started = builder.start();
+        } finally {
+            AppCdsArchives.getInstance().started(builder.command(), started);
+        }
+        process = started;
+        if (builder.redirectError() == ProcessBuilder.Redirect.PIPE && !builder.redirectErrorStream()) {
+            // An undrained pipe blocks the server once the OS buffer is full.
+            errorOutput.drain(process.getErrorStream(), AppExecutorUtil.getAppExecutorService());
+        }
         if (!process.isAlive()) {
             throw new IOException("Unable to start language server: " + this);
         } else {
@@ -78,7 +91,6 @@ public class ProcessStreamConnectionProvider implements StreamConnectionProvider
             commands = commands.stream().map(c -> c.replace("'", "")).collect(Collectors.toList());
             ProcessBuilder builder = new ProcessBuilder(commands);
             builder.directory(new File(workingDir));
-            builder.redirectError(ProcessBuilder.Redirect.INHERIT);
             return builder;
         }
     }
@@ -95,6 +107,25 @@ public class ProcessStreamConnectionProvider implements StreamConnectionProvider
         return process != null ? process.getOutputStream() : null;
     }
 
+    @Override
+    public boolean isAlive() {
+        return process != null && process.isAlive();
+    }
+
+    @Override
+    public Optional<ProcessHandle> getProcessHandle() {
+        return process != null ? Optional.of(process.toHandle()) : Optional.empty();
+    }
+
+    /**
+     * @return the most recent error output of the process; empty if the builder given at construction redirects it
+     */
+    @NotNull
+    @Override
+    public String getErrorOutput() {
+        return errorOutput.getText();
+    }
+
     public void stop() {
         if (process == null) {
             return;
@@ -18,6 +18,7 @@ package org.wso2.lsp4intellij.client.connection;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Optional;
 
 public interface StreamConnectionProvider {
 
@@ -29,4 +30,25 @@ public interface StreamConnectionProvider {
 
     void stop();
 
+    /**
+     * @return false once the connection is known to be gone, for example because the server process exited
+     */
+    default boolean isAlive() {
+        return true;
+    }
+
+    /**
+     * @return the server process, if the connection is to a local process
+     */
+    default Optional<ProcessHandle> getProcessHandle() {
+        return Optional.empty();
+    }
+
+    /**
+     * @return the most recent error output of the server, or an empty string if it is not captured
+     */
+    default String getErrorOutput() {
+        return "";
+    }
+
 }
@@ -39,6 +39,8 @@ import org.eclipse.lsp4j.DidCloseTextDocumentParams;
 import org.eclipse.lsp4j.DidOpenTextDocumentParams;
 import org.eclipse.lsp4j.DidSaveTextDocumentParams;
 import org.eclipse.lsp4j.DocumentColorParams;
+import org.eclipse.lsp4j.DocumentDiagnosticParams;
+import org.eclipse.lsp4j.DocumentDiagnosticReport;
 import org.eclipse.lsp4j.DocumentFormattingParams;
 import org.eclipse.lsp4j.DocumentHighlight;
 import org.eclipse.lsp4j.DocumentHighlightParams;
@@ -78,6 +80,8 @@ import org.eclipse.lsp4j.TextEdit;
 import org.eclipse.lsp4j.TypeDefinitionParams;
 import org.eclipse.lsp4j.UnregistrationParams;
 import org.eclipse.lsp4j.WillSaveTextDocumentParams;
+import org.eclipse.lsp4j.WorkspaceDiagnosticParams;
+import org.eclipse.lsp4j.WorkspaceDiagnosticReport;
 import org.eclipse.lsp4j.WorkspaceEdit;
 import org.eclipse.lsp4j.WorkspaceSymbol;
 import org.eclipse.lsp4j.WorkspaceSymbolParams;
@@ -190,6 +194,11 @@ public class DefaultRequestManager implements RequestManager {
         return client.refreshSemanticTokens();
     }
 
+    @Override
+    public CompletableFuture<Void> refreshDiagnostics() {
+        return client.refreshDiagnostics();
+    }
+
     // Server
 
     // General
@@ -740,6 +749,37 @@ public class DefaultRequestManager implements RequestManager {
         return null;
     }
 
+    @Override
+    public CompletableFuture<DocumentDiagnosticReport> diagnostic(DocumentDiagnosticParams params) {
+        if (checkStatus()) {
+            try {
+                return serverCapabilities.getDiagnosticProvider() != null ?
+                        textDocumentService.diagnostic(params) :
+                        null;
+            } catch (Exception e) {
+                crashed(e);
+                return null;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public CompletableFuture<WorkspaceDiagnosticReport> diagnostic(WorkspaceDiagnosticParams params) {
+        if (checkStatus()) {
+            try {
+                return serverCapabilities.getDiagnosticProvider() != null
+                        && serverCapabilities.getDiagnosticProvider().isWorkspaceDiagnostics() ?
+                        workspaceService.diagnostic(params) :
+                        null;
+            } catch (Exception e) {
+                crashed(e);
+                return null;
+            }
+        }
+        return null;
+    }
+
     public boolean checkStatus() {
         return wrapper.getStatus() == ServerStatus.INITIALIZED;
     }
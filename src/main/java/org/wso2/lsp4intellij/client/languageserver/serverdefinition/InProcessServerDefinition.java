@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.languageserver.serverdefinition;
+
+import org.wso2.lsp4intellij.client.connection.InProcessStreamConnectionProvider;
+import org.wso2.lsp4intellij.client.connection.StreamConnectionProvider;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A class representing a JVM language server which runs inside the IDE process instead of a process of its own.
+ * The server is loaded from its own classpath, isolated from the plugin's dependencies except for lsp4j, and is
+ * started, shut down and restarted like any other server; each start gets a fresh class loader.
+ */
+@SuppressWarnings("unused")
+public class InProcessServerDefinition extends LanguageServerDefinition {
+
+    protected String serverClass;
+    protected URL[] classpath;
+
+    /**
+     * Creates new instance with the given language id which is different from the file extension.
+     *
+     * @param ext         The extension
+     * @param languageIds The language server ids mapping to extension(s).
+     * @param serverClass The fully qualified name of the {@code LanguageServer} implementation, which needs a
+     *                    public no-arg constructor
+     * @param classpath   The jars and directories of the server and its dependencies
+     */
+    @SuppressWarnings("WeakerAccess")
+    public InProcessServerDefinition(String ext, Map<String, String> languageIds, String serverClass,
+                                     URL... classpath) {
+        this.ext = ext;
+        this.languageIds = languageIds;
+        this.serverClass = serverClass;
+        this.classpath = classpath;
+    }
+
+    /**
+     * Creates new instance.
+     *
+     * @param ext         The extension
+     * @param serverClass The fully qualified name of the {@code LanguageServer} implementation
+     * @param classpath   The jars and directories of the server and its dependencies
+     */
+    @SuppressWarnings("unused")
+    public InProcessServerDefinition(String ext, String serverClass, URL... classpath) {
+        this(ext, Collections.emptyMap(), serverClass, classpath);
+    }
+
+    public String toString() {
+        return "InProcessServerDefinition : " + serverClass;
+    }
+
+    @Override
+    public StreamConnectionProvider createConnectionProvider(String workingDir) {
+        return new InProcessStreamConnectionProvider(serverClass, classpath,
+                InProcessServerDefinition.class.getClassLoader());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof InProcessServerDefinition) {
+            InProcessServerDefinition other = (InProcessServerDefinition) obj;
+            return ext.equals(other.ext) && serverClass.equals(other.serverClass)
+                    && Arrays.equals(classpath, other.classpath);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return ext.hashCode() + 3 * serverClass.hashCode() + 7 * Arrays.hashCode(classpath);
+    }
+}
@@ -19,6 +19,7 @@ import com.intellij.openapi.diagnostic.Logger;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.eclipse.lsp4j.InitializeParams;
+import org.jetbrains.annotations.Nullable;
 import org.wso2.lsp4intellij.client.connection.StreamConnectionProvider;
 
 import java.io.IOException;
@@ -27,6 +28,7 @@ import java.io.OutputStream;
 import java.net.URI;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -39,7 +41,17 @@ public class LanguageServerDefinition {
     public String ext;
     protected Map<String, String> languageIds = Collections.emptyMap();
     private final Map<String, StreamConnectionProvider> streamConnectionProviders = new ConcurrentHashMap<>();
+    // Spare processes which are already running but not yet connected, keyed by standbyKey(workingDir).
+    private final Map<String, StreamConnectionProvider> standbyProviders = new ConcurrentHashMap<>();
+    private volatile boolean standbyEnabled = false;
+    private volatile boolean shared = false;
+    private volatile long idleTimeout = 0;
+    private volatile long memoryCeiling = 0;
+    private volatile long probeInterval = 0;
+    private volatile boolean capabilitySnapshotEnabled = true;
+    private volatile boolean appCdsEnabled = false;
     public static final String SPLIT_CHAR = ",";
+    private static final String SHARED_STANDBY_KEY = "";
 
     /**
      * Starts a Language server for the given directory and returns a tuple (InputStream, OutputStream).
@@ -54,14 +66,239 @@ public class LanguageServerDefinition {
             return new ImmutablePair<>(streamConnectionProvider.getInputStream(),
                     streamConnectionProvider.getOutputStream());
         } else {
-            streamConnectionProvider = createConnectionProvider(workingDir);
-            streamConnectionProvider.start();
-            streamConnectionProviders.put(workingDir, streamConnectionProvider);
-            return new ImmutablePair<>(streamConnectionProvider.getInputStream(),
-                    streamConnectionProvider.getOutputStream());
+            streamConnectionProvider = takeStandby(workingDir);
+            if (streamConnectionProvider == null) {
+                streamConnectionProvider = createConnectionProvider(workingDir);
+                streamConnectionProvider.start();
+            }
+            return adopt(workingDir, streamConnectionProvider);
+        }
+    }
+
+    /**
+     * Registers an already started connection as the language server of the given directory, so that
+     * {@link #stop(String)} terminates it.
+     *
+     * @param workingDir The root directory
+     * @param provider   A started connection, usually one returned by {@link #takeStandby(String)}
+     * @return The input and output streams of the server
+     */
+    public Pair<InputStream, OutputStream> adopt(String workingDir, StreamConnectionProvider provider) {
+        StreamConnectionProvider previous = streamConnectionProviders.put(workingDir, provider);
+        if (previous != null && previous != provider) {
+            LOG.warn("Replacing a running connection for workingDir " + workingDir + " and ext " + ext);
+            previous.stop();
+        }
+        return new ImmutablePair<>(provider.getInputStream(), provider.getOutputStream());
+    }
+
+    /**
+     * Enables or disables the standby pool of this definition. With the pool enabled, a spare server process
+     * is kept running (and, by the wrapper, initialized) so that restarts and crash recovery do not pay the
+     * full cold start of the server. Disabled by default, since every spare costs a whole server process.
+     *
+     * @param standbyEnabled Whether spare processes should be kept
+     */
+    public void setStandbyEnabled(boolean standbyEnabled) {
+        this.standbyEnabled = standbyEnabled;
+        if (!standbyEnabled) {
+            standbyProviders.keySet().forEach(this::stopStandbyByKey);
+        }
+    }
+
+    public boolean isStandbyEnabled() {
+        return standbyEnabled;
+    }
+
+    /**
+     * Enables or disables shared-server mode. In this mode, all projects using this definition are served by a
+     * single server process: the first project launches it, and the others are added and removed as workspace
+     * folders with {@code workspace/didChangeWorkspaceFolders}. The server should announce support for workspace
+     * folder change notifications. Standby servers are not kept for shared definitions.
+     * <p>
+     * Changing the mode affects servers started afterwards.
+     *
+     * @param shared Whether projects should share one server process
+     */
+    public void setShared(boolean shared) {
+        this.shared = shared;
+    }
+
+    public boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * Sets how long a server may go without requests before it is shut down to free its memory. The editors stay
+     * connected, and the server starts again on the next request, with their documents opened again as they are
+     * at that point.
+     *
+     * @param idleTimeout The idle period in milliseconds; 0 (the default) keeps servers running
+     */
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = Math.max(0, idleTimeout);
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Sets the resident memory above which a server is recycled: it is shut down gracefully and started again,
+     * with the documents of the connected editors opened again. Meant for servers which leak memory over time.
+     *
+     * @param memoryCeiling The ceiling in bytes; 0 (the default) never recycles servers
+     */
+    public void setMemoryCeiling(long memoryCeiling) {
+        this.memoryCeiling = Math.max(0, memoryCeiling);
+    }
+
+    public long getMemoryCeiling() {
+        return memoryCeiling;
+    }
+
+    /**
+     * Sets how often a running server is probed for liveness. A server which leaves several probes in a row
+     * unanswered is restarted like a crashed one, so only enable probing for servers which answer unknown
+     * {@code $/} requests while they are busy, e.g. indexing.
+     *
+     * @param probeInterval The interval in milliseconds; 0, the default, disables probing
+     */
+    public void setProbeInterval(long probeInterval) {
+        this.probeInterval = Math.max(0, probeInterval);
+    }
+
+    public long getProbeInterval() {
+        return probeInterval;
+    }
+
+    /**
+     * Sets whether the capabilities of this server are kept between IDE sessions, so that editors can be attached
+     * while the server is still starting. Their documents are opened once the live capabilities confirm the
+     * stored ones; if they differ, the editors are attached again with the live capabilities. Enabled by default.
+     */
+    public void setCapabilitySnapshotEnabled(boolean capabilitySnapshotEnabled) {
+        this.capabilitySnapshotEnabled = capabilitySnapshotEnabled;
+    }
+
+    public boolean isCapabilitySnapshotEnabled() {
+        return capabilitySnapshotEnabled;
+    }
+
+    /**
+     * Sets whether a server started with {@code java -jar} or {@code java -cp} (Java 13 or later) is launched with
+     * an AppCDS archive of the classes it loads. The archive is recorded when the first server process exits, kept
+     * in the IDE's system directory, and recorded again once the server's jars change. Applies to
+     * {@link RawCommandServerDefinition} and {@link ProcessBuilderServerDefinition}; disabled by default.
+     */
+    public void setAppCdsEnabled(boolean appCdsEnabled) {
+        this.appCdsEnabled = appCdsEnabled;
+    }
+
+    public boolean isAppCdsEnabled() {
+        return appCdsEnabled;
+    }
+
+    /**
+     * Identifies the server binary whose capabilities are kept between sessions. The command line serves for most
+     * definitions; override to add the server version when it does not show in the command line.
+     */
+    public String getSnapshotKey() {
+        return toString();
+    }
+
+    /**
+     * @param workingDir The root directory
+     * @return the process of the server running for the given directory, if it is a local process
+     */
+    public Optional<ProcessHandle> getProcessHandle(String workingDir) {
+        StreamConnectionProvider provider = streamConnectionProviders.get(workingDir);
+        return provider != null ? provider.getProcessHandle() : Optional.empty();
+    }
+
+    /**
+     * @param workingDir The root directory
+     * @return the most recent error output of the server running for the given directory, or null if none runs
+     */
+    @Nullable
+    public String getErrorOutput(String workingDir) {
+        StreamConnectionProvider provider = streamConnectionProviders.get(workingDir);
+        return provider != null ? provider.getErrorOutput() : null;
+    }
+
+    /**
+     * Whether the processes of this definition do not depend on the working directory they are started for.
+     * A spare process of such a definition can be handed to any project, including one which has not started
+     * a server yet.
+     */
+    public boolean isStandbyShared() {
+        return false;
+    }
+
+    /**
+     * Spawns a spare process for the given directory, unless the pool is disabled or already holds one.
+     *
+     * @param workingDir The root directory
+     * @throws IOException if the process could not be started
+     */
+    public void prepareStandby(String workingDir) throws IOException {
+        if (!standbyEnabled) {
+            return;
+        }
+        String key = standbyKey(workingDir);
+        synchronized (standbyProviders) {
+            StreamConnectionProvider existing = standbyProviders.get(key);
+            if (existing != null && existing.isAlive()) {
+                return;
+            }
+            if (existing != null) {
+                standbyProviders.remove(key);
+                existing.stop();
+            }
+            StreamConnectionProvider provider = createConnectionProvider(workingDir);
+            provider.start();
+            standbyProviders.put(key, provider);
         }
     }
 
+    /**
+     * Removes a running spare process for the given directory from the pool. The caller owns the returned
+     * connection and either {@link #adopt(String, StreamConnectionProvider) adopts} or stops it.
+     *
+     * @param workingDir The root directory
+     * @return A live spare connection, or null if there is none
+     */
+    @Nullable
+    public StreamConnectionProvider takeStandby(String workingDir) {
+        StreamConnectionProvider provider = standbyProviders.remove(standbyKey(workingDir));
+        if (provider != null && !provider.isAlive()) {
+            LOG.info("Discarding a standby server of " + ext + " which exited while waiting");
+            provider.stop();
+            return null;
+        }
+        return provider;
+    }
+
+    /**
+     * Stops the spare process kept for the given directory, if any.
+     *
+     * @param workingDir The root directory
+     */
+    public void stopStandby(String workingDir) {
+        stopStandbyByKey(standbyKey(workingDir));
+    }
+
+    private void stopStandbyByKey(String key) {
+        StreamConnectionProvider provider = standbyProviders.remove(key);
+        if (provider != null) {
+            provider.stop();
+        }
+    }
+
+    private String standbyKey(String workingDir) {
+        return isStandbyShared() ? SHARED_STANDBY_KEY : workingDir;
+    }
+
     /**
      * Stops the Language server corresponding to the given working directory.
      *
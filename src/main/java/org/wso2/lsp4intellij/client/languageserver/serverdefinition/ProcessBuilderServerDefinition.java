@@ -15,6 +15,7 @@
  */
 package org.wso2.lsp4intellij.client.languageserver.serverdefinition;
 
+import org.wso2.lsp4intellij.client.connection.AppCdsArchives;
 import org.wso2.lsp4intellij.client.connection.ProcessStreamConnectionProvider;
 import org.wso2.lsp4intellij.client.connection.StreamConnectionProvider;
 
@@ -60,7 +61,16 @@ public class ProcessBuilderServerDefinition extends LanguageServerDefinition {
 
     @Override
     public StreamConnectionProvider createConnectionProvider(String workingDir) {
-        return new ProcessStreamConnectionProvider(processBuilder);
+        return new ProcessStreamConnectionProvider(isAppCdsEnabled()
+                ? AppCdsArchives.getInstance().apply(processBuilder) : processBuilder);
+    }
+
+    /**
+     * The process builder carries its own working directory, so a spare process can serve any project.
+     */
+    @Override
+    public boolean isStandbyShared() {
+        return true;
     }
 
     @Override
@@ -15,11 +15,13 @@
  */
 package org.wso2.lsp4intellij.client.languageserver.serverdefinition;
 
+import org.wso2.lsp4intellij.client.connection.AppCdsArchives;
 import org.wso2.lsp4intellij.client.connection.ProcessStreamConnectionProvider;
 import org.wso2.lsp4intellij.client.connection.StreamConnectionProvider;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -61,7 +63,11 @@ public class RawCommandServerDefinition extends LanguageServerDefinition {
 
     @Override
     public StreamConnectionProvider createConnectionProvider(String workingDir) {
-        return new ProcessStreamConnectionProvider(Arrays.asList(command), workingDir);
+        List<String> commands = Arrays.asList(command);
+        if (isAppCdsEnabled()) {
+            commands = AppCdsArchives.getInstance().apply(commands, workingDir);
+        }
+        return new ProcessStreamConnectionProvider(commands, workingDir);
     }
 
     @Override
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.languageserver.wrapper;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.diagnostic.Logger;
+import org.eclipse.lsp4j.InitializeResult;
+import org.eclipse.lsp4j.jsonrpc.json.MessageJsonHandler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the initialize result of the last successful start of each server on disk, so that the editors of the
+ * next IDE session can be attached before the new server has answered initialize. A snapshot is only a guess:
+ * the live result always wins, and replaces the snapshot when it differs.
+ */
+class CapabilitySnapshots {
+
+    private static final Logger LOG = Logger.getInstance(CapabilitySnapshots.class);
+    // lsp4j's own Gson, which knows how to read the Either and enum fields of the protocol classes.
+    private static final Gson GSON = new MessageJsonHandler(Collections.emptyMap()).getGson();
+    private static final String EXTENSION = ".json";
+
+    private final Path directory;
+    private final Map<String, Optional<InitializeResult>> loaded = new ConcurrentHashMap<>();
+
+    CapabilitySnapshots(@NotNull Path directory) {
+        this.directory = directory;
+    }
+
+    static CapabilitySnapshots getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * @return the snapshot stored under the given key, or null if there is none or it cannot be read
+     */
+    @Nullable
+    InitializeResult load(@NotNull String key) {
+        return loaded.computeIfAbsent(key, k -> Optional.ofNullable(read(fileFor(k)))).orElse(null);
+    }
+
+    /**
+     * Stores the given result under the given key, unless an equal snapshot is stored already.
+     */
+    void save(@NotNull String key, @NotNull InitializeResult result) {
+        InitializeResult previous = load(key);
+        if (previous != null && matches(previous, result)) {
+            return;
+        }
+        loaded.put(key, Optional.of(result));
+        Path file = fileFor(key);
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "snapshot", EXTENSION);
+            Files.writeString(temp, GSON.toJson(result), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("Could not store the capabilities of the language server in " + file, e);
+        }
+    }
+
+    /**
+     * @return whether the two results announce the same server and the same capabilities
+     */
+    static boolean matches(@NotNull InitializeResult snapshot, @NotNull InitializeResult live) {
+        return Objects.equals(GSON.toJsonTree(snapshot.getServerInfo()), GSON.toJsonTree(live.getServerInfo()))
+                && Objects.equals(GSON.toJsonTree(snapshot.getCapabilities()),
+                GSON.toJsonTree(live.getCapabilities()));
+    }
+
+    /**
+     * File names are derived from the key, which may contain any character, e.g. a whole command line.
+     */
+    static String fileName(@NotNull String key) {
+        return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)) + EXTENSION;
+    }
+
+    private Path fileFor(String key) {
+        return directory.resolve(fileName(key));
+    }
+
+    @Nullable
+    private static InitializeResult read(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            InitializeResult result = GSON.fromJson(Files.readString(file, StandardCharsets.UTF_8),
+                    InitializeResult.class);
+            return result != null && result.getCapabilities() != null ? result : null;
+        } catch (IOException | JsonParseException e) {
+            LOG.warn("Ignoring the unreadable capability snapshot " + file, e);
+            return null;
+        }
+    }
+
+    private static final class Holder {
+        private static final CapabilitySnapshots INSTANCE = new CapabilitySnapshots(
+                Paths.get(PathManager.getSystemPath(), "lsp4intellij", "capabilities"));
+    }
+}
@@ -15,21 +15,18 @@
  */
 package org.wso2.lsp4intellij.client.languageserver.wrapper;
 
-import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
 import com.intellij.openapi.application.ApplicationInfo;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.fileEditor.FileEditor;
 import com.intellij.openapi.fileEditor.FileEditorManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.MessageType;
-import com.intellij.openapi.ui.Messages;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.wm.impl.status.widget.StatusBarWidgetsManager;
-import com.intellij.psi.PsiDocumentManager;
-import com.intellij.psi.PsiFile;
 import com.intellij.remoteServer.util.CloudNotifier;
-import com.intellij.util.PlatformIcons;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import org.apache.commons.lang3.tuple.Pair;
 import org.eclipse.lsp4j.ClientCapabilities;
 import org.eclipse.lsp4j.ClientInfo;
@@ -39,7 +36,10 @@ import org.eclipse.lsp4j.CodeActionLiteralSupportCapabilities;
 import org.eclipse.lsp4j.CodeActionResolveSupportCapabilities;
 import org.eclipse.lsp4j.CompletionCapabilities;
 import org.eclipse.lsp4j.CompletionItemCapabilities;
+import org.eclipse.lsp4j.CompletionItemResolveSupportCapabilities;
 import org.eclipse.lsp4j.DefinitionCapabilities;
+import org.eclipse.lsp4j.DiagnosticCapabilities;
+import org.eclipse.lsp4j.DiagnosticWorkspaceCapabilities;
 import org.eclipse.lsp4j.DidChangeWatchedFilesCapabilities;
 import org.eclipse.lsp4j.DocumentHighlightCapabilities;
 import org.eclipse.lsp4j.ExecuteCommandCapabilities;
@@ -52,7 +52,9 @@ import org.eclipse.lsp4j.HoverCapabilities;
 import org.eclipse.lsp4j.InitializeParams;
 import org.eclipse.lsp4j.InitializeResult;
 import org.eclipse.lsp4j.InitializedParams;
+import org.eclipse.lsp4j.MarkupKind;
 import org.eclipse.lsp4j.OnTypeFormattingCapabilities;
+import org.eclipse.lsp4j.PreviousResultId;
 import org.eclipse.lsp4j.RangeFormattingCapabilities;
 import org.eclipse.lsp4j.ReferencesCapabilities;
 import org.eclipse.lsp4j.RenameCapabilities;
@@ -64,8 +66,13 @@ import org.eclipse.lsp4j.TextDocumentClientCapabilities;
 import org.eclipse.lsp4j.TextDocumentSyncKind;
 import org.eclipse.lsp4j.TextDocumentSyncOptions;
 import org.eclipse.lsp4j.WorkspaceClientCapabilities;
+import org.eclipse.lsp4j.WorkspaceDiagnosticParams;
+import org.eclipse.lsp4j.WorkspaceDiagnosticReport;
+import org.eclipse.lsp4j.WorkspaceDocumentDiagnosticReport;
 import org.eclipse.lsp4j.WorkspaceEditCapabilities;
 import org.eclipse.lsp4j.WorkspaceFolder;
+import org.eclipse.lsp4j.jsonrpc.Endpoint;
+import org.eclipse.lsp4j.jsonrpc.JsonRpcException;
 import org.eclipse.lsp4j.jsonrpc.Launcher;
 import org.eclipse.lsp4j.jsonrpc.ResponseErrorException;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
@@ -77,8 +84,12 @@ import org.eclipse.lsp4j.services.LanguageServer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.wso2.lsp4intellij.IntellijLanguageClient;
+import org.wso2.lsp4intellij.client.ClientContext;
 import org.wso2.lsp4intellij.client.DefaultLanguageClient;
 import org.wso2.lsp4intellij.client.ServerWrapperBaseClientContext;
+import org.wso2.lsp4intellij.client.connection.CoalescingOutputStream;
+import org.wso2.lsp4intellij.client.connection.ProcessResourceUsage;
+import org.wso2.lsp4intellij.client.connection.StreamConnectionProvider;
 import org.wso2.lsp4intellij.client.languageserver.ServerOptions;
 import org.wso2.lsp4intellij.client.languageserver.ServerStatus;
 import org.wso2.lsp4intellij.client.languageserver.requestmanager.DefaultRequestManager;
@@ -93,7 +104,10 @@ import org.wso2.lsp4intellij.listeners.EditorMouseMotionListenerImpl;
 import org.wso2.lsp4intellij.listeners.LSPCaretListenerImpl;
 import org.wso2.lsp4intellij.requests.RequestExecutor;
 import org.wso2.lsp4intellij.requests.Timeouts;
+import org.wso2.lsp4intellij.services.DaemonRestartCoalescer;
+import org.wso2.lsp4intellij.services.LspApplicationServerRegistry;
 import org.wso2.lsp4intellij.services.LspServerManager;
+import org.wso2.lsp4intellij.services.WorkspaceDiagnosticIndex;
 import org.wso2.lsp4intellij.statusbar.LSPServerStatusWidget;
 import org.wso2.lsp4intellij.statusbar.LSPServerStatusWidgetFactory;
 import org.wso2.lsp4intellij.utils.FileUtils;
@@ -111,14 +125,20 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.wso2.lsp4intellij.client.languageserver.ServerStatus.INITIALIZED;
 import static org.wso2.lsp4intellij.client.languageserver.ServerStatus.STARTED;
@@ -128,7 +148,6 @@ import static org.wso2.lsp4intellij.client.languageserver.ServerStatus.STOPPING;
 import static org.wso2.lsp4intellij.requests.Timeout.getTimeout;
 import static org.wso2.lsp4intellij.requests.Timeouts.INIT;
 import static org.wso2.lsp4intellij.requests.Timeouts.SHUTDOWN;
-import static org.wso2.lsp4intellij.utils.ApplicationUtils.computableReadAction;
 import static org.wso2.lsp4intellij.utils.ApplicationUtils.invokeLater;
 import static org.wso2.lsp4intellij.utils.FileUtils.editorToURIString;
 import static org.wso2.lsp4intellij.utils.FileUtils.reloadEditors;
@@ -153,18 +172,55 @@ public class LanguageServerWrapper {
     private RequestManager requestManager;
     private InitializeResult initializeResult;
     private Future<?> launcherFuture;
-    private ExecutorService launcherExecutor;
+    private volatile LauncherExecutor launcherExecutor;
+    private volatile CoalescingOutputStream serverOutput;
+    private final AtomicReference<StandbyServer> standby = new AtomicReference<>();
+    private volatile SharedServerConnection sharedConnection;
+    private final AtomicReference<CompletableFuture<WorkspaceDiagnosticReport>> workspaceDiagnostics =
+            new AtomicReference<>();
+    // Error output of the last server process of this wrapper, kept after the process is gone.
+    private volatile String lastErrorOutput = "";
+    private volatile boolean disposed = false;
+    // Set while the server is down but the editors are still connected: after hibernation, or after a crash.
+    private final AtomicBoolean suspended = new AtomicBoolean(false);
+    private final AtomicBoolean recovering = new AtomicBoolean(false);
+    private final AtomicReference<CompletableFuture<InitializeResult>> recoveryInit = new AtomicReference<>();
+    private final RestartBackoff restartBackoff = new RestartBackoff();
+    private volatile long lastActivity = System.currentTimeMillis();
+    private volatile ScheduledFuture<?> idleCheck;
+    private volatile ScheduledFuture<?> resourceSampling;
+    private volatile ScheduledFuture<?> probeLoop;
+    private final AtomicBoolean probing = new AtomicBoolean(false);
+    private final ServerHealth health = new ServerHealth();
+    private volatile long initializedAt = 0;
     private final ExecutorService dispatcher;
     private final RequestExecutor requestExecutor = new RequestExecutor(this);
-    private CompletableFuture<InitializeResult> initializeFuture;
+    private volatile CompletableFuture<InitializeResult> initializeFuture;
+    // Set on the dispatcher once the editors queued during initialization have been attached.
+    private volatile boolean ready = false;
+    // Completes with true once the current start has initialized the server, and with false if it is stopped first.
+    private volatile CompletableFuture<Boolean> startup = CompletableFuture.completedFuture(false);
+    // The capabilities of an earlier session, and the editors attached with them ahead of initialization.
+    private volatile InitializeResult snapshot;
+    private final Set<Editor> provisionalEditors = ConcurrentHashMap.newKeySet();
+    // The manager to open each document with: the one whose document listener was registered.
+    private final Map<String, EditorEventManager> provisionalDocuments = new ConcurrentHashMap<>();
     private boolean capabilitiesAlreadyRequested = false;
-    private final AtomicInteger crashCount = new AtomicInteger(0);
     private volatile boolean alreadyShownTimeout = false;
     private volatile boolean alreadyShownCrash = false;
     private volatile ServerStatus status = STOPPED;
     private static final Logger LOG = Logger.getInstance(LanguageServerWrapper.class);
     private static final CloudNotifier notifier = new CloudNotifier("Language Server Protocol client");
 
+    private static final long MIN_IDLE_CHECK_PERIOD_MS = 1000;
+    private static final long MAX_IDLE_CHECK_PERIOD_MS = 60 * 1000;
+    private static final long RESOURCE_SAMPLING_PERIOD_MS = 10 * 1000;
+    // Keeps a ceiling below the footprint of a fresh server from recycling it over and over.
+    private static final long MIN_RECYCLE_UPTIME_MS = 5 * 60 * 1000;
+    private static final long PROBE_TIMEOUT_MS = 10 * 1000;
+    // No server implements this; the MethodNotFound error it answers with is the cheapest possible round trip.
+    private static final String PROBE_METHOD = "$/lsp4intellij/ping";
+
     private static final List<String> codeActionResolveProperties = new ArrayList<>(List.of("edit"));
 
     public LanguageServerWrapper(@NotNull LanguageServerDefinition serverDefinition, @NotNull Project project) {
@@ -198,6 +254,15 @@ public class LanguageServerWrapper {
         }
     }
 
+    /**
+     * Submits a task which talks to the server to the dispatcher like {@link #pool(Runnable)}, but only once the
+     * server can take requests: right away, or after a hibernated server has been started again by
+     * {@link #ensureStarted()}. Tasks waiting for the same start are not run in submission order.
+     */
+    public void poolWhenStarted(Runnable task) {
+        ensureStarted().whenComplete((started, error) -> pool(task));
+    }
+
     /**
      * @return The request executor which enforces the timeout/crash policy for blocking request waits
      */
@@ -282,8 +347,9 @@ public class LanguageServerWrapper {
         } else {
             try {
                 start();
-                if (initializeFuture != null) {
-                    initializeFuture.get((capabilitiesAlreadyRequested ? 0 : getTimeout(INIT)), TimeUnit.MILLISECONDS);
+                CompletableFuture<InitializeResult> init = initializeFuture;
+                if (init != null) {
+                    init.get((capabilitiesAlreadyRequested ? 0 : getTimeout(INIT)), TimeUnit.MILLISECONDS);
                     notifySuccess(INIT);
                 }
                 capabilitiesAlreadyRequested = true;
@@ -357,12 +423,36 @@ public class LanguageServerWrapper {
     }
 
     /**
-     * @return The request manager for this wrapper
+     * @return The request manager for this wrapper; the one of the previous server, which refuses requests, while
+     * the server is suspended. Use {@link #ensureStarted()} first to have a hibernated server started again.
      */
     public RequestManager getRequestManager() {
         return requestManager;
     }
 
+    /**
+     * Counts as activity for the idle timeout and, if the server hibernated, starts it again on the dispatcher.
+     * A crashed server is not started here; it restarts after its backoff delay, and the requests which the
+     * {@link RequestExecutor} can send again wait for it.
+     *
+     * @return completes once the server can take requests: with true right away if it is running, once it has
+     * been started, and its documents opened again, if it hibernated or is starting, and with false if that failed
+     */
+    public CompletableFuture<Boolean> ensureStarted() {
+        lastActivity = System.currentTimeMillis();
+        if (disposed) {
+            return CompletableFuture.completedFuture(false);
+        }
+        if (recovering.get()) {
+            return CompletableFuture.completedFuture(true);
+        }
+        if (suspended.get()) {
+            return startAsync();
+        }
+        CompletableFuture<Boolean> starting = startup;
+        return starting.isDone() ? CompletableFuture.completedFuture(true) : starting;
+    }
+
     /**
      * @return whether the underlying connection to language languageServer is still active
      */
@@ -372,7 +462,8 @@ public class LanguageServerWrapper {
     }
 
     /**
-     * Connects an editor to the languageServer.
+     * Connects an editor to the languageServer. Returns without waiting for the server to start: the editor is
+     * queued, and all queued editors are attached in one batch once the server is initialized.
      *
      * @param editor the editor
      */
@@ -400,93 +491,305 @@ public class LanguageServerWrapper {
         }
         serverManager.mapUri(uri, this);
 
+        toConnect.add(editor);
         start();
-        if (initializeFuture != null) {
-            ServerCapabilities capabilities = getServerCapabilities();
-            if (capabilities == null) {
-                LOG.warn("Capabilities are null for " + serverDefinition);
-                return;
-            }
+        if (ready) {
+            attachPendingEditors();
+        } else {
+            attachProvisionally();
+        }
+    }
 
-            initializeFuture.thenRun(() -> {
-                if (connectedEditors.contains(editor)) {
-                    return;
-                }
-                try {
-                    Either<TextDocumentSyncKind, TextDocumentSyncOptions> syncOptions =
-                            capabilities.getTextDocumentSync();
-                    if (syncOptions != null) {
-                        //Todo - Implement
-                        //  SelectionListenerImpl selectionListener = new SelectionListenerImpl();
-                        DocumentListenerImpl documentListener = new DocumentListenerImpl();
-                        EditorMouseListenerImpl mouseListener = new EditorMouseListenerImpl();
-                        EditorMouseMotionListenerImpl mouseMotionListener = new EditorMouseMotionListenerImpl();
-                        LSPCaretListenerImpl caretListener = new LSPCaretListenerImpl();
-
-                        ServerOptions serverOptions = new ServerOptions(capabilities);
-                        EditorEventManager manager;
-                        if (extManager != null) {
-                            manager = extManager.getExtendedEditorEventManagerFor(editor, documentListener,
-                                    mouseListener, mouseMotionListener, caretListener, requestManager, serverOptions,
-                                    this);
-                            if (manager == null) {
-                                manager = new EditorEventManager(editor, documentListener, mouseListener,
-                                        mouseMotionListener, caretListener,
-                                        requestManager, serverOptions, this);
-                            }
-                        } else {
-                            manager = new EditorEventManager(editor, documentListener, mouseListener,
-                                    mouseMotionListener, caretListener,
-                                    requestManager, serverOptions, this);
-                        }
-                        // selectionListener.setManager(manager);
-                        documentListener.setManager(manager);
-                        mouseListener.setManager(manager);
-                        mouseMotionListener.setManager(manager);
-                        caretListener.setManager(manager);
-                        manager.registerListeners();
-                        if (!urisUnderLspControl.contains(uri)) {
-                            manager.documentEventManager.registerListeners();
-                        }
-                        urisUnderLspControl.add(uri);
-                        connectedEditors.add(editor);
-                        if (uriToEditorManagers.containsKey(uri)) {
-                            uriToEditorManagers.get(uri).add(manager);
-                        } else {
-                            Set<EditorEventManager> set = new HashSet<>();
-                            set.add(manager);
-                            uriToEditorManagers.put(uri, set);
-                            manager.documentOpened();
-                        }
-                        LOG.info("Created a manager for " + uri);
-                        synchronized (toConnect) {
-                            toConnect.remove(editor);
-                        }
-                        for (Editor ed : new HashSet<>(toConnect)) {
-                            connect(ed);
-                        }
-                        // Triggers annotators since this is the first editor which starts the LS
-                        // and annotators are executed before LS is bootstrap to provide diagnostics.
-                        computableReadAction(() -> {
-                            PsiFile psiFile = PsiDocumentManager.getInstance(project).getPsiFile(editor.getDocument());
-                            if (psiFile != null) {
-                                DaemonCodeAnalyzer.getInstance(project).restart(psiFile);
-                            }
-                            return null;
-                        });
-                    }
-                } catch (Exception e) {
-                    LOG.error(e);
+    /**
+     * Called on the dispatcher when the initialization started by {@link #start()} completes, successfully or not.
+     */
+    private void initializeCompleted(CompletableFuture<InitializeResult> init, @Nullable Throwable failure,
+                                     boolean resuming) {
+        Throwable error = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        boolean recovery = recoveryInit.compareAndSet(init, null);
+        if (recovery) {
+            recovering.set(false);
+        }
+        if (init != initializeFuture || error instanceof CancellationException) {
+            // The server was stopped in the meantime.
+            return;
+        }
+        if (error == null) {
+            if (recovery) {
+                restartBackoff.recovered();
+                LOG.info("Recovered " + serverDefinition + " ; " + projectRootPath + " after a crash");
+            }
+            if (resuming) {
+                resumed();
+            }
+            settleProvisionalEditors(initializeResult);
+            ready = true;
+            startup.complete(true);
+            attachPendingEditors();
+            pullWorkspaceDiagnostics();
+        } else if (recovery) {
+            // A server which cannot even initialize again counts as the next crash.
+            crashed(new ExecutionException(error));
+        } else if (error instanceof TimeoutException) {
+            notifyFailure(INIT);
+            String msg = String.format("%s \n is not initialized after %d seconds",
+                    serverDefinition.toString(), getTimeout(INIT) / 1000);
+            LOG.warn(msg, error);
+            invokeLater(() -> {
+                if (!alreadyShownTimeout) {
+                    notifier.showMessage(msg, MessageType.WARNING);
+                    alreadyShownTimeout = true;
                 }
             });
+            stop(false);
+        } else {
+            LOG.warn(error);
+            stop(false);
+        }
+    }
 
+    /**
+     * Asks the server for the diagnostics of all the files of the workspace, if it supports that, and stores them in
+     * the project's {@link WorkspaceDiagnosticIndex}. A request still running is cancelled first. Not done for a
+     * server shared with other projects, whose answer would mix the files of all of them.
+     */
+    public void pullWorkspaceDiagnostics() {
+        RequestManager manager = requestManager;
+        if (status != INITIALIZED || manager == null || sharedConnection != null || project.isDisposed()) {
+            return;
+        }
+        // Only this server's result ids: those of another server mean nothing to it.
+        List<PreviousResultId> previous = WorkspaceDiagnosticIndex.getInstance(project)
+                .getResultIds(serverDefinition).entrySet().stream()
+                .map(e -> new PreviousResultId(e.getKey(), e.getValue()))
+                .collect(Collectors.toList());
+        CompletableFuture<WorkspaceDiagnosticReport> request =
+                manager.diagnostic(new WorkspaceDiagnosticParams(previous));
+        if (request == null) {
+            return;
+        }
+        CompletableFuture<WorkspaceDiagnosticReport> running = workspaceDiagnostics.getAndSet(request);
+        if (running != null) {
+            running.cancel(true);
+        }
+        request.whenComplete((report, error) -> {
+            workspaceDiagnostics.compareAndSet(request, null);
+            if (report != null) {
+                pool(() -> workspaceDiagnosticsReceived(report));
+            } else if (error != null && !(error instanceof CancellationException)) {
+                LOG.debug("Workspace diagnostics request to " + serverDefinition + " failed", error);
+            }
+        });
+    }
+
+    private void workspaceDiagnosticsReceived(WorkspaceDiagnosticReport report) {
+        if (project.isDisposed() || report.getItems() == null) {
+            return;
+        }
+        WorkspaceDiagnosticIndex index = WorkspaceDiagnosticIndex.getInstance(project);
+        for (WorkspaceDocumentDiagnosticReport item : report.getItems()) {
+            if (item.isLeft()) {
+                String uri = sanitizeURI(item.getLeft().getUri());
+                index.setResultId(serverDefinition, uri, item.getLeft().getResultId());
+                EditorEventManagerBase.diagnostics(project, serverDefinition, uri, item.getLeft().getItems());
+            } else {
+                index.setResultId(serverDefinition, sanitizeURI(item.getRight().getUri()),
+                        item.getRight().getResultId());
+            }
+        }
+    }
+
+    /**
+     * Attaches the editors which connected while the server was starting, in one batch, and runs the annotators
+     * for them once.
+     */
+    private void attachPendingEditors() {
+        InitializeResult result = initializeResult;
+        if (status != INITIALIZED || result == null || toConnect.isEmpty()) {
+            return;
+        }
+        List<Editor> attached = attachQueuedEditors(result.getCapabilities(), false);
+        if (attached.isEmpty()) {
+            return;
+        }
+        LOG.info("Attached " + attached.size() + " editors to " + serverDefinition + " ; " + projectRootPath);
+        restartAnnotators(attached);
+    }
+
+    /**
+     * Attaches the queued editors while the server is still starting, with the capabilities the same server
+     * announced in an earlier session. Their documents are only opened on the server once the live capabilities
+     * confirm the snapshot; edits made until then go out with the open.
+     */
+    private void attachProvisionally() {
+        if (status != STARTING || toConnect.isEmpty() || sharedConnection != null || languageServer == null
+                || !serverDefinition.isCapabilitySnapshotEnabled()) {
+            return;
+        }
+        InitializeResult cached = snapshot;
+        if (cached == null) {
+            cached = CapabilitySnapshots.getInstance().load(serverDefinition.getSnapshotKey());
+            if (cached == null) {
+                return;
+            }
+            snapshot = cached;
+        }
+        if (requestManager == null) {
+            // Refuses all requests while the server is starting, like the manager of any server not initialized.
+            requestManager = createRequestManager(cached.getCapabilities());
+        }
+        List<Editor> attached = attachQueuedEditors(cached.getCapabilities(), true);
+        if (!attached.isEmpty()) {
+            LOG.info("Attached " + attached.size() + " editors to " + serverDefinition + " ; " + projectRootPath
+                    + " ahead of its initialization");
+        }
+    }
+
+    /**
+     * Settles the editors attached with a capability snapshot, once the live capabilities are known, and stores
+     * the live capabilities for the next session. If the snapshot was right, the documents are opened on the
+     * server; otherwise the editors are queued again, to be attached with the live capabilities.
+     */
+    private void settleProvisionalEditors(InitializeResult live) {
+        InitializeResult cached = snapshot;
+        snapshot = null;
+        if (serverDefinition.isCapabilitySnapshotEnabled() && sharedConnection == null) {
+            CapabilitySnapshots.getInstance().save(serverDefinition.getSnapshotKey(), live);
+        }
+        if (provisionalEditors.isEmpty()) {
+            return;
+        }
+        List<Editor> editors = new ArrayList<>(provisionalEditors);
+        List<EditorEventManager> documents = new ArrayList<>(provisionalDocuments.values());
+        provisionalEditors.clear();
+        provisionalDocuments.clear();
+        if (cached != null && CapabilitySnapshots.matches(cached, live)) {
+            documents.forEach(EditorEventManager::documentOpened);
+            LOG.info("Opened " + documents.size() + " documents attached ahead of the initialization of "
+                    + serverDefinition);
+            restartAnnotators(editors);
         } else {
-            synchronized (toConnect) {
+            LOG.info(serverDefinition + " announced other capabilities than in its last session; attaching "
+                    + editors.size() + " editors again");
+            for (Editor editor : editors) {
+                detachProvisional(editor);
                 toConnect.add(editor);
             }
         }
     }
 
+    private void detachProvisional(Editor editor) {
+        EditorEventManager manager = EditorEventManagerBase.forEditor(editor);
+        connectedEditors.remove(editor);
+        if (manager == null) {
+            return;
+        }
+        manager.removeListeners();
+        EditorEventManagerBase.unregisterManager(manager);
+        String uri = manager.getIdentifier().getUri();
+        Set<EditorEventManager> managers = uriToEditorManagers.get(uri);
+        if (managers != null) {
+            managers.remove(manager);
+            if (managers.isEmpty()) {
+                manager.documentEventManager.removeListeners();
+                uriToEditorManagers.remove(uri);
+                urisUnderLspControl.remove(uri);
+            }
+        }
+    }
+
+    private List<Editor> attachQueuedEditors(ServerCapabilities capabilities, boolean provisional) {
+        List<Editor> attached = new ArrayList<>();
+        for (Editor editor : new ArrayList<>(toConnect)) {
+            toConnect.remove(editor);
+            if (editor.isDisposed() || connectedEditors.contains(editor)) {
+                continue;
+            }
+            try {
+                if (attachEditor(editor, capabilities, provisional)) {
+                    attached.add(editor);
+                }
+            } catch (Exception e) {
+                LOG.error(e);
+            }
+        }
+        return attached;
+    }
+
+    /**
+     * Triggers the annotators of the given editors, since they ran before the server was up to provide
+     * diagnostics. The restarts are merged with the ones the first diagnostics of the server ask for.
+     */
+    private void restartAnnotators(List<Editor> editors) {
+        if (project.isDisposed()) {
+            return;
+        }
+        DaemonRestartCoalescer coalescer = DaemonRestartCoalescer.getInstance(project);
+        for (Editor editor : editors) {
+            VirtualFile file = FileDocumentManager.getInstance().getFile(editor.getDocument());
+            if (file != null) {
+                coalescer.request(file);
+            }
+        }
+    }
+
+    private boolean attachEditor(Editor editor, ServerCapabilities capabilities, boolean provisional) {
+        Either<TextDocumentSyncKind, TextDocumentSyncOptions> syncOptions = capabilities.getTextDocumentSync();
+        if (syncOptions == null) {
+            return false;
+        }
+        String uri = editorToURIString(editor);
+        //Todo - Implement
+        //  SelectionListenerImpl selectionListener = new SelectionListenerImpl();
+        DocumentListenerImpl documentListener = new DocumentListenerImpl();
+        EditorMouseListenerImpl mouseListener = new EditorMouseListenerImpl();
+        EditorMouseMotionListenerImpl mouseMotionListener = new EditorMouseMotionListenerImpl();
+        LSPCaretListenerImpl caretListener = new LSPCaretListenerImpl();
+
+        ServerOptions serverOptions = new ServerOptions(capabilities);
+        EditorEventManager manager;
+        if (extManager != null) {
+            manager = extManager.getExtendedEditorEventManagerFor(editor, documentListener,
+                    mouseListener, mouseMotionListener, caretListener, requestManager, serverOptions, this);
+            if (manager == null) {
+                manager = new EditorEventManager(editor, documentListener, mouseListener,
+                        mouseMotionListener, caretListener, requestManager, serverOptions, this);
+            }
+        } else {
+            manager = new EditorEventManager(editor, documentListener, mouseListener,
+                    mouseMotionListener, caretListener, requestManager, serverOptions, this);
+        }
+        // selectionListener.setManager(manager);
+        documentListener.setManager(manager);
+        mouseListener.setManager(manager);
+        mouseMotionListener.setManager(manager);
+        caretListener.setManager(manager);
+        manager.registerListeners();
+        if (!urisUnderLspControl.contains(uri)) {
+            manager.documentEventManager.registerListeners();
+        }
+        urisUnderLspControl.add(uri);
+        connectedEditors.add(editor);
+        if (uriToEditorManagers.containsKey(uri)) {
+            uriToEditorManagers.get(uri).add(manager);
+        } else {
+            Set<EditorEventManager> set = new HashSet<>();
+            set.add(manager);
+            uriToEditorManagers.put(uri, set);
+            if (provisional) {
+                provisionalDocuments.put(uri, manager);
+            } else {
+                manager.documentOpened();
+            }
+        }
+        if (provisional) {
+            provisionalEditors.add(editor);
+        }
+        LOG.info("Created a manager for " + uri);
+        return true;
+    }
+
     /*
      * The shutdown request is sent from the client to the server. It asks the server to shut down, but to not exit \
      * (otherwise the response might not be delivered correctly to the client).
@@ -497,17 +800,50 @@ public class LanguageServerWrapper {
      * second caller into a no-op.
      */
     public synchronized void stop(boolean exit) {
-        if (this.status == STOPPED || this.status == STOPPING) {
+        // A suspended server is already down, but its editors are still connected.
+        boolean wasSuspended = suspended.getAndSet(false);
+        if (!wasSuspended && (this.status == STOPPED || this.status == STOPPING)) {
             return;
         }
         setStatus(STOPPING);
 
+        try {
+            if (!wasSuspended) {
+                shutdownServer(exit, true);
+            }
+        } finally {
+            for (Editor ed : new HashSet<>(connectedEditors)) {
+                disconnect(ed);
+            }
+
+            // sadly this whole editor closing stuff runs asynchronously,
+            // so we cannot be sure the state is really clean here...
+            // therefore clear the mapping from here as it should be empty by now.
+            uriToEditorManagers.clear();
+            urisUnderLspControl.clear();
+            provisionalEditors.clear();
+            provisionalDocuments.clear();
+            snapshot = null;
+            setStatus(STOPPED);
+        }
+    }
+
+    /**
+     * Shuts the server down and releases its connection, leaving the connected editors alone.
+     *
+     * @param graceful whether to ask the server to shut down first; pointless when the connection is broken
+     */
+    private void shutdownServer(boolean exit, boolean graceful) {
         if (initializeFuture != null) {
             initializeFuture.cancel(true);
         }
 
+        SharedServerConnection connection = sharedConnection;
         try {
-            if (languageServer != null) {
+            if (connection != null) {
+                // The server keeps running for the other projects; only this project is withdrawn from it.
+                connection.leave(this, new HashSet<>(urisUnderLspControl));
+            } else if (languageServer != null && graceful) {
                 CompletableFuture<Object> shutdown = languageServer.shutdown();
                 shutdown.get(getTimeout(SHUTDOWN), TimeUnit.MILLISECONDS);
                 notifySuccess(Timeouts.SHUTDOWN);
@@ -520,32 +856,255 @@ public class LanguageServerWrapper {
             notifyFailure(Timeouts.SHUTDOWN);
             LOG.warn("exception occurred while trying to shut down", e);
         } finally {
-            if (launcherFuture != null) {
-                launcherFuture.cancel(true);
-            }
-            if (launcherExecutor != null) {
-                launcherExecutor.shutdownNow();
+            if (connection == null) {
+                if (launcherFuture != null) {
+                    launcherFuture.cancel(true);
+                }
+                LauncherExecutor executor = launcherExecutor;
                 launcherExecutor = null;
+                if (executor != null) {
+                    executor.shutdownNow();
+                }
+                // Push out a pending exit notification before the process is torn down.
+                flushServerOutput();
+                serverOutput = null;
+                if (serverDefinition != null) {
+                    String errorOutput = serverDefinition.getErrorOutput(projectRootPath);
+                    if (errorOutput != null) {
+                        lastErrorOutput = errorOutput;
+                    }
+                    serverDefinition.stop(projectRootPath);
+                }
+                if (executor != null) {
+                    executor.awaitStopped();
+                }
             }
-            if (serverDefinition != null) {
-                serverDefinition.stop(projectRootPath);
+            ready = false;
+            startup.complete(false);
+            CompletableFuture<WorkspaceDiagnosticReport> pull = workspaceDiagnostics.getAndSet(null);
+            if (pull != null) {
+                pull.cancel(true);
             }
-            for (Editor ed : new HashSet<>(connectedEditors)) {
-                disconnect(ed);
+            // The problems of a server which is gone would stay listed until it is started again, if ever.
+            WorkspaceDiagnosticIndex index = project.isDisposed() ? null
+                    : project.getServiceIfCreated(WorkspaceDiagnosticIndex.class);
+            if (index != null) {
+                index.clear(serverDefinition);
             }
-
-            // sadly this whole editor closing stuff runs asynchronously,
-            // so we cannot be sure the state is really clean here...
-            // therefore clear the mapping from here as it should be empty by now.
-            uriToEditorManagers.clear();
-            urisUnderLspControl.clear();
+            sharedConnection = null;
             launcherFuture = null;
             capabilitiesAlreadyRequested = false;
             initializeResult = null;
             initializeFuture = null;
             languageServer = null;
+        }
+    }
+
+    /**
+     * Shuts the server down after the idle timeout of the definition has passed without any request, while
+     * keeping the editors connected. Their documents, versions included, are opened again on a new server by
+     * {@link #start()}, which {@link #ensureStarted()} runs before the next request, or when another editor
+     * connects.
+     */
+    private synchronized void hibernate() {
+        long idle = System.currentTimeMillis() - lastActivity;
+        if (status != INITIALIZED || disposed || idle < serverDefinition.getIdleTimeout()) {
+            return;
+        }
+        LOG.info("Hibernating " + serverDefinition + " ; " + projectRootPath + " after " + idle / 1000
+                + " seconds without activity");
+        setStatus(STOPPING);
+        try {
+            // A spare would keep the memory this is meant to free.
+            discardStandby();
+            shutdownServer(true, true);
+        } finally {
+            suspended.set(true);
+            setStatus(STOPPED);
+        }
+    }
+
+    /**
+     * @return whether the server was shut down, for being idle or after a crash, while the editors stay connected;
+     * it starts again on the next request, or after the backoff delay of a crash
+     */
+    public boolean isSuspended() {
+        return suspended.get();
+    }
+
+    /**
+     * @return whether a crashed server is waiting to be restarted or is starting again
+     */
+    public boolean isRecovering() {
+        return recovering.get();
+    }
+
+    private void checkIdle() {
+        long idleTimeout = serverDefinition.getIdleTimeout();
+        if (idleTimeout > 0 && status == INITIALIZED && System.currentTimeMillis() - lastActivity >= idleTimeout) {
+            pool(this::hibernate);
+        }
+    }
+
+    private void scheduleIdleCheck() {
+        long idleTimeout = serverDefinition.getIdleTimeout();
+        if (idleTimeout <= 0 || idleCheck != null || disposed) {
+            return;
+        }
+        long period = Math.max(MIN_IDLE_CHECK_PERIOD_MS, Math.min(idleTimeout / 2, MAX_IDLE_CHECK_PERIOD_MS));
+        idleCheck = AppExecutorUtil.getAppScheduledExecutorService()
+                .scheduleWithFixedDelay(this::checkIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private void scheduleResourceSampling() {
+        if (resourceSampling != null || disposed) {
+            return;
+        }
+        resourceSampling = AppExecutorUtil.getAppScheduledExecutorService().scheduleWithFixedDelay(
+                this::sampleResources, 0, RESOURCE_SAMPLING_PERIOD_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Samples the server process for the status bar widget, and recycles the server once it passes the memory
+     * ceiling of its definition. A server shared with other projects is left alone.
+     */
+    private void sampleResources() {
+        ProcessResourceUsage usage = status == INITIALIZED && sharedConnection == null
+                ? serverDefinition.getProcessHandle(projectRootPath).map(ProcessResourceUsage::sample).orElse(null)
+                : null;
+        getWidget().ifPresent(widget -> widget.setResourceUsage(usage));
+        long ceiling = serverDefinition.getMemoryCeiling();
+        if (usage != null && ceiling > 0 && usage.getResidentBytes() > ceiling
+                && System.currentTimeMillis() - initializedAt >= MIN_RECYCLE_UPTIME_MS) {
+            pool(() -> recycle(usage));
+        }
+    }
+
+    private void scheduleProbe() {
+        long interval = serverDefinition.getProbeInterval();
+        if (interval <= 0 || probeLoop != null || disposed) {
+            return;
+        }
+        probeLoop = AppExecutorUtil.getAppScheduledExecutorService()
+                .scheduleWithFixedDelay(this::probe, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Measures the round trip of a request the server can only reject. Any answer, error responses included,
+     * shows that the server still reads and answers messages; a server which stops answering is restarted
+     * like a crashed one. Runs on the scheduler and never blocks.
+     */
+    private void probe() {
+        LanguageServer server = languageServer;
+        if (status != INITIALIZED || recovering.get() || !(server instanceof Endpoint)
+                || !probing.compareAndSet(false, true)) {
+            return;
+        }
+        long sent = System.nanoTime();
+        CompletableFuture<?> answer;
+        try {
+            answer = ((Endpoint) server).request(PROBE_METHOD, null);
+        } catch (RuntimeException e) {
+            // A broken connection is reported by the reader task and by the requests of the editors.
+            probing.set(false);
+            LOG.debug("Could not probe " + serverDefinition, e);
+            return;
+        }
+        // Cancelling the lsp4j future, rather than failing it, also sends $/cancelRequest to the server.
+        ScheduledFuture<?> deadline = AppExecutorUtil.getAppScheduledExecutorService()
+                .schedule(() -> answer.cancel(true), PROBE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        answer.whenComplete((res, failure) -> {
+            deadline.cancel(false);
+            probing.set(false);
+            if (server != languageServer) {
+                return;
+            }
+            Throwable error = failure instanceof CompletionException ? failure.getCause() : failure;
+            if (error == null || error instanceof ResponseErrorException) {
+                health.answered(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sent));
+            } else if (error instanceof CancellationException) {
+                // Only the deadline cancels the probe.
+                health.unanswered();
+                LOG.warn(serverDefinition + " ; " + projectRootPath + " did not answer a liveness probe within "
+                        + PROBE_TIMEOUT_MS + " ms");
+                if (health.isUnresponsive()) {
+                    crashed(new TimeoutException(serverDefinition + " stopped answering"));
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the most recent error output of the server process, or of the last one once it has stopped
+     */
+    public String getErrorOutput() {
+        String current = sharedConnection == null ? serverDefinition.getErrorOutput(projectRootPath) : null;
+        return current != null ? current : lastErrorOutput;
+    }
+
+    /**
+     * @return the health score of the running server, from 0 (not answering) to 100
+     */
+    public int getHealthScore() {
+        return health.getScore();
+    }
+
+    /**
+     * @return the smoothed round trip time of the liveness probe in milliseconds, or -1 before the first answer
+     */
+    public long getProbeLatency() {
+        return health.getLatency();
+    }
+
+    /**
+     * Shuts a server which passed its memory ceiling down gracefully and starts it again, keeping the editors
+     * connected, the same way as after hibernation.
+     */
+    private synchronized void recycle(ProcessResourceUsage usage) {
+        if (status != INITIALIZED || disposed) {
+            return;
+        }
+        LOG.info(String.format("Recycling %s ; %s, which uses %d MB of memory", serverDefinition, projectRootPath,
+                usage.getResidentBytes() / (1024 * 1024)));
+        setStatus(STOPPING);
+        try {
+            shutdownServer(true, true);
+        } finally {
+            suspended.set(true);
             setStatus(STOPPED);
         }
+        start();
+    }
+
+    /**
+     * Sends didOpen for every document of the connected editors to a server started after hibernation or a crash,
+     * with the text and version the editors currently have, and sends the requests which were waiting for the
+     * previous server again.
+     */
+    private void resumed() {
+        reopenDocuments();
+        RequestManager manager = requestManager;
+        if (manager != null) {
+            requestExecutor.reissue(manager);
+        }
+    }
+
+    /**
+     * Keeps the changes of the connected documents from reaching a resumed server before the documents are opened
+     * on it again; the didOpen carries those changes.
+     */
+    private void expectReopen() {
+        for (Set<EditorEventManager> managers : uriToEditorManagers.values()) {
+            new ArrayList<>(managers).forEach(manager -> manager.documentEventManager.reopenPending());
+        }
+    }
+
+    private void reopenDocuments() {
+        for (Set<EditorEventManager> managers : uriToEditorManagers.values()) {
+            // Only the manager which opened the document on the previous server sends it again.
+            new ArrayList<>(managers).forEach(manager -> manager.documentEventManager.documentReopened());
+        }
+        LOG.info("Reopened " + uriToEditorManagers.size() + " documents on " + serverDefinition);
     }
 
     /**
@@ -571,59 +1130,36 @@ public class LanguageServerWrapper {
     }
 
     /**
-     * Starts the LanguageServer.
+     * Starts the LanguageServer. If a standby server is waiting for this project, it is attached instead of
+     * launching a new process; in shared-server mode, the project joins the server of its definition.
      */
     public void start() {
         if (status == STOPPED && !alreadyShownCrash && !alreadyShownTimeout) {
+            boolean resuming = suspended.getAndSet(false);
+            startup = new CompletableFuture<>();
+            if (resuming) {
+                expectReopen();
+            }
             setStatus(STARTING);
             try {
-                Pair<InputStream, OutputStream> streams = serverDefinition.start(projectRootPath);
-                InputStream inputStream = streams.getKey();
-                OutputStream outputStream = streams.getValue();
-                InitializeParams initParams = getInitParams();
-                ExecutorService executorService = Executors.newCachedThreadPool();
-                launcherExecutor = executorService;
-                MessageHandler messageHandler = new MessageHandler(
-                        serverDefinition.getServerListener(), () -> getStatus() != STOPPED);
-                if (extManager != null && extManager.getExtendedServerInterface() != null) {
-                    Class<? extends LanguageServer> remoteServerInterFace = extManager.getExtendedServerInterface();
-                    client = extManager.getExtendedClientFor(new ServerWrapperBaseClientContext(this));
-
-                    Launcher<? extends LanguageServer> launcher = Launcher
-                            .createLauncher(client, remoteServerInterFace, inputStream, outputStream, executorService,
-                                    messageHandler);
-                    languageServer = launcher.getRemoteProxy();
-                    launcherFuture = launcher.startListening();
+                if (serverDefinition.isShared()) {
+                    joinSharedServer();
                 } else {
-                    client = new DefaultLanguageClient(new ServerWrapperBaseClientContext(this));
-                    Launcher<LanguageServer> launcher = Launcher
-                            .createLauncher(client, LanguageServer.class, inputStream, outputStream, executorService,
-                                    messageHandler);
-                    languageServer = launcher.getRemoteProxy();
-                    launcherFuture = launcher.startListening();
-                }
-                messageHandler.setLanguageServer(languageServer);
-
-                initializeFuture = languageServer.initialize(initParams).thenApply(res -> {
-                    initializeResult = res;
-                    LOG.info("Got initializeResult for " + serverDefinition + " ; " + projectRootPath);
-                    if (extManager != null) {
-                        requestManager = extManager.getExtendedRequestManagerFor(
-                                this, languageServer, client, res.getCapabilities());
-                        if (requestManager == null) {
-                            requestManager = new DefaultRequestManager(
-                                    this, languageServer, client, res.getCapabilities());
-                        }
+                    StandbyServer spare = standby.getAndSet(null);
+                    if (spare != null && spare.isUsable()) {
+                        attach(spare);
                     } else {
-                        requestManager = new DefaultRequestManager(
-                                this, languageServer, client, res.getCapabilities());
+                        if (spare != null) {
+                            spare.discard();
+                        }
+                        launch();
                     }
-                    setStatus(STARTED);
-                    // send the initialized message since some language servers depends on this message
-                    requestManager.initialized(new InitializedParams());
-                    setStatus(INITIALIZED);
-                    return res;
-                });
+                }
+                CompletableFuture<InitializeResult> init = initializeFuture;
+                if (init != null) {
+                    init.orTimeout(getTimeout(INIT), TimeUnit.MILLISECONDS)
+                            .whenComplete((res, error) -> pool(() -> initializeCompleted(init, error, resuming)));
+                }
             } catch (LSPException | IOException | URISyntaxException e) {
                 LOG.warn(e);
                 invokeLater(() ->
@@ -634,6 +1170,262 @@ public class LanguageServerWrapper {
         }
     }
 
+    /**
+     * Starts the server on the dispatcher, without blocking the caller.
+     *
+     * @return completes once the initialization has finished: with true if the server is ready, and with false if
+     * it failed to start or was stopped first
+     */
+    public CompletableFuture<Boolean> startAsync() {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        if (disposed) {
+            result.complete(false);
+            return result;
+        }
+        pool(() -> {
+            start();
+            startup.whenComplete((started, error) -> result.complete(Boolean.TRUE.equals(started)));
+        });
+        return result;
+    }
+
+    private void launch() throws IOException, URISyntaxException {
+        Pair<InputStream, OutputStream> streams = serverDefinition.start(projectRootPath);
+        InputStream inputStream = streams.getKey();
+        // Notifications are coalesced into larger writes; requests and responses are flushed at once.
+        CoalescingOutputStream outputStream = new CoalescingOutputStream(
+                streams.getValue(), AppExecutorUtil.getAppScheduledExecutorService());
+        InitializeParams initParams = getInitParams();
+        LauncherExecutor executorService = newLauncherExecutor();
+        MessageHandler messageHandler = new MessageHandler(serverDefinition.getServerListener(),
+                () -> getStatus() != STOPPED, () -> flushNow(outputStream));
+        serverOutput = outputStream;
+        launcherExecutor = executorService;
+        client = createClient();
+        Launcher<? extends LanguageServer> launcher =
+                createLauncher(client, inputStream, outputStream, executorService, messageHandler);
+        languageServer = launcher.getRemoteProxy();
+        launcherFuture = launcher.startListening();
+        messageHandler.setLanguageServer(languageServer);
+
+        initializeFuture = languageServer.initialize(initParams).thenApply(this::initialized);
+    }
+
+    /**
+     * Creates the executor lsp4j reads the server's messages on. It reports the end of the reading task so that
+     * a server which went away is restarted without waiting for a request to fail.
+     */
+    private LauncherExecutor newLauncherExecutor() {
+        return new LauncherExecutor(serverDefinition.ext + " " + project.getName(),
+                LauncherExecutor.DEFAULT_MAX_THREADS, this::connectionClosed);
+    }
+
+    /**
+     * @return the executor reading the messages of the running server, or null if none runs or it is shared
+     */
+    @Nullable
+    public LauncherExecutor getLauncherExecutor() {
+        return launcherExecutor;
+    }
+
+    private void connectionClosed(ExecutorService executor) {
+        Future<?> listening = launcherFuture;
+        if (executor == launcherExecutor && listening != null && listening.isDone()
+                && (status == STARTED || status == INITIALIZED)) {
+            crashed(new IOException("The connection to " + serverDefinition + " was closed"));
+        }
+    }
+
+    private void joinSharedServer() throws IOException, URISyntaxException {
+        InitializeParams initParams = getInitParams();
+        CompletableFuture<InitializeResult> joined;
+        SharedServerConnection connection;
+        do {
+            // A connection whose last project just left is terminated; join() then refuses and a fresh one is used.
+            connection = LspApplicationServerRegistry.getInstance().sharedConnectionFor(serverDefinition);
+            joined = connection.join(this, initParams);
+        } while (joined == null);
+        sharedConnection = connection;
+        client = connection.getClient();
+        languageServer = connection.getServer();
+        launcherFuture = connection.getLauncherFuture();
+        initializeFuture = joined.thenApply(this::initialized);
+    }
+
+    /**
+     * Takes over the connection of a standby server. Its initialize request was sent when the standby was
+     * prepared, so the capabilities are usually available right away.
+     */
+    private void attach(StandbyServer spare) {
+        serverDefinition.adopt(projectRootPath, spare.provider);
+        serverOutput = spare.output;
+        launcherExecutor = spare.launcherExecutor;
+        client = spare.client;
+        languageServer = spare.server;
+        launcherFuture = spare.launcherFuture;
+        initializeFuture = spare.initializeFuture.thenApply(this::initialized);
+        // Deliver what the server sent while waiting, e.g. capability registrations.
+        spare.messageHandler.activate();
+        LOG.info("Attached a standby server for " + serverDefinition + " ; " + projectRootPath);
+    }
+
+    private InitializeResult initialized(InitializeResult res) {
+        initializeResult = res;
+        LOG.info("Got initializeResult for " + serverDefinition + " ; " + projectRootPath);
+        requestManager = createRequestManager(res.getCapabilities());
+        setStatus(STARTED);
+        // send the initialized message since some language servers depends on this message
+        // (a shared server has received it from the project which launched it)
+        if (sharedConnection == null) {
+            requestManager.initialized(new InitializedParams());
+        }
+        setStatus(INITIALIZED);
+        lastActivity = System.currentTimeMillis();
+        initializedAt = lastActivity;
+        health.reset();
+        scheduleIdleCheck();
+        scheduleResourceSampling();
+        scheduleProbe();
+        prepareStandbyLater();
+        return res;
+    }
+
+    private RequestManager createRequestManager(ServerCapabilities capabilities) {
+        if (extManager != null) {
+            RequestManager manager = extManager.getExtendedRequestManagerFor(
+                    this, languageServer, client, capabilities);
+            if (manager != null) {
+                return manager;
+            }
+        }
+        return new DefaultRequestManager(this, languageServer, client, capabilities);
+    }
+
+    private LanguageClient createClient() {
+        return createClient(extManager, new ServerWrapperBaseClientContext(this));
+    }
+
+    private Launcher<? extends LanguageServer> createLauncher(LanguageClient client, InputStream inputStream,
+                                                              OutputStream outputStream, ExecutorService executor,
+                                                              MessageHandler messageHandler) {
+        return createLauncher(extManager, client, inputStream, outputStream, executor, messageHandler);
+    }
+
+    static LanguageClient createClient(@Nullable LSPExtensionManager extManager, @NotNull ClientContext context) {
+        if (extManager != null && extManager.getExtendedServerInterface() != null) {
+            return extManager.getExtendedClientFor(context);
+        }
+        return new DefaultLanguageClient(context);
+    }
+
+    static Launcher<? extends LanguageServer> createLauncher(@Nullable LSPExtensionManager extManager,
+                                                             LanguageClient client, InputStream inputStream,
+                                                             OutputStream outputStream, ExecutorService executor,
+                                                             MessageHandler messageHandler) {
+        Class<? extends LanguageServer> remoteInterface = LanguageServer.class;
+        if (extManager != null && extManager.getExtendedServerInterface() != null) {
+            remoteInterface = extManager.getExtendedServerInterface();
+        }
+        return Launcher.createLauncher(client, remoteInterface, inputStream, outputStream, executor, messageHandler);
+    }
+
+    /**
+     * Queues the preparation of a standby server on the dispatcher, if the definition keeps standby servers.
+     */
+    private void prepareStandbyLater() {
+        if (serverDefinition.isStandbyEnabled() && !serverDefinition.isShared() && !disposed
+                && standby.get() == null) {
+            pool(this::prepareStandby);
+        }
+    }
+
+    /**
+     * Launches a spare server for this project and sends it the initialize request, so that a later
+     * {@link #start()} only has to attach it. The process comes from the definition's standby pool when it has
+     * one. For definitions whose spares serve any project, a fresh process is also left in the pool for the next
+     * project to open, unless this project just took the one that was there; the pool holds at most one spare.
+     */
+    private void prepareStandby() {
+        if (disposed || standby.get() != null || !serverDefinition.isStandbyEnabled()) {
+            return;
+        }
+        StreamConnectionProvider provider = null;
+        StandbyServer spare;
+        boolean fromPool;
+        try {
+            provider = serverDefinition.takeStandby(projectRootPath);
+            fromPool = provider != null;
+            if (provider == null) {
+                provider = serverDefinition.createConnectionProvider(projectRootPath);
+                provider.start();
+            }
+            CoalescingOutputStream outputStream = new CoalescingOutputStream(
+                    provider.getOutputStream(), AppExecutorUtil.getAppScheduledExecutorService());
+            LauncherExecutor executorService = newLauncherExecutor();
+            // Once attached, the standby is gated by the wrapper status like any other connection.
+            MessageHandler messageHandler = new MessageHandler(serverDefinition.getServerListener(),
+                    () -> getStatus() != STOPPED, () -> flushNow(outputStream));
+            messageHandler.standBy();
+            LanguageClient standbyClient = createClient();
+            Launcher<? extends LanguageServer> launcher = createLauncher(standbyClient, provider.getInputStream(),
+                    outputStream, executorService, messageHandler);
+            LanguageServer server = launcher.getRemoteProxy();
+            Future<?> listening = launcher.startListening();
+            messageHandler.setLanguageServer(server);
+            spare = new StandbyServer(provider, standbyClient, server, messageHandler, outputStream,
+                    executorService, listening, server.initialize(getInitParams()));
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            LOG.warn("Could not prepare a standby server for " + serverDefinition + " ; " + projectRootPath, e);
+            if (provider != null) {
+                provider.stop();
+            }
+            return;
+        }
+        if (disposed || !standby.compareAndSet(null, spare)) {
+            spare.discard();
+            return;
+        }
+        LOG.info("Prepared a standby server for " + serverDefinition + " ; " + projectRootPath);
+        if (serverDefinition.isStandbyShared() && !fromPool) {
+            try {
+                serverDefinition.prepareStandby(projectRootPath);
+            } catch (IOException e) {
+                LOG.warn("Could not refill the standby pool of " + serverDefinition, e);
+            }
+        }
+    }
+
+    private void discardStandby() {
+        StandbyServer spare = standby.getAndSet(null);
+        if (spare != null) {
+            spare.discard();
+        }
+    }
+
+    /**
+     * Writes out the coalesced outgoing messages right away. Failures are reported the way lsp4j reports a
+     * failed write, so that the request being sent fails instead of waiting for its timeout.
+     */
+    static void flushNow(CoalescingOutputStream output) {
+        try {
+            output.flushNow();
+        } catch (IOException e) {
+            throw new JsonRpcException(e);
+        }
+    }
+
+    private void flushServerOutput() {
+        CoalescingOutputStream output = serverOutput;
+        if (output == null) {
+            return;
+        }
+        try {
+            flushNow(output);
+        } catch (JsonRpcException e) {
+            LOG.debug("Could not flush pending messages to " + serverDefinition, e);
+        }
+    }
+
     private InitializeParams getInitParams() throws URISyntaxException {
         InitializeParams initParams = new InitializeParams();
         String projectRootUri = FileUtils.pathToUri(projectRootPath);
@@ -649,6 +1441,7 @@ public class LanguageServerWrapper {
         workspaceClientCapabilities.setSymbol(new SymbolCapabilities());
         workspaceClientCapabilities.setWorkspaceFolders(true);
         workspaceClientCapabilities.setConfiguration(false);
+        workspaceClientCapabilities.setDiagnostics(new DiagnosticWorkspaceCapabilities(true));
 
         // text document capabilities
         TextDocumentClientCapabilities textDocumentClientCapabilities = new TextDocumentClientCapabilities();
@@ -657,8 +1450,14 @@ public class LanguageServerWrapper {
                 new CodeActionLiteralSupportCapabilities(new CodeActionKindCapabilities()));
         textDocumentClientCapabilities.getCodeAction().setResolveSupport(
                 new CodeActionResolveSupportCapabilities(codeActionResolveProperties));
-        textDocumentClientCapabilities.setCompletion(new CompletionCapabilities(new CompletionItemCapabilities(true)));
+        CompletionItemCapabilities completionItemCapabilities = new CompletionItemCapabilities(true);
+        completionItemCapabilities.setDocumentationFormat(List.of(MarkupKind.MARKDOWN, MarkupKind.PLAINTEXT));
+        // The lookup shows the label, detail and kind; the rest is resolved for the focused or inserted item only.
+        completionItemCapabilities.setResolveSupport(
+                new CompletionItemResolveSupportCapabilities(List.of("documentation", "additionalTextEdits")));
+        textDocumentClientCapabilities.setCompletion(new CompletionCapabilities(completionItemCapabilities));
         textDocumentClientCapabilities.setDefinition(new DefinitionCapabilities());
+        textDocumentClientCapabilities.setDiagnostic(new DiagnosticCapabilities());
         textDocumentClientCapabilities.setDocumentHighlight(new DocumentHighlightCapabilities());
         textDocumentClientCapabilities.setFormatting(new FormattingCapabilities());
         textDocumentClientCapabilities.setHover(new HoverCapabilities());
@@ -714,46 +1513,98 @@ public class LanguageServerWrapper {
         getWidget().ifPresent(widget -> widget.setStatus(status));
     }
 
+    /**
+     * Recovers from a broken connection to the server. The server is torn down right away and started again in
+     * the background after a delay which grows with every consecutive crash. The editors stay connected: their
+     * documents are opened on the new server in one pass, as after hibernation, and the requests which were
+     * waiting for the old server are sent again. A server which keeps crashing is given up on until it is
+     * restarted from the status bar widget. The other projects of a shared server recover as well.
+     */
     public void crashed(Exception e) {
-        if (crashCount.incrementAndGet() <= 3) {
-            reconnect();
-        } else {
-            invokeLater(() -> {
-                if (alreadyShownCrash) {
-                    reconnect();
-                } else {
-                    int response = Messages.showYesNoDialog(String.format(
-                                    "LanguageServer for definition %s, project %s keeps crashing due to \n%s\n"
-                                    , serverDefinition.toString(), project.getName(), e.getMessage()),
-                            "Language Server Client Warning", "Keep Connected", "Disconnect", PlatformIcons.CHECK_ICON);
-                    if (response == Messages.NO) {
-                        int confirm = Messages.showYesNoDialog(
-                                "All the language server based plugin features will be disabled.\n"
-                                + "Do you wish to continue?", "",
-                                PlatformIcons.WARNING_INTRODUCTION_ICON);
-                        if (confirm == Messages.YES) {
-                            // Disconnects from the language server.
-                            stop(true);
-                        } else {
-                            reconnect();
-                        }
-                    } else {
-                        reconnect();
-                    }
-                }
-                alreadyShownCrash = true;
-                crashCount.set(0);
-            });
+        if (disposed || alreadyShownCrash || !recovering.compareAndSet(false, true)) {
+            // Failures reported while a crash is being recovered from are most likely the same crash.
+            return;
+        }
+        SharedServerConnection connection = sharedConnection;
+        if (connection != null) {
+            // The other projects of a shared server lost it as well.
+            connection.crashed(e);
+        }
+        long delay = restartBackoff.nextDelay();
+        if (delay < 0) {
+            recovering.set(false);
+            giveUp(e);
+            return;
         }
+        LOG.warn(withErrorOutput(String.format("%s ; %s crashed, restarting it in %d ms", serverDefinition,
+                projectRootPath, delay)), e);
+        requestExecutor.connectionLost();
+        pool(() -> {
+            if (!suspendAfterCrash()) {
+                recovering.set(false);
+                return;
+            }
+            try {
+                AppExecutorUtil.getAppScheduledExecutorService()
+                        .schedule(() -> pool(this::recover), delay, TimeUnit.MILLISECONDS);
+            } catch (java.util.concurrent.RejectedExecutionException ex) {
+                recovering.set(false);
+            }
+        });
     }
 
-    private void reconnect() {
-        // Need to copy by value since connected editors gets cleared during 'stop()' invocation.
-        final Set<String> connected = new HashSet<>(urisUnderLspControl);
-        stop(true);
-        for (String uri : connected) {
-            connect(uri);
+    /**
+     * Tears down the connection of a crashed server without the shutdown handshake, keeping the editors
+     * connected.
+     *
+     * @return false if the server was stopped on purpose in the meantime
+     */
+    private synchronized boolean suspendAfterCrash() {
+        if (disposed || status == STOPPED || status == STOPPING) {
+            return false;
+        }
+        setStatus(STOPPING);
+        try {
+            shutdownServer(true, false);
+        } finally {
+            suspended.set(true);
+            setStatus(STOPPED);
+        }
+        return true;
+    }
+
+    private void recover() {
+        if (disposed || !suspended.get()) {
+            // Stopped on purpose, or already started again by an editor which connected in the meantime.
+            recovering.set(false);
+            return;
+        }
+        start();
+        CompletableFuture<InitializeResult> init = initializeFuture;
+        if (init == null) {
+            recovering.set(false);
+            return;
         }
+        // The outcome is handled by initializeCompleted.
+        recoveryInit.set(init);
+    }
+
+    private void giveUp(Exception e) {
+        LOG.warn(withErrorOutput(serverDefinition + " ; " + projectRootPath + " keeps crashing, giving up on it"), e);
+        alreadyShownCrash = true;
+        pool(() -> {
+            suspendAfterCrash();
+            stop(true);
+        });
+        invokeLater(() -> notifier.showMessage(String.format(
+                "Language server for definition %s, project %s keeps crashing due to \n%s\n"
+                        + "Restart it from the status bar once the problem is fixed.",
+                serverDefinition.toString(), project.getName(), e.getMessage()), MessageType.ERROR));
+    }
+
+    private String withErrorOutput(String message) {
+        String errorOutput = getErrorOutput();
+        return errorOutput.isEmpty() ? message : message + "\nError output of the server:\n" + errorOutput;
     }
 
     public List<String> getConnectedFiles() {
@@ -777,12 +1628,46 @@ public class LanguageServerWrapper {
      * to prevent memory leaks.
      */
     public synchronized void dispose() {
+        disposed = true;
+        ScheduledFuture<?> check = idleCheck;
+        if (check != null) {
+            check.cancel(false);
+        }
+        ScheduledFuture<?> sampling = resourceSampling;
+        if (sampling != null) {
+            sampling.cancel(false);
+        }
+        ScheduledFuture<?> probes = probeLoop;
+        if (probes != null) {
+            probes.cancel(false);
+        }
+        discardStandby();
         stop(true);
         removeWidget();
         dispatcher.shutdownNow();
         IntellijLanguageClient.removeWrapper(this);
     }
 
+    /**
+     * Kills the server process of this wrapper, and of its standby server, without the shutdown handshake. For
+     * a project closing while its server does not shut down in time; does not wait for the wrapper's monitor,
+     * which the stuck shutdown holds. A shared server is left running for its other projects.
+     */
+    public void terminate() {
+        StandbyServer spare = standby.getAndSet(null);
+        if (spare != null) {
+            spare.provider.getProcessHandle().ifPresent(LanguageServerWrapper::kill);
+        }
+        if (sharedConnection == null) {
+            serverDefinition.getProcessHandle(projectRootPath).ifPresent(LanguageServerWrapper::kill);
+        }
+    }
+
+    private static void kill(ProcessHandle process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
     /**
      * Drops the uri-to-wrapper mapping for this project, if the project still has a manager.
      * Tolerates its absence because the callers below are reached from {@link #stop(boolean)} and
@@ -802,11 +1687,14 @@ public class LanguageServerWrapper {
      */
     public void disconnect(Editor editor) {
         EditorEventManager manager = EditorEventManagerBase.forEditor(editor);
+        toConnect.remove(editor);
+        provisionalEditors.remove(editor);
         connectedEditors.remove(editor);
         if (manager != null) {
             manager.removeListeners();
             // URI captured at connect time — the editor's current URI may have drifted since.
             String uri = manager.getIdentifier().getUri();
+            provisionalDocuments.remove(uri, manager);
             Set<EditorEventManager> set = uriToEditorManagers.get(uri);
             if (set != null) {
                 set.remove(manager);
@@ -868,14 +1756,6 @@ public class LanguageServerWrapper {
         }
     }
 
-    private void connect(String uri) {
-        List<Editor> editors = FileUtils.getAllOpenedEditorsForUri(project, uri);
-
-        for (Editor editor : editors) {
-            connect(editor);
-        }
-    }
-
     /**
      * Is the language server in a state where it can be restartable. Normally language server is
      * restartable if it has timeout or has a startup error.
@@ -890,6 +1770,7 @@ public class LanguageServerWrapper {
     public void restart() {
         pool(() -> {
             if (isRestartable()) {
+                restartBackoff.reset();
                 alreadyShownCrash = false;
                 alreadyShownTimeout = false;
             } else {
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.languageserver.wrapper;
+
+import com.intellij.openapi.diagnostic.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * The executor lsp4j reads the messages of one server on. Unlike lsp4j's default cached pool, its threads are
+ * named after the server and their number is bounded; further tasks wait in a queue. It keeps the numbers shown
+ * by the status widget: running and queued tasks, and how long tasks waited for a thread.
+ */
+public class LauncherExecutor extends ThreadPoolExecutor {
+
+    private static final Logger LOG = Logger.getInstance(LauncherExecutor.class);
+
+    static final int DEFAULT_MAX_THREADS = 4;
+    private static final long KEEP_ALIVE_SECONDS = 60;
+    private static final long STOP_TIMEOUT_MS = 1000;
+    // Weight of the latest task in the smoothed wait time.
+    private static final double SMOOTHING = 0.3;
+
+    private final String name;
+    @Nullable
+    private final Consumer<LauncherExecutor> onTaskEnd;
+    private volatile double averageWaitNanos = 0;
+    private volatile long maxWaitNanos = 0;
+    private long waits = 0;
+
+    /**
+     * @param name       Names the threads, e.g. after the server definition
+     * @param maxThreads The number of threads running tasks at most
+     * @param onTaskEnd  Called after every task, on the thread which ran it
+     */
+    LauncherExecutor(@NotNull String name, int maxThreads, @Nullable Consumer<LauncherExecutor> onTaskEnd) {
+        super(maxThreads, maxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                threadFactory(name));
+        allowCoreThreadTimeOut(true);
+        this.name = name;
+        this.onTaskEnd = onTaskEnd;
+    }
+
+    LauncherExecutor(@NotNull String name) {
+        this(name, DEFAULT_MAX_THREADS, null);
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "LSP messages " + name + " #" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void execute(@NotNull Runnable command) {
+        long queued = System.nanoTime();
+        super.execute(() -> {
+            recordWait(System.nanoTime() - queued);
+            command.run();
+        });
+    }
+
+    @Override
+    protected void afterExecute(Runnable task, Throwable failure) {
+        super.afterExecute(task, failure);
+        if (onTaskEnd != null) {
+            onTaskEnd.accept(this);
+        }
+    }
+
+    private synchronized void recordWait(long waitNanos) {
+        averageWaitNanos = waits++ == 0 ? waitNanos : SMOOTHING * waitNanos + (1 - SMOOTHING) * averageWaitNanos;
+        maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+    }
+
+    /**
+     * @return the number of tasks waiting for a thread
+     */
+    public int getQueueDepth() {
+        return getQueue().size();
+    }
+
+    /**
+     * @return the smoothed time tasks waited for a thread, in milliseconds
+     */
+    public double getAverageWaitMillis() {
+        return averageWaitNanos / 1_000_000.0;
+    }
+
+    /**
+     * @return the longest time a task waited for a thread, in milliseconds
+     */
+    public long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos);
+    }
+
+    /**
+     * Waits for the threads to finish after a shutdown. The reading task only ends once the server's stream is
+     * closed, so this is called after the connection is stopped.
+     */
+    void awaitStopped() {
+        try {
+            if (!awaitTermination(STOP_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                LOG.warn("Message threads of " + name + " are still running " + STOP_TIMEOUT_MS + " ms after shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -17,45 +17,145 @@ package org.wso2.lsp4intellij.client.languageserver.wrapper;
 
 import org.eclipse.lsp4j.InitializeResult;
 import org.eclipse.lsp4j.jsonrpc.MessageConsumer;
+import org.eclipse.lsp4j.jsonrpc.json.StreamMessageConsumer;
 import org.eclipse.lsp4j.jsonrpc.messages.Message;
+import org.eclipse.lsp4j.jsonrpc.messages.NotificationMessage;
 import org.eclipse.lsp4j.jsonrpc.messages.ResponseMessage;
 import org.eclipse.lsp4j.services.LanguageServer;
 import org.jetbrains.annotations.NotNull;
 import org.wso2.lsp4intellij.client.languageserver.serverdefinition.ServerListener;
 
+import java.util.ArrayDeque;
+import java.util.Queue;
 import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 
 class MessageHandler implements Function<MessageConsumer, MessageConsumer> {
 
+    private static final int MAX_HELD_NOTIFICATIONS = 1000;
+
     private final ServerListener listener;
     private final BooleanSupplier isRunning;
+    private final Runnable urgentFlush;
     private LanguageServer languageServer;
+    // While a session waits in standby, messages initiated by the server are held back here until the session
+    // is attached to the wrapper. Guarded by this.
+    private final Queue<Runnable> held = new ArrayDeque<>();
+    private int heldNotifications = 0;
+    // The initialize result of a standby session, reported to the listener only once the session is attached.
+    // Guarded by this.
+    private InitializeResult heldInitializeResult;
+    private volatile boolean standby = false;
 
-    MessageHandler(@NotNull ServerListener listener, @NotNull BooleanSupplier isRunning) {
+    /**
+     * @param urgentFlush Invoked after every outgoing message the other side waits for (requests and responses),
+     *                    so that such messages are not held back by write coalescing
+     */
+    MessageHandler(@NotNull ServerListener listener, @NotNull BooleanSupplier isRunning,
+                   @NotNull Runnable urgentFlush) {
         this.listener = listener;
         this.isRunning = isRunning;
+        this.urgentFlush = urgentFlush;
     }
 
+    /**
+     * lsp4j applies this wrapper to both message directions: the outgoing chain ends in the
+     * {@link StreamMessageConsumer} writing to the server, the incoming one in the remote endpoint.
+     */
     @Override
     public MessageConsumer apply(MessageConsumer messageConsumer) {
+        if (messageConsumer instanceof StreamMessageConsumer) {
+            return message -> {
+                if (isActive()) {
+                    messageConsumer.consume(message);
+                    if (!(message instanceof NotificationMessage)) {
+                        urgentFlush.run();
+                    }
+                }
+            };
+        }
         return message -> {
-            if (isRunning.getAsBoolean()) {
+            if (isActive()) {
+                if (standby && !(message instanceof ResponseMessage) && hold(message, messageConsumer)) {
+                    return;
+                }
                 handleMessage(message);
                 messageConsumer.consume(message);
             }
         };
     }
 
+    /**
+     * Puts the connection in standby: messages are sent regardless of the wrapper's status, and requests and
+     * notifications from the server are held back until {@link #activate()}. Responses still go through, so that
+     * the initialize request of a standby server can complete, but the {@link ServerListener} is not told about
+     * the initialization of a server which may never be used.
+     */
+    void standBy() {
+        standby = true;
+    }
+
+    /**
+     * Ends the standby, reports a held initialize result to the listener and delivers the held messages in the
+     * order they arrived.
+     */
+    synchronized void activate() {
+        if (heldInitializeResult != null) {
+            listener.initialize(languageServer, heldInitializeResult);
+            heldInitializeResult = null;
+        }
+        Runnable delivery;
+        while ((delivery = held.poll()) != null) {
+            delivery.run();
+        }
+        heldNotifications = 0;
+        standby = false;
+    }
+
+    private boolean isActive() {
+        return standby || isRunning.getAsBoolean();
+    }
+
+    private synchronized boolean hold(Message message, MessageConsumer messageConsumer) {
+        if (!standby) {
+            // Activated while this message was on its way in.
+            return false;
+        }
+        if (message instanceof NotificationMessage) {
+            if (heldNotifications >= MAX_HELD_NOTIFICATIONS) {
+                // Log and progress chatter of a server nobody is using yet; requests are never dropped, since
+                // the server waits for their responses.
+                return true;
+            }
+            heldNotifications++;
+        }
+        held.add(() -> {
+            handleMessage(message);
+            messageConsumer.consume(message);
+        });
+        return true;
+    }
+
     private void handleMessage(Message message) {
         if (message instanceof ResponseMessage) {
             ResponseMessage responseMessage = (ResponseMessage) message;
             if (responseMessage.getResult() instanceof InitializeResult) {
-                listener.initialize(languageServer, (InitializeResult) responseMessage.getResult());
+                InitializeResult result = (InitializeResult) responseMessage.getResult();
+                if (!holdInitializeResult(result)) {
+                    listener.initialize(languageServer, result);
+                }
             }
         }
     }
 
+    private synchronized boolean holdInitializeResult(InitializeResult result) {
+        if (!standby) {
+            return false;
+        }
+        heldInitializeResult = result;
+        return true;
+    }
+
     void setLanguageServer(@NotNull LanguageServer languageServer) {
         this.languageServer = languageServer;
     }
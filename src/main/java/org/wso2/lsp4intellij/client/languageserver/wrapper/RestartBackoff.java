@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.languageserver.wrapper;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Decides how long to wait before restarting a crashed language server. The delay doubles with every
+ * consecutive crash up to a ceiling; once a restarted server has stayed up for the stable period, the next
+ * crash counts as the first one again. After too many consecutive crashes the server is given up on.
+ */
+class RestartBackoff {
+
+    static final long DEFAULT_INITIAL_DELAY_MS = 500;
+    static final long DEFAULT_MAX_DELAY_MS = 30 * 1000;
+    static final int DEFAULT_MAX_ATTEMPTS = 5;
+    static final long DEFAULT_STABLE_PERIOD_MS = 60 * 1000;
+
+    private final long initialDelayMs;
+    private final long maxDelayMs;
+    private final int maxAttempts;
+    private final long stablePeriodMs;
+    private final LongSupplier clock;
+    private int attempts = 0;
+    private long lastRecovery = -1;
+
+    RestartBackoff() {
+        this(DEFAULT_INITIAL_DELAY_MS, DEFAULT_MAX_DELAY_MS, DEFAULT_MAX_ATTEMPTS, DEFAULT_STABLE_PERIOD_MS,
+                System::currentTimeMillis);
+    }
+
+    RestartBackoff(long initialDelayMs, long maxDelayMs, int maxAttempts, long stablePeriodMs, LongSupplier clock) {
+        this.initialDelayMs = initialDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.maxAttempts = maxAttempts;
+        this.stablePeriodMs = stablePeriodMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Records a crash.
+     *
+     * @return the delay in milliseconds before the next restart, or -1 if the server should not be restarted
+     */
+    synchronized long nextDelay() {
+        if (lastRecovery >= 0 && clock.getAsLong() - lastRecovery >= stablePeriodMs) {
+            attempts = 0;
+        }
+        lastRecovery = -1;
+        if (attempts >= maxAttempts) {
+            return -1;
+        }
+        int shift = Math.min(attempts++, 30);
+        return Math.min(initialDelayMs << shift, maxDelayMs);
+    }
+
+    /**
+     * Records that a restarted server finished initializing.
+     */
+    synchronized void recovered() {
+        lastRecovery = clock.getAsLong();
+    }
+
+    /**
+     * Forgets all previous crashes.
+     */
+    synchronized void reset() {
+        attempts = 0;
+        lastRecovery = -1;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.languageserver.wrapper;
+
+/**
+ * Tracks how responsive a language server is, from the round trips of its liveness probe. The score is 100 for a
+ * server which answers promptly. It drops with the smoothed latency, and steeply with every consecutive probe
+ * left unanswered; after a few of those in a row the server counts as unresponsive.
+ */
+class ServerHealth {
+
+    static final int MAX_SCORE = 100;
+    static final int DEFAULT_MAX_UNANSWERED = 3;
+
+    // Weight of the latest round trip in the smoothed latency.
+    private static final double SMOOTHING = 0.3;
+    private static final long LATENCY_PER_POINT_MS = 100;
+    private static final int MAX_LATENCY_PENALTY = 50;
+    private static final int UNANSWERED_PENALTY = 34;
+
+    private final int maxUnanswered;
+    private double latency = -1;
+    private int unanswered = 0;
+
+    ServerHealth() {
+        this(DEFAULT_MAX_UNANSWERED);
+    }
+
+    ServerHealth(int maxUnanswered) {
+        this.maxUnanswered = maxUnanswered;
+    }
+
+    synchronized void answered(long latencyMs) {
+        latency = latency < 0 ? latencyMs : SMOOTHING * latencyMs + (1 - SMOOTHING) * latency;
+        unanswered = 0;
+    }
+
+    synchronized void unanswered() {
+        unanswered++;
+    }
+
+    /**
+     * @return the health score, from 0 (not answering) to {@link #MAX_SCORE}
+     */
+    synchronized int getScore() {
+        long latencyPenalty = latency < 0 ? 0
+                : Math.min(MAX_LATENCY_PENALTY, Math.round(latency) / LATENCY_PER_POINT_MS);
+        long score = MAX_SCORE - latencyPenalty - (long) UNANSWERED_PENALTY * unanswered;
+        return (int) Math.max(0, score);
+    }
+
+    /**
+     * @return the smoothed round trip time in milliseconds, or -1 before the first answer
+     */
+    synchronized long getLatency() {
+        return Math.round(latency);
+    }
+
+    synchronized boolean isUnresponsive() {
+        return unanswered >= maxUnanswered;
+    }
+
+    synchronized void reset() {
+        latency = -1;
+        unanswered = 0;
+    }
+}
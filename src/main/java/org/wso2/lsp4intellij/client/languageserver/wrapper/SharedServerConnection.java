@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.languageserver.wrapper;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.apache.commons.lang3.tuple.Pair;
+import org.eclipse.lsp4j.DidChangeWorkspaceFoldersParams;
+import org.eclipse.lsp4j.DidCloseTextDocumentParams;
+import org.eclipse.lsp4j.InitializeParams;
+import org.eclipse.lsp4j.InitializeResult;
+import org.eclipse.lsp4j.InitializedParams;
+import org.eclipse.lsp4j.ServerCapabilities;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.WorkspaceFolder;
+import org.eclipse.lsp4j.WorkspaceFoldersChangeEvent;
+import org.eclipse.lsp4j.WorkspaceFoldersOptions;
+import org.eclipse.lsp4j.WorkspaceServerCapabilities;
+import org.eclipse.lsp4j.jsonrpc.Launcher;
+import org.eclipse.lsp4j.services.LanguageClient;
+import org.eclipse.lsp4j.services.LanguageServer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.wso2.lsp4intellij.client.ServerWrapperBaseClientContext;
+import org.wso2.lsp4intellij.client.connection.CoalescingOutputStream;
+import org.wso2.lsp4intellij.client.languageserver.requestmanager.RequestManager;
+import org.wso2.lsp4intellij.client.languageserver.serverdefinition.LanguageServerDefinition;
+import org.wso2.lsp4intellij.editor.EditorEventManager;
+import org.wso2.lsp4intellij.utils.FileUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.wso2.lsp4intellij.requests.Timeout.getTimeout;
+import static org.wso2.lsp4intellij.requests.Timeouts.SHUTDOWN;
+
+/**
+ * A single language server process serving the wrappers of several projects, for definitions in shared-server
+ * mode (see {@link LanguageServerDefinition#setShared(boolean)}).
+ * <p>
+ * The first wrapper to join launches the server and initializes it with its own project as the workspace folder.
+ * Projects joining later are announced with {@code workspace/didChangeWorkspaceFolders}, and withdrawn again when
+ * their wrapper stops. The process is shut down when the last project leaves. Each project keeps its own
+ * {@link LanguageServerWrapper} with its own editors, documents and status; only the process and the JSON-RPC
+ * connection are shared. Messages from the server are routed to the project whose root contains the document they
+ * refer to; those about no document go to all of them.
+ * <p>
+ * If the server crashes, no project can join the connection any more, and every project served recovers on a fresh
+ * one, without telling the dead server that it leaves.
+ */
+public class SharedServerConnection {
+
+    private static final Logger LOG = Logger.getInstance(SharedServerConnection.class);
+
+    private final LanguageServerDefinition serverDefinition;
+    // Member wrappers keyed by their root URI. Read without locking by the routing context, which runs on
+    // lsp4j threads that must not wait for join() or leave().
+    private final Map<String, LanguageServerWrapper> members = new ConcurrentHashMap<>();
+    private String workingDir;
+    private LanguageServer languageServer;
+    private LanguageClient client;
+    private CoalescingOutputStream output;
+    private LauncherExecutor launcherExecutor;
+    private volatile Future<?> launcherFuture;
+    private CompletableFuture<InitializeResult> initializeFuture;
+    private volatile boolean terminated = false;
+    private volatile boolean crashed = false;
+
+    public SharedServerConnection(@NotNull LanguageServerDefinition serverDefinition) {
+        this.serverDefinition = serverDefinition;
+    }
+
+    /**
+     * @return whether new projects can join: the connection was not terminated, and the server, if launched, is
+     * still running
+     */
+    public boolean isUsable() {
+        Future<?> listening = launcherFuture;
+        return !terminated && !crashed && (listening == null || !listening.isDone());
+    }
+
+    /**
+     * Adds the project of the given wrapper to the server, launching and initializing the server if this is the
+     * first project.
+     *
+     * @param wrapper    The joining wrapper
+     * @param initParams The initialize params of the wrapper; its workspace folder is the one announced
+     * @return The initialize result of the server, completed once the project's folder has been announced; or
+     * null if this connection was terminated in the meantime and a fresh one must be used
+     * @throws IOException if the server could not be launched
+     */
+    @Nullable
+    synchronized CompletableFuture<InitializeResult> join(@NotNull LanguageServerWrapper wrapper,
+                                                          @NotNull InitializeParams initParams) throws IOException {
+        if (!isUsable()) {
+            return null;
+        }
+        String root = rootUri(wrapper);
+        if (launcherFuture == null) {
+            launch(wrapper, initParams);
+            members.put(root, wrapper);
+            return initializeFuture;
+        }
+        members.put(root, wrapper);
+        List<WorkspaceFolder> added = initParams.getWorkspaceFolders();
+        return initializeFuture.thenApply(res -> {
+            changeWorkspaceFolders(res, added, Collections.emptyList());
+            return res;
+        });
+    }
+
+    /**
+     * Removes the project of the given wrapper. Its documents are closed and its folder is withdrawn, unless the
+     * server crashed; the server is shut down if no other project is left.
+     *
+     * @param wrapper  The leaving wrapper
+     * @param openUris The documents the wrapper still has open on the server
+     */
+    synchronized void leave(@NotNull LanguageServerWrapper wrapper, @NotNull Set<String> openUris) {
+        String root = rootUri(wrapper);
+        if (!members.remove(root, wrapper)) {
+            return;
+        }
+        if (members.isEmpty()) {
+            terminate();
+            return;
+        }
+        if (!isUsable() || !initializeFuture.isDone() || initializeFuture.isCompletedExceptionally()) {
+            return;
+        }
+        try {
+            // With other projects still connected, nobody else would close these documents on the server.
+            for (String uri : openUris) {
+                languageServer.getTextDocumentService().didClose(
+                        new DidCloseTextDocumentParams(new TextDocumentIdentifier(uri)));
+            }
+            WorkspaceFolder folder = new WorkspaceFolder(root, wrapper.getProject().getName());
+            changeWorkspaceFolders(initializeFuture.join(), Collections.emptyList(), List.of(folder));
+        } catch (Exception e) {
+            LOG.warn("Could not remove " + root + " from the shared server of " + serverDefinition, e);
+        }
+    }
+
+    /**
+     * Shuts the server down regardless of the projects still using it. Idempotent.
+     */
+    public synchronized void terminate() {
+        if (terminated) {
+            return;
+        }
+        terminated = true;
+        members.clear();
+        if (launcherFuture == null || crashed) {
+            // A crashed server has been released already.
+            return;
+        }
+        try {
+            if (!launcherFuture.isDone()) {
+                languageServer.shutdown().get(getTimeout(SHUTDOWN), TimeUnit.MILLISECONDS);
+                languageServer.exit();
+            }
+        } catch (Exception e) {
+            // most likely closed externally.
+            LOG.warn("exception occurred while trying to shut down the shared server of " + serverDefinition, e);
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Gives up on a server which crashed or exited: no project can join it any more, its process is released
+     * without the shutdown handshake, and every project still served is told, so that each one recovers on a fresh
+     * connection. Idempotent, and a no-op once the connection was terminated.
+     */
+    public void crashed(@NotNull Exception e) {
+        List<LanguageServerWrapper> served;
+        synchronized (this) {
+            if (crashed || terminated) {
+                return;
+            }
+            crashed = true;
+            served = new ArrayList<>(members.values());
+            if (launcherFuture != null) {
+                release();
+            }
+        }
+        LOG.warn("The shared server of " + serverDefinition + " went away; recovering " + served.size()
+                + " projects", e);
+        // Outside the monitor: the members leave this connection while they recover.
+        served.forEach(member -> member.crashed(e));
+    }
+
+    private void release() {
+        try {
+            output.flushNow();
+        } catch (IOException e) {
+            LOG.debug("Could not flush pending messages to " + serverDefinition, e);
+        }
+        launcherFuture.cancel(true);
+        launcherExecutor.shutdownNow();
+        serverDefinition.stop(workingDir);
+        launcherExecutor.awaitStopped();
+    }
+
+    LanguageServer getServer() {
+        return languageServer;
+    }
+
+    LanguageClient getClient() {
+        return client;
+    }
+
+    Future<?> getLauncherFuture() {
+        return launcherFuture;
+    }
+
+    /**
+     * @return The number of projects currently served
+     */
+    public int getMemberCount() {
+        return members.size();
+    }
+
+    private void launch(LanguageServerWrapper wrapper, InitializeParams initParams) throws IOException {
+        workingDir = wrapper.getProjectRootPath();
+        Pair<InputStream, OutputStream> streams = serverDefinition.start(workingDir);
+        CoalescingOutputStream outputStream = new CoalescingOutputStream(
+                streams.getValue(), AppExecutorUtil.getAppScheduledExecutorService());
+        output = outputStream;
+        launcherExecutor = new LauncherExecutor(serverDefinition.ext + " shared", LauncherExecutor.DEFAULT_MAX_THREADS,
+                this::connectionClosed);
+        MessageHandler messageHandler = new MessageHandler(serverDefinition.getServerListener(),
+                () -> !terminated, () -> LanguageServerWrapper.flushNow(outputStream));
+        client = LanguageServerWrapper.createClient(wrapper.getExtensionManager(), new RoutingClientContext(wrapper));
+        Launcher<? extends LanguageServer> launcher = LanguageServerWrapper.createLauncher(
+                wrapper.getExtensionManager(), client, streams.getKey(), outputStream, launcherExecutor,
+                messageHandler);
+        languageServer = launcher.getRemoteProxy();
+        launcherFuture = launcher.startListening();
+        messageHandler.setLanguageServer(languageServer);
+
+        LanguageServer server = languageServer;
+        // Sent here rather than by the wrappers, since the server must receive it exactly once.
+        initializeFuture = server.initialize(initParams).thenApply(res -> {
+            server.initialized(new InitializedParams());
+            return res;
+        });
+        LOG.info("Launched a shared server for " + serverDefinition + " ; " + workingDir);
+    }
+
+    /**
+     * Called on a thread of the launcher executor after each of its tasks; the end of the reading task means the
+     * server went away.
+     */
+    private void connectionClosed(LauncherExecutor executor) {
+        Future<?> listening = launcherFuture;
+        if (executor == launcherExecutor && listening != null && listening.isDone() && !terminated && !crashed) {
+            // Not on the reading thread, which releasing the process waits for.
+            AppExecutorUtil.getAppExecutorService().execute(() ->
+                    crashed(new IOException("The connection to the shared server of " + serverDefinition
+                            + " was closed")));
+        }
+    }
+
+    private void changeWorkspaceFolders(InitializeResult res, List<WorkspaceFolder> added,
+                                        List<WorkspaceFolder> removed) {
+        boolean supported = Optional.ofNullable(res.getCapabilities())
+                .map(ServerCapabilities::getWorkspace)
+                .map(WorkspaceServerCapabilities::getWorkspaceFolders)
+                .map(WorkspaceFoldersOptions::getChangeNotifications)
+                .map(notifications -> notifications.isLeft() || Boolean.TRUE.equals(notifications.getRight()))
+                .orElse(false);
+        if (!supported) {
+            LOG.warn(serverDefinition + " does not accept workspace folder changes; documents of " + added
+                    + removed + " are still synchronized, but the server is not told about their folder");
+            return;
+        }
+        languageServer.getWorkspaceService().didChangeWorkspaceFolders(
+                new DidChangeWorkspaceFoldersParams(new WorkspaceFoldersChangeEvent(added, removed)));
+    }
+
+    /**
+     * @return The member the given document belongs to: the one whose root contains it, else one which has it open,
+     * e.g. a library file; or null if none does
+     */
+    @Nullable
+    private LanguageServerWrapper memberFor(String uri) {
+        String sanitized = FileUtils.sanitizeURI(uri);
+        String root = routeRoot(members.keySet(), sanitized);
+        if (root != null) {
+            return members.get(root);
+        }
+        return members.values().stream().filter(wrapper -> wrapper.isConnectedTo(sanitized)).findFirst().orElse(null);
+    }
+
+    private static String rootUri(LanguageServerWrapper wrapper) {
+        return FileUtils.pathToUri(wrapper.getProjectRootPath());
+    }
+
+    /**
+     * @return The root of the innermost project containing the given document, or null if no root contains it
+     */
+    @Nullable
+    static String routeRoot(@NotNull Collection<String> roots, @Nullable String uri) {
+        if (uri == null) {
+            return null;
+        }
+        String best = null;
+        for (String root : roots) {
+            String prefix = root.endsWith("/") ? root : root + "/";
+            if ((uri.startsWith(prefix) || uri.equals(root)) && (best == null || root.length() > best.length())) {
+                best = root;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Client context of the shared connection. Document-related lookups go to the project containing the
+     * document. There is no single project, wrapper or request manager of the connection; messages about no
+     * document go to all the projects served, through {@link #getProjects()} and {@link #getWrappers()}.
+     */
+    private class RoutingClientContext extends ServerWrapperBaseClientContext {
+
+        RoutingClientContext(@NotNull LanguageServerWrapper first) {
+            super(first);
+        }
+
+        @Override
+        public EditorEventManager getEditorEventManagerFor(@NotNull String documentUri) {
+            LanguageServerWrapper wrapper = memberFor(documentUri);
+            return wrapper != null ? wrapper.getEditorManagerFor(documentUri) : null;
+        }
+
+        @Nullable
+        @Override
+        public Project getProjectFor(@NotNull String documentUri) {
+            LanguageServerWrapper wrapper = memberFor(documentUri);
+            return wrapper != null ? wrapper.getProject() : null;
+        }
+
+        @Nullable
+        @Override
+        public Project getProject() {
+            return null;
+        }
+
+        @NotNull
+        @Override
+        public Collection<Project> getProjects() {
+            List<Project> projects = new ArrayList<>();
+            members.values().forEach(wrapper -> projects.add(wrapper.getProject()));
+            return projects;
+        }
+
+        @Nullable
+        @Override
+        public LanguageServerDefinition getServerDefinition() {
+            return serverDefinition;
+        }
+
+        @Nullable
+        @Override
+        public RequestManager getRequestManager() {
+            return null;
+        }
+
+        @Nullable
+        @Override
+        public LanguageServerWrapper getWrapper() {
+            return null;
+        }
+
+        @NotNull
+        @Override
+        public Collection<LanguageServerWrapper> getWrappers() {
+            return new ArrayList<>(members.values());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.languageserver.wrapper;
+
+import com.intellij.openapi.diagnostic.Logger;
+import org.eclipse.lsp4j.InitializeResult;
+import org.eclipse.lsp4j.services.LanguageClient;
+import org.eclipse.lsp4j.services.LanguageServer;
+import org.jetbrains.annotations.NotNull;
+import org.wso2.lsp4intellij.client.connection.CoalescingOutputStream;
+import org.wso2.lsp4intellij.client.connection.StreamConnectionProvider;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+/**
+ * A language server process which has been launched and sent its initialize request ahead of time, waiting to
+ * replace the server of a {@link LanguageServerWrapper} after a restart or a crash. Everything needed to take
+ * over the connection is kept here; until then, the {@link MessageHandler} holds back messages from the server.
+ */
+class StandbyServer {
+
+    private static final Logger LOG = Logger.getInstance(StandbyServer.class);
+
+    final StreamConnectionProvider provider;
+    final LanguageClient client;
+    final LanguageServer server;
+    final MessageHandler messageHandler;
+    final CoalescingOutputStream output;
+    final LauncherExecutor launcherExecutor;
+    final Future<?> launcherFuture;
+    final CompletableFuture<InitializeResult> initializeFuture;
+
+    StandbyServer(@NotNull StreamConnectionProvider provider, @NotNull LanguageClient client,
+                  @NotNull LanguageServer server, @NotNull MessageHandler messageHandler,
+                  @NotNull CoalescingOutputStream output, @NotNull LauncherExecutor launcherExecutor,
+                  @NotNull Future<?> launcherFuture, @NotNull CompletableFuture<InitializeResult> initializeFuture) {
+        this.provider = provider;
+        this.client = client;
+        this.server = server;
+        this.messageHandler = messageHandler;
+        this.output = output;
+        this.launcherExecutor = launcherExecutor;
+        this.launcherFuture = launcherFuture;
+        this.initializeFuture = initializeFuture;
+    }
+
+    /**
+     * @return whether the process is still running and its initialization has not failed
+     */
+    boolean isUsable() {
+        return provider.isAlive() && !launcherFuture.isDone() && !initializeFuture.isCompletedExceptionally();
+    }
+
+    /**
+     * Tears the spare down without the shutdown handshake; nothing has been sent to it but initialize.
+     */
+    void discard() {
+        initializeFuture.cancel(true);
+        launcherFuture.cancel(true);
+        launcherExecutor.shutdownNow();
+        try {
+            output.close();
+        } catch (IOException e) {
+            LOG.debug("Could not close the input of a standby server", e);
+        }
+        provider.stop();
+        launcherExecutor.awaitStopped();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.contributors;
+
+import com.intellij.lang.documentation.AbstractDocumentationProvider;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.impl.FakePsiElement;
+import org.eclipse.lsp4j.CompletionItem;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.wso2.lsp4intellij.editor.EditorEventManager;
+import org.wso2.lsp4intellij.editor.EditorEventManagerBase;
+import org.wso2.lsp4intellij.requests.HoverHandler;
+import org.wso2.lsp4intellij.utils.FileUtils;
+
+/**
+ * Shows the documentation of the completion item focused in the lookup. Servers may leave the documentation out of
+ * the completion list; it is resolved here, for the focused item only, when the documentation popup asks for it.
+ */
+public class LSPCompletionDocumentationProvider extends AbstractDocumentationProvider {
+
+    @Nullable
+    @Override
+    public PsiElement getDocumentationElementForLookupItem(PsiManager psiManager, Object object,
+                                                           PsiElement element) {
+        if (!(object instanceof CompletionItem) || element == null) {
+            return null;
+        }
+        PsiFile file = element.getContainingFile();
+        if (file == null || file.getVirtualFile() == null) {
+            return null;
+        }
+        EditorEventManager manager = EditorEventManagerBase.forUri(FileUtils.vfsToUri(file.getVirtualFile()));
+        return manager != null ? new CompletionItemElement(element, manager, (CompletionItem) object) : null;
+    }
+
+    @Nullable
+    @Override
+    public String generateDoc(PsiElement element, @Nullable PsiElement originalElement) {
+        if (!(element instanceof CompletionItemElement)) {
+            return null;
+        }
+        CompletionItemElement itemElement = (CompletionItemElement) element;
+        CompletionItem item = itemElement.manager.resolveCompletionItem(itemElement.item);
+        if (item == null) {
+            item = itemElement.item;
+        }
+        String documentation = HoverHandler.getDocumentationString(item.getDocumentation());
+        if (StringUtil.isNotEmpty(item.getDetail())) {
+            String detail = "<pre>" + StringUtil.escapeXmlEntities(item.getDetail()) + "</pre>";
+            documentation = documentation.isEmpty() ? "<html>" + detail + "</html>"
+                    : "<html>" + detail + documentation.substring("<html>".length());
+        }
+        return documentation.isEmpty() ? null : documentation;
+    }
+
+    /**
+     * Stands for a completion item in the documentation popup.
+     */
+    private static final class CompletionItemElement extends FakePsiElement {
+
+        private final PsiElement context;
+        private final EditorEventManager manager;
+        private final CompletionItem item;
+
+        CompletionItemElement(PsiElement context, EditorEventManager manager, CompletionItem item) {
+            this.context = context;
+            this.manager = manager;
+            this.item = item;
+        }
+
+        @Override
+        public PsiElement getParent() {
+            return context;
+        }
+
+        @NotNull
+        @Override
+        public String getName() {
+            return item.getLabel();
+        }
+    }
+}
@@ -23,6 +23,7 @@ import com.intellij.lang.annotation.ExternalAnnotator;
 import com.intellij.lang.annotation.HighlightSeverity;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiFile;
@@ -43,8 +44,10 @@ import org.wso2.lsp4intellij.utils.DocumentUtils;
 import org.wso2.lsp4intellij.utils.FileUtils;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -55,6 +58,9 @@ public class LSPAnnotator extends ExternalAnnotator<Object, Object> {
     private static final Object RESULT = new Object();
     private static final Map<DiagnosticSeverity, HighlightSeverity> annotationsMap = new HashMap<>();
 
+    // Whether a subclass still overrides the deprecated createAnnotation(Editor, AnnotationHolder, Diagnostic).
+    private final boolean legacyHook = overridesLegacyHook(getClass());
+
     static {
         annotationsMap.put(DiagnosticSeverity.Error, HighlightSeverity.ERROR);
         annotationsMap.put(DiagnosticSeverity.Warning, HighlightSeverity.WARNING);
@@ -78,13 +84,8 @@ public class LSPAnnotator extends ExternalAnnotator<Object, Object> {
             if (!FileUtils.isFileSupported(virtualFile) || !IntellijLanguageClient.isExtensionSupported(virtualFile)) {
                 return null;
             }
-            EditorEventManager eventManager = EditorEventManagerBase.forEditor(editor);
-
-            if (eventManager == null) {
-                return null;
-            }
-
-            return RESULT;
+            // Without a manager there is nothing to annotate, and a null result skips the annotation.
+            return EditorEventManagerBase.forEditor(editor);
         } catch (Exception e) {
             return null;
         }
@@ -93,6 +94,10 @@ public class LSPAnnotator extends ExternalAnnotator<Object, Object> {
     @Nullable
     @Override
     public Object doAnnotate(Object collectedInfo) {
+        if (collectedInfo instanceof EditorEventManager) {
+            // Runs for the visible files only, and is cancelled together with the daemon pass when the file is edited.
+            ((EditorEventManager) collectedInfo).pullDiagnostics(ProgressManager::checkCanceled);
+        }
         return RESULT;
     }
 
@@ -112,26 +117,27 @@ public class LSPAnnotator extends ExternalAnnotator<Object, Object> {
             // so store them by file and not by editor..
             EditorEventManager eventManager = EditorEventManagerBase.forUri(uri);
 
-            if (Objects.nonNull(eventManager) && eventManager.isDiagnosticSyncRequired()) {
-                try {
-                    createAnnotations(holder, eventManager);
-                } catch (ConcurrentModificationException e) {
-                    // Todo - Add proper fix to handle concurrent modifications gracefully.
-                    LOG.warn("Error occurred when updating LSP code actions due to concurrent modifications.", e);
-                } catch (Throwable t) {
-                    LOG.warn("Error occurred when updating LSP code actions.", t);
+            if (Objects.isNull(eventManager)) {
+                return;
+            }
+            boolean diagnosticsChanged = eventManager.isDiagnosticSyncRequired();
+            try {
+                if (!diagnosticsChanged) {
+                    updateSilentAnnotations(holder, eventManager);
                 }
+                // Created on every pass, at the offsets the range markers of the diagnostics have now, so that the
+                // highlights follow the edits made since the server published them.
+                createAnnotations(holder, eventManager, !diagnosticsChanged);
+            } catch (ConcurrentModificationException e) {
+                // Todo - Add proper fix to handle concurrent modifications gracefully.
+                LOG.warn("Error occurred when updating LSP diagnostics due to concurrent modifications.", e);
+            } catch (Throwable t) {
+                LOG.warn("Error occurred when updating LSP diagnostics.", t);
+            }
+            if (diagnosticsChanged) {
                 eventManager.requestAndShowCodeActions();
             } else {
-                try {
-                    updateSilentAnnotations(holder, eventManager);
-                    updateAnnotations(holder, eventManager);
-                } catch (ConcurrentModificationException e) {
-                    // Todo - Add proper fix to handle concurrent modifications gracefully.
-                    LOG.warn("Error occurred when updating LSP diagnostics due to concurrent modifications.", e);
-                } catch (Throwable t) {
-                    LOG.warn("Error occurred when updating LSP diagnostics.", t);
-                }
+                eventManager.triggerIntentionActions();
             }
         }
     }
@@ -152,38 +158,27 @@ public class LSPAnnotator extends ExternalAnnotator<Object, Object> {
         });
     }
 
-    private void updateAnnotations(AnnotationHolder holder, EditorEventManager eventManager) {
-        final List<Annotation> annotations = eventManager.getAnnotations();
-        if (annotations == null) {
-            return;
-        }
-        annotations.forEach(annotation -> {
-            AnnotationBuilder builder = holder.newAnnotation(annotation.getSeverity(), annotation.getMessage());
-
-            if (annotation.getQuickFixes() == null || annotation.getQuickFixes().isEmpty()) {
-                int start = annotation.getStartOffset();
-                int end = annotation.getEndOffset();
-                builder.range(new TextRange(start, end)).create();
-                return;
-            }
-
-            boolean range = true;
-            for (Annotation.QuickFixInfo quickFixInfo : annotation.getQuickFixes()) {
-                if (range) {
-                    builder = builder.range(quickFixInfo.textRange);
-                    range = false;
-                }
-                builder = builder.withFix(quickFixInfo.quickFix);
-            }
-            builder.create();
-        });
-        eventManager.triggerIntentionActions();
-    }
-
+    /**
+     * @deprecated Converts the range of each diagnostic on its own. Override
+     * {@link #createAnnotation(AnnotationHolder, Diagnostic, int, int)} instead, which gets the offsets of all the
+     * diagnostics converted at once. Annotators which still override this method keep being called through it.
+     */
+    @Deprecated
     @Nullable
     protected Annotation createAnnotation(Editor editor, AnnotationHolder holder, Diagnostic diagnostic) {
         final int start = DocumentUtils.lspPosToOffset(editor, diagnostic.getRange().getStart());
         final int end = DocumentUtils.lspPosToOffset(editor, diagnostic.getRange().getEnd());
+        return createAnnotation(holder, diagnostic, start, end);
+    }
+
+    /**
+     * Creates the annotation of a diagnostic at the given offsets, the current ones of the text the diagnostic was
+     * published for.
+     *
+     * @return The annotation, or null for none, e.g. because the text of the diagnostic was deleted
+     */
+    @Nullable
+    protected Annotation createAnnotation(AnnotationHolder holder, Diagnostic diagnostic, int start, int end) {
         if (start > end) {
             return null;
         }
@@ -200,22 +195,56 @@ public class LSPAnnotator extends ExternalAnnotator<Object, Object> {
         return asList.get(asList.size() - 1);
     }
 
-    private void createAnnotations(AnnotationHolder holder, EditorEventManager eventManager) {
+    /**
+     * @param keepFixes Whether the diagnostics are those of the last pass, whose annotations got the quick fixes of
+     *                  the code actions requested for them; these are registered on the new annotations as well
+     */
+    private void createAnnotations(AnnotationHolder holder, EditorEventManager eventManager, boolean keepFixes) {
+        final Map<Diagnostic, Annotation> previous = keepFixes
+                ? eventManager.getDiagnosticAnnotations() : Collections.emptyMap();
         final List<Diagnostic> diagnostics = eventManager.getDiagnostics();
-        final Editor editor = eventManager.editor;
+        final int[] offsets = eventManager.getDiagnosticOffsets(diagnostics);
 
         List<Annotation> annotations = new ArrayList<>();
-        diagnostics.forEach(d -> {
-            Annotation annotation = createAnnotation(editor, holder, d);
+        Map<Diagnostic, Annotation> byDiagnostic = new IdentityHashMap<>();
+        for (int i = 0; offsets != null && i < diagnostics.size(); i++) {
+            Diagnostic d = diagnostics.get(i);
+            Annotation annotation = legacyHook
+                    ? createAnnotation(eventManager.editor, holder, d)
+                    : createAnnotation(holder, d, offsets[2 * i], offsets[2 * i + 1]);
             if (annotation != null) {
                 if (d.getTags() != null && d.getTags().contains(DiagnosticTag.Deprecated)) {
                     annotation.setHighlightType(ProblemHighlightType.LIKE_DEPRECATED);
                 }
+                copyQuickFixes(previous.get(d), annotation);
                 annotations.add(annotation);
+                byDiagnostic.put(d, annotation);
             }
-        });
+        }
 
-        eventManager.setAnnotations(annotations);
+        eventManager.setAnnotations(annotations, byDiagnostic);
         eventManager.setAnonHolder(holder);
     }
+
+    private static boolean overridesLegacyHook(Class<?> type) {
+        for (Class<?> c = type; c != null && c != LSPAnnotator.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod("createAnnotation", Editor.class, AnnotationHolder.class, Diagnostic.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // Not declared here; look further up.
+            }
+        }
+        return false;
+    }
+
+    private static void copyQuickFixes(@Nullable Annotation from, Annotation to) {
+        if (from == null || from.getQuickFixes() == null) {
+            return;
+        }
+        TextRange range = new TextRange(to.getStartOffset(), to.getEndOffset());
+        for (Annotation.QuickFixInfo quickFixInfo : from.getQuickFixes()) {
+            to.registerFix(quickFixInfo.quickFix, range);
+        }
+    }
 }
@@ -17,11 +17,13 @@ package org.wso2.lsp4intellij.contributors.fixes;
 
 import com.intellij.codeInsight.intention.IntentionAction;
 import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiFile;
 import org.eclipse.lsp4j.CodeAction;
 import org.jetbrains.annotations.Nls;
 import org.jetbrains.annotations.NotNull;
+import org.wso2.lsp4intellij.Lsp4IntellijBundle;
 import org.wso2.lsp4intellij.editor.EditorEventManager;
 import org.wso2.lsp4intellij.editor.EditorEventManagerBase;
 import org.wso2.lsp4intellij.requests.WorkspaceEditHandler;
@@ -59,17 +61,28 @@ public class LSPCodeActionFix implements IntentionAction {
 
     @Override
     public void invoke(@NotNull Project project, Editor editor, PsiFile psiFile) {
-        if (codeAction.getEdit() != null) {
-            WorkspaceEditHandler.applyEdit(codeAction.getEdit(), codeAction.getTitle());
-        }
         EditorEventManager manager = EditorEventManagerBase.forEditor(editor);
-        if (manager != null) {
-            manager.executeCommands(Collections.singletonList(codeAction.getCommand()));
+        CodeAction action = codeAction;
+        if (action.getEdit() == null && manager != null) {
+            // Code actions are resolved only once picked, rather than for every action the server offers.
+            CodeAction resolved = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                    () -> manager.resolvedCodeAction(codeAction),
+                    Lsp4IntellijBundle.message("progress.resolving.code.action", codeAction.getTitle()), true, project);
+            if (resolved != null) {
+                action = resolved;
+            }
+        }
+        if (action.getEdit() != null) {
+            WorkspaceEditHandler.applyEdit(action.getEdit(), action.getTitle());
+        }
+        if (manager != null && action.getCommand() != null) {
+            manager.executeCommands(Collections.singletonList(action.getCommand()));
         }
     }
 
     @Override
     public boolean startInWriteAction() {
-        return true;
+        // The edit is applied in a write action of its own, after the code action is resolved.
+        return false;
     }
 }
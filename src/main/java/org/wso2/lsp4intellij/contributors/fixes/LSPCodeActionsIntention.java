@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.contributors.fixes;
+
+import com.intellij.codeInsight.hint.HintManager;
+import com.intellij.codeInsight.intention.IntentionAction;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.popup.JBPopupFactory;
+import com.intellij.psi.PsiFile;
+import com.intellij.ui.SimpleListCellRenderer;
+import org.eclipse.lsp4j.CodeAction;
+import org.eclipse.lsp4j.CodeActionOptions;
+import org.eclipse.lsp4j.Command;
+import org.eclipse.lsp4j.ServerCapabilities;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.jetbrains.annotations.Nls;
+import org.jetbrains.annotations.NotNull;
+import org.wso2.lsp4intellij.Lsp4IntellijBundle;
+import org.wso2.lsp4intellij.client.languageserver.ServerStatus;
+import org.wso2.lsp4intellij.editor.EditorEventManager;
+import org.wso2.lsp4intellij.editor.EditorEventManagerBase;
+import org.wso2.lsp4intellij.utils.FileUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lists the code actions the server offers at the caret, whether or not there is a diagnostic there. Code actions
+ * are not requested while moving around the file; this intention requests them once it is picked from the
+ * intention popup.
+ */
+public class LSPCodeActionsIntention implements IntentionAction {
+
+    @Nls(capitalization = Nls.Capitalization.Sentence)
+    @NotNull
+    @Override
+    public String getText() {
+        return Lsp4IntellijBundle.message("intention.code.actions");
+    }
+
+    @Nls
+    @NotNull
+    @Override
+    public String getFamilyName() {
+        return "LSP Fixes";
+    }
+
+    @Override
+    public boolean isAvailable(@NotNull Project project, Editor editor, PsiFile psiFile) {
+        EditorEventManager manager = editor == null ? null : EditorEventManagerBase.forEditor(editor);
+        if (manager == null || manager.wrapper.getStatus() != ServerStatus.INITIALIZED) {
+            return false;
+        }
+        ServerCapabilities capabilities = manager.wrapper.getServerCapabilities();
+        if (capabilities == null) {
+            return false;
+        }
+        Either<Boolean, CodeActionOptions> provider = capabilities.getCodeActionProvider();
+        return provider != null && (provider.isRight() || Boolean.TRUE.equals(provider.getLeft()));
+    }
+
+    @Override
+    public void invoke(@NotNull Project project, Editor editor, PsiFile psiFile) {
+        EditorEventManager manager = EditorEventManagerBase.forEditor(editor);
+        if (manager == null) {
+            return;
+        }
+        int offset = editor.getCaretModel().getOffset();
+        List<Either<Command, CodeAction>> codeActions = ProgressManager.getInstance()
+                .runProcessWithProgressSynchronously(() -> manager.codeAction(offset, false),
+                Lsp4IntellijBundle.message("progress.requesting.code.actions"), true, project);
+
+        String uri = FileUtils.editorToURIString(editor);
+        List<IntentionAction> fixes = new ArrayList<>();
+        if (codeActions != null) {
+            for (Either<Command, CodeAction> codeAction : codeActions) {
+                if (codeAction == null) {
+                    continue;
+                }
+                fixes.add(codeAction.isLeft() ? new LSPCommandFix(uri, codeAction.getLeft())
+                        : new LSPCodeActionFix(uri, codeAction.getRight()));
+            }
+        }
+        if (fixes.isEmpty()) {
+            HintManager.getInstance().showInformationHint(editor, Lsp4IntellijBundle.message("code.actions.none"));
+            return;
+        }
+        JBPopupFactory.getInstance().createPopupChooserBuilder(fixes)
+                .setTitle(getText())
+                .setRenderer(SimpleListCellRenderer.create("", IntentionAction::getText))
+                .setItemChosenCallback(fix -> fix.invoke(project, editor, psiFile))
+                .createPopup()
+                .showInBestPositionFor(editor);
+    }
+
+    @Override
+    public boolean startInWriteAction() {
+        return false;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.editor;
+
+import org.eclipse.lsp4j.CodeAction;
+import org.eclipse.lsp4j.Command;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The code actions a server returned for the ranges of one document version.
+ * <p>
+ * The actions depend on the text and on the diagnostics sent along, so the cache only answers for the document
+ * version and the diagnostics list it was filled for, and starts over as soon as either of them changes. Within a
+ * version it keeps the results for the {@link #MAX_RANGES} ranges asked for most recently.
+ */
+final class CodeActionCache {
+
+    static final int MAX_RANGES = 32;
+
+    private int version = -1;
+    private List<Diagnostic> diagnostics;
+    private final Map<Range, List<Either<Command, CodeAction>>> entries =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Range, List<Either<Command, CodeAction>>> eldest) {
+                    return size() > MAX_RANGES;
+                }
+            };
+
+    /**
+     * @param version     The document version
+     * @param diagnostics The diagnostics of the document; compared by identity
+     * @param range       The requested range
+     * @return The cached code actions, or null if they have to be requested
+     */
+    @Nullable
+    synchronized List<Either<Command, CodeAction>> get(int version, @NotNull List<Diagnostic> diagnostics,
+                                                        @NotNull Range range) {
+        if (version != this.version || diagnostics != this.diagnostics) {
+            return null;
+        }
+        return entries.get(range);
+    }
+
+    /**
+     * Keeps the code actions returned for a range. A result for an older version than the cached ones is dropped.
+     */
+    synchronized void put(int version, @NotNull List<Diagnostic> diagnostics, @NotNull Range range,
+                          @NotNull List<Either<Command, CodeAction>> codeActions) {
+        if (version < this.version) {
+            return;
+        }
+        if (version != this.version || diagnostics != this.diagnostics) {
+            entries.clear();
+            this.version = version;
+            this.diagnostics = diagnostics;
+        }
+        entries.put(range, Collections.unmodifiableList(new ArrayList<>(codeActions)));
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        diagnostics = null;
+    }
+}
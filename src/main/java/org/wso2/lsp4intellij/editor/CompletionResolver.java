@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.editor;
+
+import org.eclipse.lsp4j.CompletionItem;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Resolves completion items lazily, one at a time, and keeps the results for the completion session.
+ * <p>
+ * Servers leave the documentation and additional edits of an item out of the completion list, to be filled in by
+ * {@code completionItem/resolve}. Only one item is of interest at a time: the one focused in the lookup, or the one
+ * being inserted. Asking for a focused item therefore cancels the resolves still running for the others. The items
+ * resolved so far are kept until the session ends. The resolve of an inserted item is never cancelled, since its
+ * additional edits, such as imports, are still to be applied.
+ */
+final class CompletionResolver {
+
+    private final Function<CompletionItem, CompletableFuture<CompletionItem>> send;
+    private final Map<CompletionItem, CompletableFuture<CompletionItem>> resolved = new IdentityHashMap<>();
+
+    /**
+     * @param send Sends the resolve request; returns null if the server does not resolve completion items
+     */
+    CompletionResolver(@NotNull Function<CompletionItem, CompletableFuture<CompletionItem>> send) {
+        this.send = send;
+    }
+
+    /**
+     * @return The resolved item; the item itself if the server does not resolve items
+     */
+    @NotNull
+    synchronized CompletableFuture<CompletionItem> resolve(@NotNull CompletionItem item) {
+        Iterator<Map.Entry<CompletionItem, CompletableFuture<CompletionItem>>> entries = resolved.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<CompletionItem, CompletableFuture<CompletionItem>> entry = entries.next();
+            if (entry.getKey() != item && !entry.getValue().isDone()) {
+                entry.getValue().cancel(true);
+                entries.remove();
+            }
+        }
+        CompletableFuture<CompletionItem> future = resolved.get(item);
+        if (future == null || future.isCompletedExceptionally()) {
+            future = send.apply(item);
+            if (future == null) {
+                future = CompletableFuture.completedFuture(item);
+            }
+            resolved.put(item, future);
+        }
+        return future;
+    }
+
+    /**
+     * Resolves an item which was inserted. A resolve already running for it is taken out of the session, so neither
+     * focusing another item nor ending the session cancels it.
+     *
+     * @return The resolved item; the item itself if the server does not resolve items
+     */
+    @NotNull
+    synchronized CompletableFuture<CompletionItem> resolveInserted(@NotNull CompletionItem item) {
+        CompletableFuture<CompletionItem> future = resolved.get(item);
+        if (future != null && !future.isCompletedExceptionally()) {
+            if (!future.isDone()) {
+                resolved.remove(item);
+            }
+            return future;
+        }
+        future = send.apply(item);
+        return future != null ? future : CompletableFuture.completedFuture(item);
+    }
+
+    /**
+     * Ends the session, cancelling the resolves still running.
+     */
+    synchronized void clear() {
+        resolved.values().forEach(future -> future.cancel(true));
+        resolved.clear();
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.editor;
+
+import com.intellij.codeInsight.completion.PrefixMatcher;
+import com.intellij.codeInsight.completion.impl.CamelHumpMatcher;
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.InsertReplaceEdit;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextEdit;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * The complete completion list a server returned for the word being typed.
+ * <p>
+ * A list the server did not mark as incomplete stays valid while the user keeps typing the same word, so it is
+ * filtered here instead of being requested again. The session ends, and the next completion goes to the server, as
+ * soon as the word starts elsewhere, the text before it changes, or the user deletes into the part of the word the
+ * list was requested for. The items handed out have their edits stretched to the current caret, as if the server had
+ * been asked there; the items of the session itself are never changed.
+ */
+final class CompletionSession {
+
+    private final Function<String, PrefixMatcher> matchers;
+    private Word word;
+    private List<CompletionItem> items;
+
+    CompletionSession() {
+        this(CamelHumpMatcher::new);
+    }
+
+    /**
+     * @param matchers Creates the matcher for a prefix; the one the lookup uses by default
+     */
+    CompletionSession(@NotNull Function<String, PrefixMatcher> matchers) {
+        this.matchers = matchers;
+    }
+
+    /**
+     * @return The items of the session matching the word, or null if the completion has to go to the server
+     */
+    @Nullable
+    synchronized List<CompletionItem> reuse(@NotNull Word current) {
+        if (word == null || !word.continuedBy(current)) {
+            return null;
+        }
+        List<CompletionItem> matching = current.prefix.isEmpty()
+                ? new ArrayList<>(items) : filter(items, matchers.apply(current.prefix));
+        int delta = current.character - word.character;
+        if (delta != 0) {
+            matching.replaceAll(item -> stretched(item, delta));
+        }
+        return matching;
+    }
+
+    /**
+     * Starts a session with the items the server returned for the word, unless the list is incomplete.
+     */
+    synchronized void start(@NotNull Word word, @NotNull List<CompletionItem> items, boolean complete) {
+        if (complete) {
+            this.word = word;
+            this.items = new ArrayList<>(items);
+        } else {
+            clear();
+        }
+    }
+
+    synchronized void clear() {
+        word = null;
+        items = null;
+    }
+
+    /**
+     * @return The items whose filter text, label or insert text the matcher accepts; the lookup matches its items by
+     * the label and the filter text with the same matcher, so it drops nothing this keeps
+     */
+    static List<CompletionItem> filter(List<CompletionItem> items, PrefixMatcher matcher) {
+        List<CompletionItem> matching = new ArrayList<>();
+        for (CompletionItem item : items) {
+            if (matches(matcher, item.getFilterText()) || matches(matcher, item.getLabel())
+                    || matches(matcher, item.getInsertText())) {
+                matching.add(item);
+            }
+        }
+        return matching;
+    }
+
+    private static boolean matches(PrefixMatcher matcher, @Nullable String text) {
+        return text != null && matcher.prefixMatches(text);
+    }
+
+    /**
+     * @return A copy of the item with the end of its edit moved by the given number of characters, or the item
+     * itself if it has no edit
+     */
+    private static CompletionItem stretched(CompletionItem item, int delta) {
+        Either<TextEdit, InsertReplaceEdit> edit = item.getTextEdit();
+        if (edit == null) {
+            return item;
+        }
+        CompletionItem copy = copy(item);
+        if (edit.isLeft()) {
+            TextEdit textEdit = edit.getLeft();
+            copy.setTextEdit(Either.forLeft(new TextEdit(moveEnd(textEdit.getRange(), delta), textEdit.getNewText())));
+        } else {
+            InsertReplaceEdit insertReplace = edit.getRight();
+            copy.setTextEdit(Either.forRight(new InsertReplaceEdit(insertReplace.getNewText(),
+                    moveEnd(insertReplace.getInsert(), delta), moveEnd(insertReplace.getReplace(), delta))));
+        }
+        return copy;
+    }
+
+    private static CompletionItem copy(CompletionItem item) {
+        CompletionItem copy = new CompletionItem(item.getLabel());
+        copy.setLabelDetails(item.getLabelDetails());
+        copy.setKind(item.getKind());
+        copy.setTags(item.getTags());
+        copy.setDetail(item.getDetail());
+        copy.setDocumentation(item.getDocumentation());
+        copy.setDeprecated(item.getDeprecated());
+        copy.setPreselect(item.getPreselect());
+        copy.setSortText(item.getSortText());
+        copy.setFilterText(item.getFilterText());
+        copy.setInsertText(item.getInsertText());
+        copy.setInsertTextFormat(item.getInsertTextFormat());
+        copy.setInsertTextMode(item.getInsertTextMode());
+        copy.setTextEdit(item.getTextEdit());
+        copy.setTextEditText(item.getTextEditText());
+        copy.setAdditionalTextEdits(item.getAdditionalTextEdits());
+        copy.setCommitCharacters(item.getCommitCharacters());
+        copy.setCommand(item.getCommand());
+        copy.setData(item.getData());
+        return copy;
+    }
+
+    private static Range moveEnd(Range range, int delta) {
+        Position end = range.getEnd();
+        return new Range(range.getStart(), new Position(end.getLine(), Math.max(0, end.getCharacter() + delta)));
+    }
+
+    /**
+     * The word completion was asked for.
+     */
+    static final class Word {
+        final int line;
+        final int character;
+        final int start;
+        final String textBefore;
+        final String prefix;
+
+        /**
+         * @param line       The line of the caret
+         * @param character  The column of the caret
+         * @param start      The offset the word starts at
+         * @param textBefore The text of the line before the word
+         * @param prefix     The part of the word before the caret
+         */
+        Word(int line, int character, int start, @NotNull String textBefore, @NotNull String prefix) {
+            this.line = line;
+            this.character = character;
+            this.start = start;
+            this.textBefore = textBefore;
+            this.prefix = prefix;
+        }
+
+        boolean continuedBy(Word other) {
+            return line == other.line && start == other.start && Objects.equals(textBefore, other.textBefore)
+                    && other.prefix.startsWith(prefix);
+        }
+    }
+}
@@ -42,6 +42,8 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.wso2.lsp4intellij.utils.ApplicationUtils.computableReadAction;
+
 public class DocumentEventManager {
     private final Document document;
     private final DocumentListener documentListener;
@@ -53,6 +55,9 @@ public class DocumentEventManager {
     protected static final Logger LOG = Logger.getInstance(DocumentEventManager.class);
 
     private final Set<Document> openDocuments = ConcurrentHashMap.newKeySet();
+    // Set while a resumed server waits for the document to be opened again; changes made meanwhile are carried by
+    // that didOpen, and sending them as well would apply them twice.
+    private volatile boolean awaitingReopen = false;
 
     DocumentEventManager(Document document, DocumentListener documentListener,
                          TextDocumentSyncKind syncKind, LanguageServerWrapper wrapper) {
@@ -76,6 +81,10 @@ public class DocumentEventManager {
     }
 
     public void documentChanged(DocumentEvent event) {
+        if (!openDocuments.contains(document)) {
+            // Not open on the server yet; the didOpen sent later carries the text as it is then.
+            return;
+        }
 
         DidChangeTextDocumentParams changesParams = new DidChangeTextDocumentParams(
                 new VersionedTextDocumentIdentifier(),
@@ -125,7 +134,14 @@ public class DocumentEventManager {
         } else if (syncKind == TextDocumentSyncKind.Full) {
             changesParams.getContentChanges().get(0).setText(document.getText());
         }
-        wrapper.pool(() -> wrapper.getRequestManager().didChange(changesParams));
+        // Editing keeps the server from hibernating, and starts a hibernated one again; the changes made meanwhile
+        // reach it with the text its documents are opened with.
+        wrapper.ensureStarted();
+        wrapper.pool(() -> {
+            if (!awaitingReopen) {
+                wrapper.getRequestManager().didChange(changesParams);
+            }
+        });
     }
 
     public void documentOpened() {
@@ -142,9 +158,38 @@ public class DocumentEventManager {
         }
     }
 
+    /**
+     * Opens the document again on a server which was restarted underneath this manager, with the text and version
+     * the document has now. Does nothing for a document which is not open.
+     */
+    public void documentReopened() {
+        awaitingReopen = false;
+        if (!openDocuments.contains(document)) {
+            return;
+        }
+        final String extension = FileUtilRt.getExtension(
+                FileDocumentManager.getInstance().getFile(document).getName());
+        String languageId = wrapper.serverDefinition.languageIdFor(extension);
+        // Text and version are read together, so that no change can slip in between.
+        TextDocumentItem item = computableReadAction(() ->
+                new TextDocumentItem(identifier.getUri(), languageId, version.get(), document.getText()));
+        wrapper.getRequestManager().didOpen(new DidOpenTextDocumentParams(item));
+    }
+
+    /**
+     * Holds back the changes of the document until {@link #documentReopened()}, for a server which is being started
+     * again underneath this manager.
+     */
+    public void reopenPending() {
+        awaitingReopen = true;
+    }
+
     public void documentClosed() {
         if (!openDocuments.contains(document)) {
             LOG.warn("trying to close document which is not open");
+        } else if (wrapper.isSuspended()) {
+            // The server which had it open is gone; there is no need to start another one to close it.
+            openDocuments.remove(document);
         } else if (EditorEventManagerBase.managersForUri(FileUtils.documentToUri(document)).size() > 1) {
             LOG.warn("trying to close document which is still open in another editor!");
         } else {
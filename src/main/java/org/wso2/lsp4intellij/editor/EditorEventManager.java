@@ -16,7 +16,6 @@
 package org.wso2.lsp4intellij.editor;
 
 import com.intellij.codeInsight.completion.InsertionContext;
-import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
 import com.intellij.codeInsight.hint.HintManager;
 import com.intellij.codeInsight.lookup.AutoCompletionPolicy;
 import com.intellij.codeInsight.lookup.LookupElement;
@@ -37,6 +36,7 @@ import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.editor.EditorModificationUtil;
 import com.intellij.openapi.editor.LogicalPosition;
+import com.intellij.openapi.editor.RangeMarker;
 import com.intellij.openapi.editor.ScrollType;
 import com.intellij.openapi.editor.SelectionModel;
 import com.intellij.openapi.editor.colors.EditorColors;
@@ -52,6 +52,8 @@ import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.fileEditor.FileEditorManager;
 import com.intellij.openapi.fileEditor.OpenFileDescriptor;
 import com.intellij.openapi.fileTypes.PlainTextLanguage;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Pair;
 import com.intellij.openapi.util.TextRange;
@@ -78,6 +80,8 @@ import org.eclipse.lsp4j.CompletionParams;
 import org.eclipse.lsp4j.DefinitionParams;
 import org.eclipse.lsp4j.Diagnostic;
 import org.eclipse.lsp4j.DidSaveTextDocumentParams;
+import org.eclipse.lsp4j.DocumentDiagnosticParams;
+import org.eclipse.lsp4j.DocumentDiagnosticReport;
 import org.eclipse.lsp4j.DocumentFormattingParams;
 import org.eclipse.lsp4j.DocumentRangeFormattingParams;
 import org.eclipse.lsp4j.ExecuteCommandParams;
@@ -95,6 +99,7 @@ import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.ReferenceContext;
 import org.eclipse.lsp4j.ReferenceParams;
 import org.eclipse.lsp4j.RenameParams;
+import org.eclipse.lsp4j.ServerCapabilities;
 import org.eclipse.lsp4j.SignatureHelp;
 import org.eclipse.lsp4j.SignatureHelpParams;
 import org.eclipse.lsp4j.SignatureInformation;
@@ -107,8 +112,10 @@ import org.eclipse.lsp4j.WorkspaceEdit;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.lsp4j.jsonrpc.messages.Tuple;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.wso2.lsp4intellij.actions.LSPReferencesAction;
 import org.wso2.lsp4intellij.client.languageserver.ServerOptions;
+import org.wso2.lsp4intellij.client.languageserver.ServerStatus;
 import org.wso2.lsp4intellij.client.languageserver.requestmanager.RequestManager;
 import org.wso2.lsp4intellij.client.languageserver.wrapper.LanguageServerWrapper;
 import org.wso2.lsp4intellij.contributors.fixes.LSPCodeActionFix;
@@ -119,6 +126,8 @@ import org.wso2.lsp4intellij.contributors.rename.LSPRenameProcessor;
 import org.wso2.lsp4intellij.listeners.LSPCaretListenerImpl;
 import org.wso2.lsp4intellij.requests.HoverHandler;
 import org.wso2.lsp4intellij.requests.WorkspaceEditHandler;
+import org.wso2.lsp4intellij.services.DaemonRestartCoalescer;
+import org.wso2.lsp4intellij.services.DiagnosticStore;
 import org.wso2.lsp4intellij.utils.DocumentUtils;
 import org.wso2.lsp4intellij.utils.FileUtils;
 import org.wso2.lsp4intellij.utils.GUIUtils;
@@ -132,9 +141,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -147,6 +161,7 @@ import static org.wso2.lsp4intellij.editor.EditorEventManagerBase.setCtrlRange;
 import static org.wso2.lsp4intellij.requests.Timeouts.CODEACTION;
 import static org.wso2.lsp4intellij.requests.Timeouts.COMPLETION;
 import static org.wso2.lsp4intellij.requests.Timeouts.DEFINITION;
+import static org.wso2.lsp4intellij.requests.Timeouts.DIAGNOSTIC;
 import static org.wso2.lsp4intellij.requests.Timeouts.EXECUTE_COMMAND;
 import static org.wso2.lsp4intellij.requests.Timeouts.HOVER;
 import static org.wso2.lsp4intellij.requests.Timeouts.REFERENCES;
@@ -196,11 +211,19 @@ public class EditorEventManager {
     private boolean mouseInEditor = true;
     private Hint currentHint;
 
-    private final List<Diagnostic> diagnostics = new ArrayList<>();
     private AnnotationHolder anonHolder;
     private List<Annotation> annotations = new ArrayList<>();
+    private Map<Diagnostic, Annotation> diagnosticAnnotations = new IdentityHashMap<>();
     private volatile boolean diagnosticSyncRequired = true;
     private volatile boolean codeActionSyncRequired = false;
+    private final AtomicReference<DiagnosticMarkers> diagnosticMarkers = new AtomicReference<>();
+    private final CodeActionCache codeActions = new CodeActionCache();
+    private final AtomicInteger codeActionPrefetches = new AtomicInteger();
+    private final CompletionSession completionSession = new CompletionSession();
+    private final CompletionResolver completionResolver = new CompletionResolver(item -> {
+        RequestManager requestManager = wrapper.getRequestManager();
+        return requestManager != null ? requestManager.resolveCompletionItem(item) : null;
+    });
 
     private static final long CTRL_THRESH = EditorSettingsExternalizable.getInstance().getTooltipsDelay() * 1000000;
 
@@ -327,7 +350,7 @@ public class EditorEventManager {
                         getCtrlRange().dispose();
                     }
                     setCtrlRange(null);
-                    wrapper.pool(() -> requestAndShowDoc(lPos, e.getMouseEvent().getPoint()));
+                    wrapper.poolWhenStarted(() -> requestAndShowDoc(lPos, e.getMouseEvent().getPoint()));
                 } else if (getCtrlRange().definitionContainsOffset(offset)) {
                     createAndShowEditorHint(editor, "Click to show usages", editor.offsetToXY(offset));
                 } else {
@@ -399,11 +422,8 @@ public class EditorEventManager {
      */
     private Location requestDefinition(Position position) {
         DefinitionParams params = new DefinitionParams(identifier, position);
-        CompletableFuture<Either<List<? extends Location>, List<? extends LocationLink>>> request =
-                wrapper.getRequestManager().definition(params);
-
         Either<List<? extends Location>, List<? extends LocationLink>> definition =
-                wrapper.getRequestExecutor().waitFor(request, DEFINITION);
+                wrapper.getRequestExecutor().waitFor(manager -> manager.definition(params), DEFINITION);
         if (definition == null) {
             return null;
         }
@@ -435,8 +455,8 @@ public class EditorEventManager {
                 textDocumentIdentifier, lspPos, new ReferenceContext(getOriginalElement));
         params.setPosition(lspPos);
         params.setTextDocument(identifier);
-        CompletableFuture<List<? extends Location>> request = wrapper.getRequestManager().references(params);
-        List<? extends Location> res = wrapper.getRequestExecutor().waitFor(request, REFERENCES);
+        List<? extends Location> res =
+                wrapper.getRequestExecutor().waitFor(manager -> manager.references(params), REFERENCES);
         if (res == null || res.isEmpty()) {
             return new Pair<>(null, null);
         }
@@ -498,11 +518,66 @@ public class EditorEventManager {
     }
 
     /**
-     * @return The current diagnostics highlights
+     * @return The current diagnostics of the document, shared with the other editors of the same document
      */
     public synchronized List<Diagnostic> getDiagnostics() {
         this.diagnosticSyncRequired = false;
-        return this.diagnostics;
+        return DiagnosticStore.getInstance(project).get(identifier.getUri());
+    }
+
+    /**
+     * Returns the current offsets of the given diagnostics. Their ranges are converted once, when the diagnostics
+     * arrive, and anchored to range markers from then on, so the offsets follow the edits made until the server
+     * publishes again.
+     *
+     * @param diagnostics The diagnostics of the document, as returned by {@link #getDiagnostics()}
+     * @return The start and end offsets of the diagnostics, two entries per diagnostic, or null if the editor is
+     * disposed. A diagnostic whose text was deleted gets an end before its start.
+     */
+    @Nullable
+    public int[] getDiagnosticOffsets(List<Diagnostic> diagnostics) {
+        DiagnosticMarkers markers = anchorDiagnostics(diagnostics);
+        return markers == null ? null : computableReadAction(markers::offsets);
+    }
+
+    /**
+     * Anchors the given diagnostics to range markers, unless they already are, releasing the markers of the
+     * diagnostics they replace.
+     */
+    @Nullable
+    private DiagnosticMarkers anchorDiagnostics(List<Diagnostic> diagnostics) {
+        DiagnosticMarkers current = diagnosticMarkers.get();
+        if (current != null && current.diagnostics == diagnostics) {
+            return current;
+        }
+        DiagnosticMarkers anchored = computableReadAction(() -> {
+            List<Range> ranges = new ArrayList<>(diagnostics.size());
+            diagnostics.forEach(diagnostic -> ranges.add(diagnostic.getRange()));
+            int[] offsets = DocumentUtils.lspRangesToOffsets(editor, ranges);
+            if (offsets == null) {
+                return null;
+            }
+            Document document = editor.getDocument();
+            RangeMarker[] markers = new RangeMarker[diagnostics.size()];
+            for (int i = 0; i < markers.length; i++) {
+                if (offsets[2 * i] <= offsets[2 * i + 1]) {
+                    markers[i] = document.createRangeMarker(offsets[2 * i], offsets[2 * i + 1]);
+                }
+            }
+            return new DiagnosticMarkers(diagnostics, markers);
+        });
+        if (anchored == null) {
+            return null;
+        }
+        if (!diagnosticMarkers.compareAndSet(current, anchored)) {
+            // Someone else anchored in the meantime; start over from theirs.
+            anchored.dispose();
+            return anchorDiagnostics(diagnostics);
+        }
+        if (current != null) {
+            current.dispose();
+        }
+        return anchored;
     }
 
     /**
@@ -515,6 +590,24 @@ public class EditorEventManager {
 
     public synchronized void setAnnotations(List<Annotation> annotations) {
         this.annotations = annotations;
+        this.diagnosticAnnotations = new IdentityHashMap<>();
+    }
+
+    /**
+     * Keeps the annotations created on the last annotator pass, along with the diagnostic each was created for.
+     */
+    public synchronized void setAnnotations(List<Annotation> annotations, Map<Diagnostic, Annotation> byDiagnostic) {
+        this.annotations = annotations;
+        this.diagnosticAnnotations = byDiagnostic;
+    }
+
+    /**
+     * @return The annotations created on the last annotator pass, keyed by the identity of their diagnostic, to
+     * carry the quick fixes registered on them over to the next pass
+     */
+    public synchronized Map<Diagnostic, Annotation> getDiagnosticAnnotations() {
+        this.codeActionSyncRequired = false;
+        return new IdentityHashMap<>(diagnosticAnnotations);
     }
 
     public synchronized void setAnonHolder(AnnotationHolder holder) {
@@ -530,25 +623,105 @@ public class EditorEventManager {
     }
 
     /**
-     * Applies the diagnostics to the document.
+     * Anchors the diagnostics of the document, which were just replaced, and marks the annotations of this editor as
+     * stale.
      *
-     * @param diagnostics The diagnostics to apply from the server
+     * @param rendersDifferently Whether the new diagnostics differ from the replaced ones in range, severity, message
+     *                           or tags
+     * @param restart            Whether to also restart the daemon for the document if its highlights change; only
+     *                           one editor of a document needs to
+     * @return True if the editor is still alive, and so took care of the restart if asked to
      */
-    public void diagnostics(List<Diagnostic> diagnostics) {
-
-        // If both of the old diagnostics and the received diagnostics are empty, we can simply return without
-        // re-triggering the annotator.
-        if (editor.isDisposed() || (this.diagnostics.isEmpty() && diagnostics.isEmpty())) {
-            return;
+    boolean diagnosticsChanged(boolean rendersDifferently, boolean restart) {
+        if (editor.isDisposed()) {
+            return false;
         }
-
-        synchronized (this.diagnostics) {
-            this.diagnostics.clear();
-            this.diagnostics.addAll(diagnostics);
+        DiagnosticMarkers previous = diagnosticMarkers.get();
+        int[] before = previous != null ? computableReadAction(previous::offsets) : null;
+        // Anchors the new ranges before the user gets a chance to edit the text they refer to.
+        DiagnosticMarkers anchored = anchorDiagnostics(DiagnosticStore.getInstance(project).get(identifier.getUri()));
+        synchronized (this) {
             diagnosticSyncRequired = true;
+        }
+        // Once the document was edited, the same ranges as before may stand for other text than the moved markers.
+        boolean highlightsChange = rendersDifferently || before == null || anchored == null
+                || !DiagnosticMarkers.sameSpots(before, computableReadAction(anchored::offsets));
+        if (restart && highlightsChange) {
             // Triggers force full DaemonCodeAnalyzer execution.
             updateErrorAnnotations();
         }
+        return true;
+    }
+
+    /**
+     * Pulls the diagnostics of the document from the server, sending the result id of the previous pull so that the
+     * server can answer that nothing changed. Meant to be called from a daemon pass, which annotates the document
+     * right after, so the daemon is not restarted when the diagnostics changed.
+     *
+     * @param checkCanceled Called while waiting for the answer; when it throws, the request is cancelled
+     * @return False if the server does not support pull diagnostics
+     */
+    public boolean pullDiagnostics(@NotNull Runnable checkCanceled) {
+        // Checked first, as asking for the capabilities of a server which is still starting waits for it.
+        if (wrapper.getStatus() != ServerStatus.INITIALIZED) {
+            return false;
+        }
+        ServerCapabilities capabilities = wrapper.getServerCapabilities();
+        if (capabilities == null || capabilities.getDiagnosticProvider() == null) {
+            return false;
+        }
+        String uri = identifier.getUri();
+        DiagnosticStore store = DiagnosticStore.getInstance(project);
+        DocumentDiagnosticParams params = new DocumentDiagnosticParams(identifier);
+        params.setPreviousResultId(store.getResultId(uri));
+
+        // Sent behind the pending didChange notifications, so that the server answers for the text the daemon is
+        // highlighting.
+        CompletableFuture<DocumentDiagnosticReport> request = sendAfterChanges(manager -> manager.diagnostic(params));
+        DocumentDiagnosticReport report = wrapper.getRequestExecutor().waitFor(request, DIAGNOSTIC, checkCanceled);
+        if (report == null) {
+            return true;
+        }
+        if (report.isLeft()) {
+            store.setResultId(uri, report.getLeft().getResultId());
+            boolean changed = EditorEventManagerBase.storeDiagnostics(project, wrapper.getServerDefinition(), uri,
+                    report.getLeft().getItems());
+            EditorEventManagerBase.diagnosticsChanged(project, uri, changed, false);
+        } else {
+            store.setResultId(uri, report.getRight().getResultId());
+        }
+        return true;
+    }
+
+    /**
+     * Sends a request from the dispatcher, behind the didChange notifications queued there, without waiting for it
+     * there; to a hibernated server once it is back. Cancelling the returned future before the request is sent skips
+     * it, and cancels it on the server after.
+     */
+    private <T> CompletableFuture<T> sendAfterChanges(Function<RequestManager, CompletableFuture<T>> send) {
+        CompletableFuture<T> request = new CompletableFuture<>();
+        wrapper.poolWhenStarted(() -> {
+            RequestManager requestManager = wrapper.getRequestManager();
+            if (request.isDone() || requestManager == null) {
+                // Already cancelled, or there is no server to ask.
+                request.complete(null);
+                return;
+            }
+            CompletableFuture<T> sent = send.apply(requestManager);
+            if (sent == null) {
+                request.complete(null);
+                return;
+            }
+            request.whenComplete((result, error) -> sent.cancel(true));
+            sent.whenComplete((result, error) -> {
+                if (error != null) {
+                    request.completeExceptionally(error);
+                } else {
+                    request.complete(result);
+                }
+            });
+        });
+        return request;
     }
 
     /**
@@ -559,33 +732,84 @@ public class EditorEventManager {
      */
     @SuppressWarnings("WeakerAccess")
     public List<Either<Command, CodeAction>> codeAction(int offset) {
+        return codeAction(offset, false);
+    }
+
+    /**
+     * Retrieves the code actions at an offset. The result is cached for the document version and the diagnostics it
+     * was requested with, so asking again before either changes does not reach the server.
+     *
+     * @param offset           The cursor position(offset) which should be evaluated for code action request.
+     * @param onDiagnosticOnly Whether to skip the request if there is no diagnostic at the offset
+     * @return The list of commands, or null if none are given / the request times out / was skipped
+     */
+    @Nullable
+    public List<Either<Command, CodeAction>> codeAction(int offset, boolean onDiagnosticOnly) {
+        return codeAction(offset, onDiagnosticOnly, null);
+    }
+
+    /**
+     * @param checkCanceled If given, the request is sent without holding up the dispatcher, and is cancelled when
+     *                      this throws
+     */
+    @Nullable
+    private List<Either<Command, CodeAction>> codeAction(int offset, boolean onDiagnosticOnly,
+                                                         @Nullable Runnable checkCanceled) {
+        Position position = DocumentUtils.offsetToLSPPos(editor, offset);
+        if (position == null) {
+            return null;
+        }
+        Range range = new Range(position, position);
+
+        List<Diagnostic> diagnostics = DiagnosticStore.getInstance(project).get(identifier.getUri());
+        List<Diagnostic> diagnosticContext = diagnosticsAt(offset, diagnostics);
+        if (onDiagnosticOnly && diagnosticContext.isEmpty()) {
+            return null;
+        }
+
+        int version = documentEventManager.getDocumentVersion();
+        List<Either<Command, CodeAction>> cached = codeActions.get(version, diagnostics, range);
+        if (cached != null) {
+            return cached;
+        }
         CodeActionParams params = new CodeActionParams();
         params.setTextDocument(identifier);
-        Range range = new Range(DocumentUtils.offsetToLSPPos(editor, offset),
-                DocumentUtils.offsetToLSPPos(editor, offset));
         params.setRange(range);
-
-        // Calculates the diagnostic context.
-        List<Diagnostic> diagnosticContext = new ArrayList<>();
-        synchronized (this.diagnostics) {
-            diagnostics.forEach(diagnostic -> {
-                int startOffset = DocumentUtils.lspPosToOffset(editor, diagnostic.getRange().getStart());
-                int endOffset = DocumentUtils.lspPosToOffset(editor, diagnostic.getRange().getEnd());
-                if (offset >= startOffset && offset <= endOffset) {
-                    diagnosticContext.add(diagnostic);
-                }
-            });
+        params.setContext(new CodeActionContext(diagnosticContext));
+        List<Either<Command, CodeAction>> result = checkCanceled == null
+                ? wrapper.getRequestExecutor().waitFor(manager -> manager.codeAction(params), CODEACTION)
+                : wrapper.getRequestExecutor().waitFor(sendAfterChanges(manager -> manager.codeAction(params)),
+                        CODEACTION, checkCanceled);
+        if (result != null) {
+            codeActions.put(version, diagnostics, range, result);
         }
+        return result;
+    }
 
-        CodeActionContext context = new CodeActionContext(diagnosticContext);
-        params.setContext(context);
-        CompletableFuture<List<Either<Command, CodeAction>>> future = wrapper.getRequestManager().codeAction(params);
-        return wrapper.getRequestExecutor().waitFor(future, CODEACTION);
+    /**
+     * @return The diagnostics among the given ones whose range contains the offset
+     */
+    private List<Diagnostic> diagnosticsAt(int offset, List<Diagnostic> diagnostics) {
+        List<Diagnostic> at = new ArrayList<>();
+        int[] offsets = getDiagnosticOffsets(diagnostics);
+        for (int i = 0; offsets != null && i < diagnostics.size(); i++) {
+            if (offset >= offsets[2 * i] && offset <= offsets[2 * i + 1]) {
+                at.add(diagnostics.get(i));
+            }
+        }
+        return at;
     }
 
+    /**
+     * Asks the server to fill in the edit of a code action. Meant to be called once the user picked the action, from
+     * a thread with a progress indicator, which can cancel the request.
+     *
+     * @return The resolved code action, or null if the server does not resolve code actions / the request times out
+     */
+    @Nullable
     public CodeAction resolvedCodeAction(CodeAction codeAction) {
-        CompletableFuture<CodeAction> future = wrapper.getRequestManager().resolveCodeAction(codeAction);
-        return wrapper.getRequestExecutor().waitFor(future, CODEACTION);
+        return wrapper.getRequestExecutor().waitFor(wrapper.getRequestManager().resolveCodeAction(codeAction),
+                CODEACTION, ProgressManager::checkCanceled);
     }
 
     /**
@@ -599,9 +823,9 @@ public class EditorEventManager {
         LogicalPosition lPos = editor.getCaretModel().getCurrentCaret().getLogicalPosition();
         Point point = editor.logicalPositionToXY(lPos);
         SignatureHelpParams params = new SignatureHelpParams(identifier, DocumentUtils.logicalToLSPPos(lPos, editor));
-        wrapper.pool(() -> {
-            CompletableFuture<SignatureHelp> future = wrapper.getRequestManager().signatureHelp(params);
-            SignatureHelp signatureResp = wrapper.getRequestExecutor().waitFor(future, SIGNATURE);
+        wrapper.poolWhenStarted(() -> {
+            SignatureHelp signatureResp =
+                    wrapper.getRequestExecutor().waitFor(manager -> manager.signatureHelp(params), SIGNATURE);
             if (signatureResp == null) {
                 return;
             }
@@ -681,7 +905,7 @@ public class EditorEventManager {
      * Reformat the whole document.
      */
     public void reformat() {
-        wrapper.pool(() -> {
+        wrapper.poolWhenStarted(() -> {
             if (editor.isDisposed()) {
                 return;
             }
@@ -708,7 +932,7 @@ public class EditorEventManager {
      * Reformat the text currently selected in the editor.
      */
     public void reformatSelection() {
-        wrapper.pool(() -> {
+        wrapper.poolWhenStarted(() -> {
             if (editor.isDisposed()) {
                 return;
             }
@@ -753,7 +977,7 @@ public class EditorEventManager {
      * @param renameTo The new name
      */
     public void rename(String renameTo, int offset) {
-        wrapper.pool(() -> {
+        wrapper.poolWhenStarted(() -> {
             if (editor.isDisposed()) {
                 return;
             }
@@ -795,7 +1019,7 @@ public class EditorEventManager {
             LogicalPosition caretPos = editor.getCaretModel().getLogicalPosition();
             Point pointPos = editor.logicalPositionToXY(caretPos);
             long currentTime = System.nanoTime();
-            wrapper.pool(() -> requestAndShowDoc(caretPos, pointPos));
+            wrapper.poolWhenStarted(() -> requestAndShowDoc(caretPos, pointPos));
             predTime = currentTime;
         } else {
             LOG.warn("Not same editor!");
@@ -810,11 +1034,8 @@ public class EditorEventManager {
      */
     private void requestAndShowDoc(LogicalPosition editorPos, Point point) {
         Position serverPos = computableReadAction(() -> DocumentUtils.logicalToLSPPos(editorPos, editor));
-        CompletableFuture<Hover> request = wrapper.getRequestManager().hover(new HoverParams(identifier, serverPos));
-        if (request == null) {
-            return;
-        }
-        Hover hover = wrapper.getRequestExecutor().waitFor(request, HOVER);
+        HoverParams params = new HoverParams(identifier, serverPos);
+        Hover hover = wrapper.getRequestExecutor().waitFor(manager -> manager.hover(params), HOVER);
         if (hover == null) {
             LOG.debug(String.format("Hover is null for file %s and pos (%d;%d)", identifier.getUri(),
                     serverPos.getLine(), serverPos.getCharacter()));
@@ -852,31 +1073,69 @@ public class EditorEventManager {
     public Iterable<? extends LookupElement> completion(Position pos) {
 
         List<LookupElement> lookupItems = new ArrayList<>();
-        CompletableFuture<Either<List<CompletionItem>, CompletionList>> request = wrapper.getRequestManager()
-                .completion(new CompletionParams(identifier, pos));
-        Either<List<CompletionItem>, CompletionList> res =
-                wrapper.getRequestExecutor().waitFor(request, COMPLETION);
-        if (res == null) {
-            return lookupItems;
-        }
-        if (res.getLeft() != null) {
-            for (CompletionItem item : res.getLeft()) {
-                LookupElement lookupElement = createLookupItem(item);
-                if (lookupElement != null) {
-                    lookupItems.add(lookupElement);
-                }
+        // A complete list returned earlier for the same word is filtered here instead of asking the server again.
+        CompletionSession.Word word = computableReadAction(() -> completionWord(pos));
+        List<CompletionItem> items = word != null ? completionSession.reuse(word) : null;
+        if (items == null) {
+            // A new list; the items resolved for the previous one are of no use any more.
+            completionResolver.clear();
+            CompletionParams params = new CompletionParams(identifier, pos);
+            Either<List<CompletionItem>, CompletionList> res =
+                    wrapper.getRequestExecutor().waitFor(manager -> manager.completion(params), COMPLETION);
+            if (res == null) {
+                return lookupItems;
             }
-        } else if (res.getRight() != null) {
-            for (CompletionItem item : res.getRight().getItems()) {
-                LookupElement lookupElement = createLookupItem(item);
-                if (lookupElement != null) {
-                    lookupItems.add(lookupElement);
-                }
+            boolean complete = true;
+            if (res.getLeft() != null) {
+                items = res.getLeft();
+            } else if (res.getRight() != null) {
+                items = res.getRight().getItems();
+                complete = !res.getRight().isIncomplete();
+            }
+            if (items == null) {
+                items = Collections.emptyList();
+            }
+            if (word != null) {
+                completionSession.start(word, items, complete);
+            }
+        }
+        for (CompletionItem item : items) {
+            LookupElement lookupElement = createLookupItem(item);
+            if (lookupElement != null) {
+                lookupItems.add(lookupElement);
             }
         }
         return lookupItems;
     }
 
+    /**
+     * Fills in the documentation and additional edits the server left out of a completion item. Meant for the item
+     * focused in the lookup, from a thread with a progress indicator; the resolves of the items focused before are
+     * cancelled, and the resolved items are kept until the next completion list arrives.
+     *
+     * @return The resolved item, or null if the request times out
+     */
+    @Nullable
+    public CompletionItem resolveCompletionItem(@NotNull CompletionItem item) {
+        // Waits on a copy, so that closing the documentation popup does not cancel a resolve the insertion may need.
+        CompletableFuture<CompletionItem> resolved = completionResolver.resolve(item).thenApply(Function.identity());
+        return wrapper.getRequestExecutor().waitFor(resolved, COMPLETION, ProgressManager::checkCanceled);
+    }
+
+    @Nullable
+    private CompletionSession.Word completionWord(Position pos) {
+        if (editor.isDisposed()) {
+            return null;
+        }
+        Document document = editor.getDocument();
+        int offset = DocumentUtils.lspPosToOffset(editor, pos);
+        String prefix = getCompletionPrefix(editor, offset);
+        int start = offset - prefix.length();
+        int lineStart = document.getLineStartOffset(document.getLineNumber(start));
+        String textBefore = document.getText(new TextRange(lineStart, start));
+        return new CompletionSession.Word(pos.getLine(), pos.getCharacter(), start, textBefore, prefix);
+    }
+
     /**
      * Creates a LookupElement given a CompletionItem.
      *
@@ -916,13 +1175,18 @@ public class EditorEventManager {
         // Fixes IDEA internal assertion failure in windows.
         lookupString = lookupString.replace(DocumentUtils.WIN_SEPARATOR, DocumentUtils.LINUX_SEPARATOR);
 
-        lookupElementBuilder = LookupElementBuilder.create(getLookupStringWithoutPlaceholders(item, lookupString));
+        lookupElementBuilder = LookupElementBuilder.create(item,
+                getLookupStringWithoutPlaceholders(item, lookupString));
 
         lookupElementBuilder = addCompletionInsertHandlers(item, lookupElementBuilder, lookupString);
 
         if (kind == CompletionItemKind.Keyword) {
             lookupElementBuilder = lookupElementBuilder.withBoldness(true);
         }
+        if (StringUtils.isNotEmpty(item.getFilterText())) {
+            // Lets the lookup match what the server wants the item to be filtered by.
+            lookupElementBuilder = lookupElementBuilder.withLookupString(item.getFilterText());
+        }
 
         return lookupElementBuilder.withPresentableText(presentableText).withTypeText(tailText, true).withIcon(icon)
                 .withAutoCompletionPolicy(AutoCompletionPolicy.SETTINGS_DEPENDENT);
@@ -972,6 +1236,7 @@ public class EditorEventManager {
                 }
                 context.commitDocument();
                 executeCommands(Collections.singletonList(command));
+                applyResolvedTextEdits(item, label);
             });
         } else {
             builder = builder.withInsertHandler((InsertionContext context, LookupElement lookupElement) -> {
@@ -981,12 +1246,30 @@ public class EditorEventManager {
                     context.commitDocument();
                     prepareAndRunSnippet(lookupString);
                 }
+                applyResolvedTextEdits(item, label);
             });
         }
         return builder;
     }
 
+    /**
+     * Applies the additional edits of an inserted item which the server left to be resolved, such as imports, once
+     * the item is resolved.
+     */
+    private void applyResolvedTextEdits(CompletionItem item, String label) {
+        completionResolver.resolveInserted(item).whenComplete((resolved, error) -> {
+            if (resolved == null || resolved == item || resolved.getAdditionalTextEdits() == null
+                    || resolved.getAdditionalTextEdits().isEmpty()) {
+                return;
+            }
+            invokeLater(() -> applyEdit(Integer.MAX_VALUE, toEither(resolved.getAdditionalTextEdits()),
+                    "Completion : " + label, false, false));
+        });
+    }
+
     private void applyInitialTextEdit(CompletionItem item, InsertionContext context, String lookupString) {
+        // The item is about to be changed and the word is complete; the next completion asks the server.
+        completionSession.clear();
         if (item.getTextEdit() != null) {
             // remove intellij edit, server is controlling insertion
             writeAction(() -> {
@@ -1246,7 +1529,7 @@ public class EditorEventManager {
      * @param commands The commands to execute
      */
     public void executeCommands(List<Command> commands) {
-        wrapper.pool(() -> {
+        wrapper.poolWhenStarted(() -> {
             if (editor.isDisposed()) {
                 return;
             }
@@ -1296,6 +1579,12 @@ public class EditorEventManager {
 
                 documentEventManager.documentClosed();
                 EditorEventManagerBase.unregisterManager(this);
+                DiagnosticMarkers markers = diagnosticMarkers.getAndSet(null);
+                if (markers != null) {
+                    markers.dispose();
+                }
+                codeActions.clear();
+                completionSession.clear();
             } else {
                 LOG.warn("Editor " + identifier.getUri() + " was already closed");
             }
@@ -1366,7 +1655,7 @@ public class EditorEventManager {
      */
     private void willSaveWaitUntil() {
         if (wrapper.isWillSaveWaitUntil()) {
-            wrapper.pool(() -> {
+            wrapper.poolWhenStarted(() -> {
                 if (editor.isDisposed()) {
                     return;
                 }
@@ -1399,7 +1688,7 @@ public class EditorEventManager {
 
         Position position = DocumentUtils.logicalToLSPPos(
                 editor.xyToLogicalPosition(e.getMouseEvent().getPoint()), editor);
-        wrapper.pool(() -> {
+        wrapper.poolWhenStarted(() -> {
             // Resolves the definition off the EDT; range markup and navigation run on the EDT afterwards.
             Location definitionLocation = requestDefinition(position);
             invokeLater(() -> {
@@ -1471,36 +1760,71 @@ public class EditorEventManager {
     }
 
     public void requestAndShowCodeActions() {
-        wrapper.pool(() -> {
+        wrapper.poolWhenStarted(() -> {
             if (editor.isDisposed()) {
                 return;
             }
 
-            // Sends the code action request and resolves incomplete code actions while off the EDT;
-            // only the annotation bookkeeping runs on the EDT.
+            // Sends the code action request while off the EDT; only the annotation bookkeeping runs on the EDT.
+            // Actions elsewhere are left to the intention popup, and incomplete ones are resolved once picked.
             int caretPos = computableReadAction(() -> editor.getCaretModel().getCurrentCaret().getOffset());
-            List<Either<Command, CodeAction>> codeActionResp = codeAction(caretPos);
+            List<Either<Command, CodeAction>> codeActionResp = codeAction(caretPos, true);
             if (codeActionResp == null || codeActionResp.isEmpty()) {
                 return;
             }
-            List<Either<Command, CodeAction>> codeActions = new ArrayList<>();
-            for (Either<Command, CodeAction> element : codeActionResp) {
-                if (element == null) {
-                    continue;
+            List<Either<Command, CodeAction>> codeActions = new ArrayList<>(codeActionResp);
+            codeActions.removeIf(Objects::isNull);
+            invokeLater(() -> showCodeActions(caretPos, codeActions));
+        });
+    }
+
+    /**
+     * Requests the code actions at the caret ahead of time, so that the intention popup finds them in the cache.
+     * Only on a diagnostic are they shown as its quick fixes, so that the lightbulb shows up without waiting for
+     * another daemon pass. Runs on a pooled thread rather than the dispatcher, and supersedes the prefetch of an
+     * earlier caret position, which is cancelled.
+     */
+    public void prefetchCodeActions() {
+        int prefetch = codeActionPrefetches.incrementAndGet();
+        if (editor.isDisposed() || wrapper.getStatus() != ServerStatus.INITIALIZED) {
+            return;
+        }
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            Runnable checkCanceled = () -> {
+                if (codeActionPrefetches.get() != prefetch || editor.isDisposed()) {
+                    throw new ProcessCanceledException();
                 }
-                if (element.isRight() && element.getRight().getEdit() == null) {
-                    CodeAction resolved = resolvedCodeAction(element.getRight());
-                    if (resolved != null && resolved.getEdit() != null) {
-                        codeActions.add(Either.forRight(resolved));
-                        continue;
-                    }
+            };
+            try {
+                checkCanceled.run();
+                int caretPos = computableReadAction(() -> editor.getCaretModel().getCurrentCaret().getOffset());
+                List<Either<Command, CodeAction>> result = codeAction(caretPos, false, checkCanceled);
+                if (result == null || result.isEmpty()
+                        || diagnosticsAt(caretPos, DiagnosticStore.getInstance(project).get(identifier.getUri()))
+                        .isEmpty()) {
+                    // Cached for the intention popup; elsewhere than on a diagnostic there is nothing to attach to.
+                    return;
                 }
-                codeActions.add(element);
+                List<Either<Command, CodeAction>> codeActions = new ArrayList<>(result);
+                codeActions.removeIf(Objects::isNull);
+                invokeLater(() -> {
+                    if (codeActionPrefetches.get() == prefetch) {
+                        showCodeActions(caretPos, codeActions);
+                    }
+                });
+            } catch (ProcessCanceledException e) {
+                // The caret moved on; the request was cancelled on the server as well.
             }
-            invokeLater(() -> showCodeActions(caretPos, codeActions));
         });
     }
 
+    /**
+     * Cancels the code action prefetch still running for an earlier caret position, if any.
+     */
+    public void cancelCodeActionPrefetch() {
+        codeActionPrefetches.incrementAndGet();
+    }
+
     private void showCodeActions(int caretPos, List<Either<Command, CodeAction>> codeActions) {
         if (editor.isDisposed()) {
             return;
@@ -1592,19 +1916,15 @@ public class EditorEventManager {
     }
 
     /**
-     * Triggers force full DaemonCodeAnalyzer execution.
+     * Triggers force full DaemonCodeAnalyzer execution, merged with the other restarts requested for the file
+     * within a short window.
      */
     private void updateErrorAnnotations() {
-        computableReadAction(() -> {
-            final PsiFile file = PsiDocumentManager.getInstance(project)
-                    .getCachedPsiFile(editor.getDocument());
-            if (file == null) {
-                return null;
-            }
-            LOG.debug("Triggering force full DaemonCodeAnalyzer execution.");
-            DaemonCodeAnalyzer.getInstance(project).restart(file);
-            return null;
-        });
+        VirtualFile file = FileDocumentManager.getInstance().getFile(editor.getDocument());
+        if (file == null || project.isDisposed()) {
+            return;
+        }
+        DaemonRestartCoalescer.getInstance(project).request(file);
     }
 
     public List<Tuple3<HighlightSeverity, TextRange, LSPCodeActionFix>> getSilentAnnotations() {
@@ -1669,4 +1989,56 @@ public class EditorEventManager {
             return " ";
         }
     }
+
+    /**
+     * The range markers of a list of diagnostics, one per diagnostic; null for a diagnostic with an invalid range.
+     */
+    private static final class DiagnosticMarkers {
+        final List<Diagnostic> diagnostics;
+        final RangeMarker[] markers;
+
+        DiagnosticMarkers(List<Diagnostic> diagnostics, RangeMarker[] markers) {
+            this.diagnostics = diagnostics;
+            this.markers = markers;
+        }
+
+        int[] offsets() {
+            int[] offsets = new int[markers.length * 2];
+            for (int i = 0; i < markers.length; i++) {
+                RangeMarker marker = markers[i];
+                if (marker != null && marker.isValid()) {
+                    offsets[2 * i] = marker.getStartOffset();
+                    offsets[2 * i + 1] = marker.getEndOffset();
+                } else {
+                    offsets[2 * i + 1] = -1;
+                }
+            }
+            return offsets;
+        }
+
+        /**
+         * @return Whether the two offset arrays, as returned by {@link #offsets()}, highlight the same spots in any
+         * order
+         */
+        static boolean sameSpots(int[] first, int[] second) {
+            return first.length == second.length && Arrays.equals(spots(first), spots(second));
+        }
+
+        private static long[] spots(int[] offsets) {
+            long[] spots = new long[offsets.length / 2];
+            for (int i = 0; i < spots.length; i++) {
+                spots[i] = ((long) offsets[2 * i] << 32) | (offsets[2 * i + 1] & 0xFFFFFFFFL);
+            }
+            Arrays.sort(spots);
+            return spots;
+        }
+
+        void dispose() {
+            for (RangeMarker marker : markers) {
+                if (marker != null) {
+                    marker.dispose();
+                }
+            }
+        }
+    }
 }
@@ -16,7 +16,13 @@
 package org.wso2.lsp4intellij.editor;
 
 import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.project.Project;
 import org.eclipse.lsp4j.Diagnostic;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.wso2.lsp4intellij.client.languageserver.serverdefinition.LanguageServerDefinition;
+import org.wso2.lsp4intellij.services.DiagnosticStore;
+import org.wso2.lsp4intellij.services.WorkspaceDiagnosticIndex;
 import org.wso2.lsp4intellij.utils.FileUtils;
 import org.wso2.lsp4intellij.utils.OSUtils;
 
@@ -125,6 +131,13 @@ public class EditorEventManagerBase {
         }
 
         editorToManager.put(manager.editor, manager);
+
+        Project project = manager.getProject();
+        if (project != null && !project.isDisposed()) {
+            // Shows the problems known for the file until the server publishes them again.
+            DiagnosticStore.getInstance(project)
+                    .seed(uri, WorkspaceDiagnosticIndex.getInstance(project).getDiagnostics(uri));
+        }
     }
 
     public static void unregisterManager(EditorEventManager manager) {
@@ -140,6 +153,13 @@ public class EditorEventManagerBase {
                 }
             }
         }
+
+        Project project = manager.getProject();
+        if (project != null && !project.isDisposed()
+                && getEditorEventManagerCopy(uri).stream().noneMatch(other -> other.getProject() == project)) {
+            // The full diagnostics are only kept for open files; the index still has them in compact form.
+            DiagnosticStore.getInstance(project).forget(uri);
+        }
     }
 
     /**
@@ -159,10 +179,67 @@ public class EditorEventManagerBase {
         editorToManager.forEach((key, value) -> value.willSave());
     }
 
+    /**
+     * Stores the diagnostics published for a document by a server which is not known, see
+     * {@link #diagnostics(Project, LanguageServerDefinition, String, List)}.
+     */
+    public static void diagnostics(@NotNull Project project, String uri, List<Diagnostic> diagnostics) {
+        diagnostics(project, null, uri, diagnostics);
+    }
+
+    /**
+     * Stores the diagnostics published for a document, see
+     * {@link #storeDiagnostics(Project, LanguageServerDefinition, String, List)}. The editors of the document always
+     * anchor the new diagnostics, but are re-highlighted, once per document rather than once per editor, only if
+     * that changes what they show.
+     */
+    public static void diagnostics(@NotNull Project project, @Nullable LanguageServerDefinition definition,
+                                   String uri, List<Diagnostic> diagnostics) {
+        diagnosticsChanged(project, uri, storeDiagnostics(project, definition, uri, diagnostics), true);
+    }
+
+    /**
+     * Stores the diagnostics of a document in the project's {@link WorkspaceDiagnosticIndex}, under the server which
+     * published them, and also in its {@link DiagnosticStore} if the document is open in an editor of the project.
+     *
+     * @return True if the document is open and now renders differently
+     */
+    static boolean storeDiagnostics(@NotNull Project project, @Nullable LanguageServerDefinition definition,
+                                    String uri, List<Diagnostic> diagnostics) {
+        WorkspaceDiagnosticIndex.getInstance(project).put(definition, uri, diagnostics);
+        boolean open = getEditorEventManagerCopy(uri).stream().anyMatch(manager -> manager.getProject() == project);
+        return open && DiagnosticStore.getInstance(project).publish(uri, diagnostics);
+    }
+
+    /**
+     * Anchors the diagnostics of a document in its editors after they were replaced, and marks the annotations of
+     * those editors as stale.
+     *
+     * @param rendersDifferently Whether the new diagnostics differ from the replaced ones in a way they would show
+     * @param restart            Whether to restart the daemon for the document if its highlights change; not
+     *                           needed from within a daemon pass
+     */
+    static void diagnosticsChanged(@NotNull Project project, String uri, boolean rendersDifferently,
+                                   boolean restart) {
+        boolean restarted = !restart;
+        for (EditorEventManager manager : getEditorEventManagerCopy(uri)) {
+            if (manager.getProject() == project) {
+                restarted |= manager.diagnosticsChanged(rendersDifferently, !restarted);
+            }
+        }
+    }
+
+    /**
+     * Stores the diagnostics for every project that has the document open.
+     *
+     * @see #diagnostics(Project, String, List)
+     */
     public static void diagnostics(String uri, List<Diagnostic> diagnostics) {
-        getEditorEventManagerCopy(uri).forEach(manager -> {
-            manager.diagnostics(diagnostics);
-        });
+        getEditorEventManagerCopy(uri).stream()
+                .map(EditorEventManager::getProject)
+                .distinct()
+                .filter(project -> !project.isDisposed())
+                .forEach(project -> diagnostics(project, uri, diagnostics));
     }
 
     private static Set<EditorEventManager> getEditorEventManagerCopy(String uri)  {
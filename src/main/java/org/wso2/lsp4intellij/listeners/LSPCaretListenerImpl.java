@@ -42,6 +42,10 @@ public class LSPCaretListenerImpl extends LSPListener implements CaretListener {
     @Override
     public void caretPositionChanged(@NotNull CaretEvent e) {
         try {
+            if (manager != null) {
+                // Whatever was being prepared for the previous position is of no use any more.
+                manager.cancelCodeActionPrefetch();
+            }
             if (scheduledFuture != null && !scheduledFuture.isCancelled()) {
                 scheduledFuture.cancel(false);
             }
@@ -55,7 +59,8 @@ public class LSPCaretListenerImpl extends LSPListener implements CaretListener {
 
     private void debouncedCaretPositionChanged() {
         if (checkEnabled()) {
-            manager.requestAndShowCodeActions();
+            // The caret settled; prepares the code actions for the intention popup and the lightbulb.
+            manager.prefetchCodeActions();
         }
     }
 }
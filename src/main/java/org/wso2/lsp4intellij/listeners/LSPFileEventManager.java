@@ -210,8 +210,9 @@ class LSPFileEventManager {
             DidChangeWatchedFilesParams params = getDidChangeWatchedFilesParams(uri, typ);
             Set<LanguageServerWrapper> wrappers = IntellijLanguageClient.getAllServerWrappersFor(projectUri);
             for (LanguageServerWrapper wrapper : wrappers) {
-                if (wrapper.getRequestManager() != null
-                        && wrapper.getStatus() == ServerStatus.INITIALIZED) {
+                // Status first: asking a hibernating wrapper for its request manager would wake the server.
+                if (wrapper.getStatus() == ServerStatus.INITIALIZED
+                        && wrapper.getRequestManager() != null) {
                     wrapper.getRequestManager().didChangeWatchedFiles(params);
                 }
             }
@@ -16,6 +16,7 @@
 package org.wso2.lsp4intellij.requests;
 
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.util.ui.UIUtil;
 import com.vladsch.flexmark.html.HtmlRenderer;
 import com.vladsch.flexmark.parser.Parser;
@@ -23,8 +24,10 @@ import com.vladsch.flexmark.util.data.MutableDataSet;
 import org.eclipse.lsp4j.Hover;
 import org.eclipse.lsp4j.MarkedString;
 import org.eclipse.lsp4j.MarkupContent;
+import org.eclipse.lsp4j.MarkupKind;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.lsp4j.jsonrpc.validation.NonNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.awt.Font;
 import java.util.ArrayList;
@@ -88,4 +91,28 @@ public class HoverHandler {
             return "";
         }
     }
+
+    /**
+     * Returns the HTML string for the documentation of a completion item.
+     *
+     * @param documentation The documentation, plain text or markup
+     * @return The HTML string, or an empty string if there is no documentation
+     */
+    public static String getDocumentationString(@Nullable Either<String, MarkupContent> documentation) {
+        if (documentation == null) {
+            return "";
+        }
+        String text = documentation.isLeft() ? documentation.getLeft() : documentation.getRight().getValue();
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String html;
+        if (documentation.isRight() && MarkupKind.MARKDOWN.equals(documentation.getRight().getKind())) {
+            MutableDataSet options = new MutableDataSet();
+            html = HtmlRenderer.builder(options).build().render(Parser.builder(options).build().parse(text));
+        } else {
+            html = "<pre>" + StringUtil.escapeXmlEntities(text) + "</pre>";
+        }
+        return "<html>" + UIUtil.getCssFontDeclaration(UIUtil.getLabelFont()) + html + "</html>";
+    }
 }
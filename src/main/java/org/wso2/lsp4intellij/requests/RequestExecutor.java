@@ -17,26 +17,38 @@ package org.wso2.lsp4intellij.requests;
 
 import com.intellij.openapi.diagnostic.Logger;
 import org.eclipse.lsp4j.jsonrpc.JsonRpcException;
+import org.eclipse.lsp4j.jsonrpc.ResponseErrorException;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.wso2.lsp4intellij.client.languageserver.requestmanager.RequestManager;
 import org.wso2.lsp4intellij.client.languageserver.wrapper.LanguageServerWrapper;
 
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 import static org.wso2.lsp4intellij.requests.Timeout.getTimeout;
 
 /**
  * Executes blocking waits on language server request futures with a uniform policy: the timeout configured
  * for the request type is enforced, the server status widget is notified of the result, and protocol errors
- * are routed to the wrapper's crash handler.
+ * are routed to the wrapper's crash handler. Requests sent through {@link #waitFor(Function, Timeouts)} wait for a
+ * hibernated server to start again, and are sent again when the server is restarted after a crash while the caller
+ * is still waiting.
  */
 public class RequestExecutor {
 
     private static final Logger LOG = Logger.getInstance(RequestExecutor.class);
+    private static final long CANCEL_CHECK_INTERVAL_MS = 20;
 
     private final LanguageServerWrapper wrapper;
+    private final Set<PendingRequest<?>> inFlight = ConcurrentHashMap.newKeySet();
 
     public RequestExecutor(LanguageServerWrapper wrapper) {
         this.wrapper = wrapper;
@@ -46,15 +58,119 @@ public class RequestExecutor {
      * Waits for the given request future using the timeout configured for the given timeout type.
      * Must not be called on the event dispatch thread.
      *
-     * @return the request result, or null if the future is null, the request timed out, or the request failed
+     * @return the request result, or null if the future is null, the request timed out, was cancelled, or failed
      */
     @Nullable
     public <T> T waitFor(@Nullable CompletableFuture<T> future, Timeouts timeoutType) {
         if (future == null) {
             return null;
         }
+        return await(future, timeoutType, false, null);
+    }
+
+    /**
+     * Waits for the given request future like {@link #waitFor(CompletableFuture, Timeouts)}, running the given check
+     * every few milliseconds meanwhile. If the check throws, typically a {@code ProcessCanceledException} because the
+     * document was edited, the exception is rethrown. Either way, a request which was not answered in time is
+     * cancelled, which also cancels it on the server.
+     *
+     * @return the request result, or null if the future is null, the request timed out, was cancelled, or failed
+     */
+    @Nullable
+    public <T> T waitFor(@Nullable CompletableFuture<T> future, Timeouts timeoutType, @NotNull Runnable checkCanceled) {
+        if (future == null) {
+            return null;
+        }
+        try {
+            return await(future, timeoutType, false, checkCanceled);
+        } finally {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Sends the request built by the given function and waits for its result, like
+     * {@link #waitFor(CompletableFuture, Timeouts)}. A hibernated server is started first, and the request is sent
+     * once it is back. If the server crashes before answering, the request is sent again to the restarted server,
+     * and the wait is extended by the initialization timeout. A request which is not answered in time is cancelled,
+     * and is not sent again. Only for requests which are safe to repeat, such as hover or completion. Must not be
+     * called on the event dispatch thread or on the wrapper's dispatcher.
+     *
+     * @return the request result, or null if the server does not support the request, the request timed out, or
+     * the request failed
+     */
+    @Nullable
+    public <T> T waitFor(@NotNull Function<RequestManager, CompletableFuture<T>> request, Timeouts timeoutType) {
+        PendingRequest<T> pending = new PendingRequest<>(request);
+        inFlight.add(pending);
+        try {
+            // While a crash is being recovered from, the request waits for the restarted server.
+            if (!wrapper.isRecovering()) {
+                if (!started(wrapper.ensureStarted())) {
+                    return null;
+                }
+                // A resumed server may have been sent the request already, by reissue().
+                boolean sent = pending.sendOnce(wrapper.getRequestManager());
+                if (!sent && !wrapper.isRecovering()) {
+                    return null;
+                }
+            }
+            return await(pending.result, timeoutType, true, null);
+        } finally {
+            inFlight.remove(pending);
+            // Nobody waits for the answer anymore, e.g. after a timeout; this also cancels it on the server.
+            pending.cancel();
+        }
+    }
+
+    /**
+     * Forgets the requests sent to a server which went away, so that late answers and failures from its
+     * connection are ignored.
+     */
+    public void connectionLost() {
+        inFlight.forEach(PendingRequest::detach);
+    }
+
+    /**
+     * Sends the requests whose callers are still waiting to the restarted server.
+     */
+    public void reissue(@NotNull RequestManager requestManager) {
+        int count = 0;
+        for (PendingRequest<?> pending : inFlight) {
+            if (!pending.result.isDone() && !pending.isSent() && pending.sendOnce(requestManager)) {
+                count++;
+            }
+        }
+        if (count > 0) {
+            LOG.info("Sent " + count + " pending requests again to " + wrapper.getServerDefinition());
+        }
+    }
+
+    /**
+     * Waits for a hibernated server to be started again, for at most the initialization timeout.
+     */
+    private boolean started(CompletableFuture<Boolean> startup) {
+        if (startup.isDone()) {
+            return Boolean.TRUE.equals(startup.getNow(false));
+        }
         try {
-            T result = future.get(getTimeout(timeoutType), TimeUnit.MILLISECONDS);
+            return Boolean.TRUE.equals(startup.get(getTimeout(Timeouts.INIT), TimeUnit.MILLISECONDS));
+        } catch (TimeoutException | ExecutionException e) {
+            LOG.warn(e);
+            return false;
+        } catch (InterruptedException e) {
+            LOG.warn(e);
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future, Timeouts timeoutType, boolean replayable,
+                        @Nullable Runnable checkCanceled) {
+        try {
+            T result = checkCanceled != null
+                    ? get(future, timeoutType, checkCanceled)
+                    : get(future, timeoutType, replayable);
             wrapper.notifySuccess(timeoutType);
             return result;
         } catch (TimeoutException e) {
@@ -67,10 +183,122 @@ public class RequestExecutor {
             LOG.warn(e);
             Thread.currentThread().interrupt();
             return null;
-        } catch (JsonRpcException | ExecutionException e) {
+        } catch (CancellationException e) {
+            // Somebody else gave up on the request, e.g. the lookup moved on to another completion item.
+            LOG.debug(e);
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CancellationException) {
+                // The wait is on a future derived from a request which was cancelled; the server is fine.
+                LOG.debug(e);
+                return null;
+            }
+            if (e.getCause() instanceof ResponseErrorException) {
+                // The server is alive and answered with an error; restarting it would not help.
+                LOG.warn(e);
+                return null;
+            }
+            LOG.warn(e);
+            wrapper.crashed(e);
+            return null;
+        } catch (JsonRpcException e) {
             LOG.warn(e);
             wrapper.crashed(e);
             return null;
         }
     }
+
+    private <T> T get(CompletableFuture<T> future, Timeouts timeoutType, boolean replayable)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        try {
+            return future.get(getTimeout(timeoutType), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (!replayable || !wrapper.isRecovering()) {
+                throw e;
+            }
+            return future.get(getTimeout(Timeouts.INIT), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static <T> T get(CompletableFuture<T> future, Timeouts timeoutType, Runnable checkCanceled)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(getTimeout(timeoutType));
+        while (true) {
+            checkCanceled.run();
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new TimeoutException("No answer within " + getTimeout(timeoutType) + " ms");
+            }
+            try {
+                return future.get(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(CANCEL_CHECK_INTERVAL_MS)),
+                        TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // Not answered yet; check for cancellation again.
+            }
+        }
+    }
+
+    /**
+     * A request whose caller is waiting. The result follows the answer of the connection it was last sent on.
+     */
+    private static final class PendingRequest<T> {
+
+        private final Function<RequestManager, CompletableFuture<T>> request;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private volatile CompletableFuture<T> sent;
+        private boolean cancelled = false;
+
+        PendingRequest(Function<RequestManager, CompletableFuture<T>> request) {
+            this.request = request;
+        }
+
+        /**
+         * Sends the request unless it has been sent on the current connection already, or given up on.
+         *
+         * @return whether the request is now sent
+         */
+        synchronized boolean sendOnce(@Nullable RequestManager requestManager) {
+            return !cancelled && (isSent() || send(requestManager));
+        }
+
+        private boolean send(@Nullable RequestManager requestManager) {
+            CompletableFuture<T> future = requestManager != null ? request.apply(requestManager) : null;
+            sent = future;
+            if (future == null) {
+                return false;
+            }
+            future.whenComplete((value, error) -> {
+                if (sent != future) {
+                    // Answered by a connection which was given up on.
+                    return;
+                }
+                if (error instanceof CompletionException && error.getCause() != null) {
+                    result.completeExceptionally(error.getCause());
+                } else if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+            return true;
+        }
+
+        boolean isSent() {
+            return sent != null;
+        }
+
+        void detach() {
+            sent = null;
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            CompletableFuture<T> future = sent;
+            sent = null;
+            if (future != null) {
+                future.cancel(true);
+            }
+            result.cancel(false);
+        }
+    }
 }
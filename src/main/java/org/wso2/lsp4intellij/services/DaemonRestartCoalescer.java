@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.services;
+
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.fileEditor.FileEditorManagerEvent;
+import com.intellij.openapi.fileEditor.FileEditorManagerListener;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.util.ArrayUtil;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Merges the daemon restarts requested for a file within a short window into one.
+ * <p>
+ * Restarting the daemon for a file cancels the highlighting passes running in the visible editors, and servers often
+ * publish diagnostics in several passes, say syntax and then semantics, followed by code actions. Each of those used
+ * to restart the daemon on its own. Here the first request for a file opens a window of {@link #DEFAULT_WINDOW_MS},
+ * and all requests arriving within it are served by the single restart at its end. A file which is not selected in
+ * any editor window at that point is not restarted at all; it is only marked stale, and restarted once it is
+ * selected.
+ */
+@Service(Service.Level.PROJECT)
+public final class DaemonRestartCoalescer implements Disposable {
+
+    private static final Logger LOG = Logger.getInstance(DaemonRestartCoalescer.class);
+
+    public static final long DEFAULT_WINDOW_MS = 150;
+
+    private final ScheduledExecutorService scheduler;
+    private final Executor ui;
+    private final long windowMs;
+    private final Predicate<VirtualFile> visible;
+    private final Consumer<VirtualFile> restart;
+    private final Map<VirtualFile, ScheduledFuture<?>> pending = new ConcurrentHashMap<>();
+    private final Set<VirtualFile> stale = ConcurrentHashMap.newKeySet();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicLong performed = new AtomicLong();
+
+    public DaemonRestartCoalescer(@NotNull Project project) {
+        this(AppExecutorUtil.getAppScheduledExecutorService(),
+                task -> ApplicationManager.getApplication().invokeLater(task, project.getDisposed()),
+                DEFAULT_WINDOW_MS,
+                file -> ArrayUtil.contains(file, FileEditorManager.getInstance(project).getSelectedFiles()),
+                file -> {
+                    PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+                    if (psiFile != null) {
+                        DaemonCodeAnalyzer.getInstance(project).restart(psiFile);
+                    }
+                });
+        project.getMessageBus().connect(this).subscribe(FileEditorManagerListener.FILE_EDITOR_MANAGER,
+                new FileEditorManagerListener() {
+                    @Override
+                    public void selectionChanged(@NotNull FileEditorManagerEvent event) {
+                        if (event.getNewFile() != null) {
+                            selected(event.getNewFile());
+                        }
+                    }
+                });
+    }
+
+    /**
+     * @param scheduler Runs the end of each window
+     * @param ui        Runs the visibility check and the restart; the event dispatch thread
+     * @param windowMs  How long requests for a file are collected before it is restarted
+     * @param visible   Whether a file is selected in an editor window
+     * @param restart   Restarts the daemon for a file
+     */
+    DaemonRestartCoalescer(@NotNull ScheduledExecutorService scheduler, @NotNull Executor ui, long windowMs,
+                           @NotNull Predicate<VirtualFile> visible, @NotNull Consumer<VirtualFile> restart) {
+        this.scheduler = scheduler;
+        this.ui = ui;
+        this.windowMs = windowMs;
+        this.visible = visible;
+        this.restart = restart;
+    }
+
+    @NotNull
+    public static DaemonRestartCoalescer getInstance(@NotNull Project project) {
+        return project.getService(DaemonRestartCoalescer.class);
+    }
+
+    /**
+     * Asks for the daemon to be restarted for the file, at the end of the current window for it.
+     */
+    public void request(@NotNull VirtualFile file) {
+        requested.incrementAndGet();
+        pending.computeIfAbsent(file, this::schedule);
+    }
+
+    /**
+     * @return The number of restarts requested so far
+     */
+    public long getRequestedCount() {
+        return requested.get();
+    }
+
+    /**
+     * @return The number of restarts actually done so far
+     */
+    public long getPerformedCount() {
+        return performed.get();
+    }
+
+    /**
+     * @return The number of requested restarts which were merged into another one or skipped
+     */
+    public long getAvoidedCount() {
+        return Math.max(0, requested.get() - performed.get() - pending.size());
+    }
+
+    /**
+     * Restarts the daemon for a file which was skipped while it was not visible.
+     */
+    void selected(@NotNull VirtualFile file) {
+        if (stale.remove(file)) {
+            restartNow(file);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        pending.values().forEach(future -> future.cancel(false));
+        pending.clear();
+        stale.clear();
+    }
+
+    private ScheduledFuture<?> schedule(VirtualFile file) {
+        try {
+            return scheduler.schedule(() -> windowClosed(file), windowMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // The application is shutting down; nobody is looking at the editors any more.
+            LOG.debug("Daemon restart for " + file + " dropped", e);
+            return null;
+        }
+    }
+
+    private void windowClosed(VirtualFile file) {
+        // Requests arriving from here on open the next window.
+        pending.remove(file);
+        ui.execute(() -> {
+            if (!file.isValid()) {
+                return;
+            }
+            if (visible.test(file)) {
+                stale.remove(file);
+                restartNow(file);
+            } else {
+                stale.add(file);
+            }
+        });
+    }
+
+    private void restartNow(VirtualFile file) {
+        performed.incrementAndGet();
+        LOG.debug("Restarting the daemon for " + file.getName());
+        restart.accept(file);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.services;
+
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.DiagnosticSeverity;
+import org.eclipse.lsp4j.DiagnosticTag;
+import org.eclipse.lsp4j.Range;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the diagnostics the language servers published for the documents of one project which are open in an editor,
+ * keyed by document URI. The diagnostics of all the files of the project, open or not, are kept in compact form by the
+ * {@link WorkspaceDiagnosticIndex}.
+ * <p>
+ * There is one copy per document no matter how many editors show it, so split editors and the annotator all read
+ * the same list. Each publish is compared with the one it replaces: {@link #publish(String, List)} reports a change
+ * only if something an editor would render differs (range, severity, message or tags), in any order. A server that
+ * republishes the same problems after every keystroke therefore does not make the daemon re-highlight the file,
+ * while fields that are only sent back to the server, such as {@code data}, are still kept up to date. The editors
+ * anchor every new list regardless, and still re-highlight if the same ranges now stand for other text than the one
+ * the highlights followed since the previous publish.
+ * <p>
+ * For servers which support pull diagnostics, the store also remembers the result id of the last pull of each
+ * document, which the next pull sends back so that the server can answer that nothing changed.
+ */
+@Service(Service.Level.PROJECT)
+public final class DiagnosticStore {
+
+    private final Map<String, List<Diagnostic>> diagnostics = new ConcurrentHashMap<>();
+    private final Map<String, String> resultIds = new ConcurrentHashMap<>();
+
+    @NotNull
+    public static DiagnosticStore getInstance(@NotNull Project project) {
+        return project.getService(DiagnosticStore.class);
+    }
+
+    /**
+     * Replaces the diagnostics of a document.
+     *
+     * @param uri         The sanitized document URI
+     * @param diagnostics The diagnostics of the document, or null for none
+     * @return True if the document now renders differently than it did with the previous diagnostics
+     */
+    public boolean publish(@NotNull String uri, @Nullable List<Diagnostic> diagnostics) {
+        List<Diagnostic> previous;
+        if (diagnostics == null || diagnostics.isEmpty()) {
+            previous = this.diagnostics.remove(uri);
+            return previous != null;
+        }
+        previous = this.diagnostics.put(uri, Collections.unmodifiableList(new ArrayList<>(diagnostics)));
+        return previous == null || !rendersSame(previous, diagnostics);
+    }
+
+    /**
+     * Stores diagnostics for a document which has none yet, such as those known from the
+     * {@link WorkspaceDiagnosticIndex} when it is opened. Does nothing if the server published some in the meantime.
+     */
+    public void seed(@NotNull String uri, @NotNull List<Diagnostic> diagnostics) {
+        if (!diagnostics.isEmpty()) {
+            this.diagnostics.putIfAbsent(uri, Collections.unmodifiableList(new ArrayList<>(diagnostics)));
+        }
+    }
+
+    /**
+     * Drops the diagnostics and the result id of a document which is no longer open in any editor.
+     */
+    public void forget(@NotNull String uri) {
+        diagnostics.remove(uri);
+        resultIds.remove(uri);
+    }
+
+    /**
+     * @return An unmodifiable snapshot of the diagnostics last published for the document
+     */
+    @NotNull
+    public List<Diagnostic> get(@NotNull String uri) {
+        return diagnostics.getOrDefault(uri, Collections.emptyList());
+    }
+
+    /**
+     * @return The result id of the diagnostics last pulled for the document, or null if there is none
+     */
+    @Nullable
+    public String getResultId(@NotNull String uri) {
+        return resultIds.get(uri);
+    }
+
+    /**
+     * Remembers the result id of the diagnostics just pulled for the document; null forgets the previous one.
+     */
+    public void setResultId(@NotNull String uri, @Nullable String resultId) {
+        if (resultId == null) {
+            resultIds.remove(uri);
+        } else {
+            resultIds.put(uri, resultId);
+        }
+    }
+
+    /**
+     * @return Whether the two lists contain the same diagnostics as far as highlighting is concerned, ignoring order
+     */
+    static boolean rendersSame(@NotNull List<Diagnostic> first, @NotNull List<Diagnostic> second) {
+        if (first.size() != second.size()) {
+            return false;
+        }
+        if (first.equals(second)) {
+            return true;
+        }
+        Map<Rendering, Integer> counts = new HashMap<>();
+        first.forEach(d -> counts.merge(new Rendering(d), 1, Integer::sum));
+        for (Diagnostic diagnostic : second) {
+            Rendering key = new Rendering(diagnostic);
+            Integer count = counts.get(key);
+            if (count == null) {
+                return false;
+            }
+            if (count == 1) {
+                counts.remove(key);
+            } else {
+                counts.put(key, count - 1);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The part of a diagnostic which ends up in the editor.
+     */
+    private static final class Rendering {
+
+        private final Range range;
+        private final DiagnosticSeverity severity;
+        private final String message;
+        private final List<DiagnosticTag> tags;
+
+        Rendering(Diagnostic diagnostic) {
+            this.range = diagnostic.getRange();
+            this.severity = diagnostic.getSeverity();
+            this.message = diagnostic.getMessage();
+            this.tags = diagnostic.getTags();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Rendering)) {
+                return false;
+            }
+            Rendering other = (Rendering) o;
+            return Objects.equals(range, other.range) && severity == other.severity
+                    && Objects.equals(message, other.message) && Objects.equals(tags, other.tags);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(range, severity, message, tags);
+        }
+    }
+}
@@ -19,8 +19,11 @@ import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.Service;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.wso2.lsp4intellij.client.languageserver.serverdefinition.LanguageServerDefinition;
+import org.wso2.lsp4intellij.client.languageserver.wrapper.SharedServerConnection;
 import org.wso2.lsp4intellij.extensions.LSPExtensionManager;
 
+import java.io.IOException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -28,7 +31,8 @@ import java.util.concurrent.ConcurrentHashMap;
  * Application-wide registry backing the parts of {@code IntellijLanguageClient}'s static API that
  * are not scoped to a project: server definitions registered without a project (applicable to any
  * project that opens a matching file) and the LSP extension managers (which are not project-scoped
- * either — a manager is registered per file extension only).
+ * either — a manager is registered per file extension only), and the server connections shared by
+ * several projects for definitions in shared-server mode.
  *
  * <p>This is a light IntelliJ Platform service, obtained via {@link #getInstance()}; it requires no
  * plugin.xml registration. It is internal to the library — plugin developers should keep using
@@ -39,6 +43,8 @@ public final class LspApplicationServerRegistry {
 
     private final DefinitionRegistry definitions = new DefinitionRegistry();
     private final Map<String, LSPExtensionManager> extToExtManager = new ConcurrentHashMap<>();
+    private final Map<LanguageServerDefinition, SharedServerConnection> sharedConnections =
+            new ConcurrentHashMap<>();
 
     public static LspApplicationServerRegistry getInstance() {
         return ApplicationManager.getApplication().getService(LspApplicationServerRegistry.class);
@@ -61,4 +67,26 @@ public final class LspApplicationServerRegistry {
     public void registerExtensionManager(@NotNull String ext, @NotNull LSPExtensionManager manager) {
         extToExtManager.put(ext, manager);
     }
+
+    /**
+     * Returns the connection shared by all projects using the given definition, replacing a connection whose
+     * server has exited or which was terminated after its last project left.
+     */
+    @NotNull
+    public SharedServerConnection sharedConnectionFor(@NotNull LanguageServerDefinition definition) {
+        SharedServerConnection[] stale = new SharedServerConnection[1];
+        SharedServerConnection connection = sharedConnections.compute(definition, (def, existing) -> {
+            if (existing != null && existing.isUsable()) {
+                return existing;
+            }
+            stale[0] = existing;
+            return new SharedServerConnection(def);
+        });
+        if (stale[0] != null) {
+            // Releases the process of a server which exited, and has the projects still holding it recover; a no-op
+            // for a connection terminated after its last project left.
+            stale[0].crashed(new IOException("The shared server of " + definition + " exited"));
+        }
+        return connection;
+    }
 }
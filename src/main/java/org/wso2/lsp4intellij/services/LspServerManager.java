@@ -19,6 +19,7 @@ import com.intellij.openapi.Disposable;
 import com.intellij.openapi.components.Service;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.wso2.lsp4intellij.client.languageserver.serverdefinition.LanguageServerDefinition;
@@ -26,12 +27,22 @@ import org.wso2.lsp4intellij.client.languageserver.wrapper.LanguageServerWrapper
 import org.wso2.lsp4intellij.extensions.LSPExtensionManager;
 import org.wso2.lsp4intellij.utils.FileUtils;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static org.wso2.lsp4intellij.requests.Timeout.getTimeout;
+import static org.wso2.lsp4intellij.requests.Timeouts.SHUTDOWN;
+
 /**
  * Project-scoped registry backing the parts of {@code IntellijLanguageClient}'s and
  * {@code LanguageServerWrapper}'s static APIs that are scoped to one project: project-level server
@@ -48,6 +59,8 @@ import java.util.concurrent.atomic.AtomicReference;
 public final class LspServerManager implements Disposable {
 
     private static final Logger LOG = Logger.getInstance(LspServerManager.class);
+    // Added to the shutdown timeout for the processes to exit; servers still running after that are killed.
+    private static final long EXIT_GRACE_MS = 2000;
 
     private final Project project;
     private final DefinitionRegistry definitions = new DefinitionRegistry();
@@ -197,7 +210,11 @@ public final class LspServerManager implements Disposable {
      *
      * <p>Each wrapper is disposed inside its own try/catch so that one failure cannot abort disposal
      * of the rest — this method is the platform's last-resort cleanup for this project, so a partial
-     * run leaks a running language server process. The registry is then cleared directly rather than
+     * run leaks a running language server process. The wrappers are disposed in parallel on the
+     * application pool, under one deadline of the shutdown timeout plus a short grace period for the
+     * processes to exit: closing a project takes no longer with six servers than with one. The
+     * processes of wrappers still disposing at the deadline are killed, and their disposal finishes
+     * in the background. The registry is then cleared directly rather than
      * relying on each wrapper's {@link #unregister} callback, which is skipped on the platform's
      * disposal path (by then {@link #getInstanceIfCreated} returns null, since the project is
      * already disposing).
@@ -205,12 +222,34 @@ public final class LspServerManager implements Disposable {
     @Override
     public synchronized void dispose() {
         disposed = true;
-        for (LanguageServerWrapper wrapper : new HashSet<>(wrappers)) {
+        List<LanguageServerWrapper> toDispose = new ArrayList<>(wrappers);
+        List<CompletableFuture<Void>> disposals = new ArrayList<>();
+        for (LanguageServerWrapper wrapper : toDispose) {
+            CompletableFuture<Void> disposal;
             try {
-                wrapper.dispose();
-            } catch (Exception e) {
-                LOG.warn("Failed to dispose the language server wrapper for "
-                        + wrapper.getServerDefinition().ext, e);
+                disposal = CompletableFuture.runAsync(() -> disposeWrapper(wrapper),
+                        AppExecutorUtil.getAppExecutorService());
+            } catch (RejectedExecutionException e) {
+                // The application is shutting down as well; there is no pool left to fan out to.
+                disposeWrapper(wrapper);
+                disposal = CompletableFuture.completedFuture(null);
+            }
+            disposals.add(disposal);
+        }
+        long deadline = getTimeout(SHUTDOWN) + EXIT_GRACE_MS;
+        try {
+            CompletableFuture.allOf(disposals.toArray(new CompletableFuture[0])).get(deadline, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            LOG.debug("Not all language servers shut down within " + deadline + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (int i = 0; i < toDispose.size(); i++) {
+            if (!disposals.get(i).isDone()) {
+                LanguageServerWrapper wrapper = toDispose.get(i);
+                LOG.warn("The language server for " + wrapper.getServerDefinition().ext + " did not shut down within "
+                        + deadline + " ms; terminating it");
+                wrapper.terminate();
             }
         }
         wrappers.clear();
@@ -218,4 +257,13 @@ public final class LspServerManager implements Disposable {
         uriToWrapper.clear();
         lastWrapper.set(null);
     }
+
+    private static void disposeWrapper(LanguageServerWrapper wrapper) {
+        try {
+            wrapper.dispose();
+        } catch (Exception e) {
+            LOG.warn("Failed to dispose the language server wrapper for "
+                    + wrapper.getServerDefinition().ext, e);
+        }
+    }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.services;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+import org.wso2.lsp4intellij.Lsp4IntellijBundle;
+import org.wso2.lsp4intellij.client.languageserver.wrapper.LanguageServerWrapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import static org.wso2.lsp4intellij.requests.Timeout.getTimeout;
+import static org.wso2.lsp4intellij.requests.Timeouts.INIT;
+
+/**
+ * Starts the language servers of a project together and shows their initialization as one background task.
+ * Every server starts on its own wrapper's dispatcher, so the project is ready in the time of its slowest server
+ * rather than in the sum of all of them.
+ */
+public class ProjectServerStartup extends Task.Backgroundable {
+
+    private static final Logger LOG = Logger.getInstance(ProjectServerStartup.class);
+    // Added to the initialization timeout for launching the processes.
+    private static final long LAUNCH_GRACE_MS = 5000;
+    private static final long PROGRESS_UPDATE_MS = 200;
+
+    private final List<LanguageServerWrapper> wrappers;
+    private final List<CompletableFuture<Boolean>> started = new ArrayList<>();
+    private final long startedAt = System.currentTimeMillis();
+
+    /**
+     * Kicks the start of the given servers off right away; the task only waits for them.
+     */
+    public ProjectServerStartup(@NotNull Project project, @NotNull List<LanguageServerWrapper> wrappers) {
+        super(project, Lsp4IntellijBundle.message("progress.starting.servers", wrappers.size()), false);
+        this.wrappers = new ArrayList<>(wrappers);
+        for (LanguageServerWrapper wrapper : this.wrappers) {
+            started.add(wrapper.startAsync());
+        }
+    }
+
+    /**
+     * @return completes once every server has finished its initialization, successfully or not
+     */
+    public CompletableFuture<Void> getStarted() {
+        return CompletableFuture.allOf(started.toArray(new CompletableFuture[0]));
+    }
+
+    @Override
+    public void run(@NotNull ProgressIndicator indicator) {
+        indicator.setIndeterminate(false);
+        CompletableFuture<Void> all = getStarted();
+        // Every initialization has its own timeout; this only guards against a start which never gets going.
+        long deadline = System.currentTimeMillis() + getTimeout(INIT) + LAUNCH_GRACE_MS;
+        while (!all.isDone() && System.currentTimeMillis() < deadline) {
+            List<String> pending = new ArrayList<>();
+            for (int i = 0; i < wrappers.size(); i++) {
+                if (!started.get(i).isDone()) {
+                    pending.add(wrappers.get(i).getServerDefinition().ext);
+                }
+            }
+            indicator.setFraction((double) (wrappers.size() - pending.size()) / wrappers.size());
+            indicator.setText2(Lsp4IntellijBundle.message("progress.waiting.for", String.join(", ", pending)));
+            try {
+                all.get(PROGRESS_UPDATE_MS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                // Checked again by the loop.
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        List<String> failed = new ArrayList<>();
+        for (int i = 0; i < wrappers.size(); i++) {
+            if (!Boolean.TRUE.equals(started.get(i).getNow(false))) {
+                failed.add(wrappers.get(i).getServerDefinition().ext);
+            }
+        }
+        LOG.info(String.format("Started %d of %d language servers for %s in %d ms%s",
+                wrappers.size() - failed.size(), wrappers.size(), myProject.getName(),
+                System.currentTimeMillis() - startedAt,
+                failed.isEmpty() ? "" : failed.stream().collect(Collectors.joining(", ", "; not ready: ", ""))));
+    }
+}
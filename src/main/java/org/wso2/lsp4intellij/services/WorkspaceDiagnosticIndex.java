@@ -0,0 +1,499 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.services;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.problems.WolfTheProblemSolver;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.containers.Interner;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.DiagnosticSeverity;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.wso2.lsp4intellij.client.languageserver.serverdefinition.LanguageServerDefinition;
+import org.wso2.lsp4intellij.utils.FileUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the diagnostics of every file of a project in a compact form, whether the file is open in an editor or not.
+ * It feeds the workspace problems view and the error marks of the project view, and lets an editor show the known
+ * problems of a file as soon as it opens.
+ * <p>
+ * A diagnostic takes four ints for its range, one byte for its severity and a reference to its message; messages are
+ * interned, since the same text tends to repeat across a code base. Everything else the server sent, such as the
+ * code or the data, is dropped: the {@link DiagnosticStore} keeps full diagnostics for the open files, which are the
+ * only ones code actions are requested for. At most {@link #DEFAULT_LIMIT} diagnostics are kept in detail per project,
+ * most severe first: once the limit is reached, the diagnostics of a file being published displace less severe ones
+ * kept for other files, so that hints published early never crowd out errors published later. Beyond the limit, files
+ * keep only their error and warning counts, which is all the project view needs.
+ * <p>
+ * Diagnostics and result ids are kept per server definition, so that a file served by several servers shows the
+ * problems of all of them, and the problems of a server are dropped with {@link #clear(LanguageServerDefinition)}
+ * once it stops.
+ */
+@Service(Service.Level.PROJECT)
+public final class WorkspaceDiagnosticIndex {
+
+    public static final int DEFAULT_LIMIT = 250_000;
+    private static final long REPORT_DELAY_MS = 300;
+    private static final int LEAST_SEVERE = DiagnosticSeverity.Hint.getValue();
+    private static final Object NO_SERVER = new Object();
+
+    @Nullable
+    private final Project project;
+    private final int limit;
+    // The diagnostics of each file, by server; diagnostics stored without a server are kept under NO_SERVER.
+    private final Map<Object, Map<String, FileDiagnostics>> files = new ConcurrentHashMap<>();
+    private final Map<Object, Map<String, String>> resultIds = new ConcurrentHashMap<>();
+    private final Interner<String> messages = Interner.createWeakInterner();
+    private final Set<String> errorsChanged = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean reportScheduled = new AtomicBoolean();
+    private int stored = 0;
+    // The number of diagnostics kept in detail, by severity value.
+    private final int[] storedBySeverity = new int[LEAST_SEVERE + 1];
+
+    public WorkspaceDiagnosticIndex(@NotNull Project project) {
+        this(project, DEFAULT_LIMIT);
+    }
+
+    /**
+     * @param project The project whose files get error marks, or null for none
+     * @param limit   The number of diagnostics kept in detail
+     */
+    WorkspaceDiagnosticIndex(@Nullable Project project, int limit) {
+        this.project = project;
+        this.limit = limit;
+    }
+
+    @NotNull
+    public static WorkspaceDiagnosticIndex getInstance(@NotNull Project project) {
+        return project.getService(WorkspaceDiagnosticIndex.class);
+    }
+
+    /**
+     * Replaces the diagnostics of a file published by a server.
+     *
+     * @param definition  The definition of the server which published them, or null if it is not known
+     * @param uri         The sanitized file URI
+     * @param diagnostics The diagnostics of the file, or null for none
+     */
+    public void put(@Nullable LanguageServerDefinition definition, @NotNull String uri,
+                    @Nullable List<Diagnostic> diagnostics) {
+        Object server = key(definition);
+        boolean hadErrors;
+        boolean hasErrors;
+        synchronized (this) {
+            hadErrors = getErrorCount(uri) > 0;
+            Map<String, FileDiagnostics> served = files.computeIfAbsent(server, key -> new ConcurrentHashMap<>());
+            if (diagnostics == null || diagnostics.isEmpty()) {
+                count(served.remove(uri), -1);
+            } else {
+                count(served.get(uri), -1);
+                int budget = makeRoom(served, uri, diagnostics, Math.max(0, limit - stored));
+                FileDiagnostics current = compact(diagnostics, budget);
+                served.put(uri, current);
+                count(current, 1);
+            }
+            hasErrors = getErrorCount(uri) > 0;
+        }
+        if (hadErrors != hasErrors) {
+            errorsChanged(uri);
+        }
+    }
+
+    /**
+     * Replaces the diagnostics of a file published by a server which is not known.
+     *
+     * @see #put(LanguageServerDefinition, String, List)
+     */
+    public void put(@NotNull String uri, @Nullable List<Diagnostic> diagnostics) {
+        put(null, uri, diagnostics);
+    }
+
+    /**
+     * Drops the diagnostics and the result ids of a server, e.g. once it stopped. The files which no longer have
+     * errors lose their error marks in the project view.
+     */
+    public void clear(@NotNull LanguageServerDefinition definition) {
+        resultIds.remove(definition);
+        Set<String> hadErrors = new HashSet<>();
+        synchronized (this) {
+            Map<String, FileDiagnostics> served = files.remove(definition);
+            if (served == null) {
+                return;
+            }
+            served.forEach((uri, file) -> {
+                count(file, -1);
+                if (file.errors > 0 && getErrorCount(uri) == 0) {
+                    hadErrors.add(uri);
+                }
+            });
+        }
+        hadErrors.forEach(this::errorsChanged);
+    }
+
+    /**
+     * @return The diagnostics kept for the file by all servers, rebuilt from the compact form, most severe first if
+     * some were dropped
+     */
+    @NotNull
+    public List<Diagnostic> getDiagnostics(@NotNull String uri) {
+        List<Diagnostic> result = new ArrayList<>();
+        for (Map<String, FileDiagnostics> served : files.values()) {
+            FileDiagnostics file = served.get(uri);
+            for (int i = 0; file != null && i < file.size(); i++) {
+                int at = i * 4;
+                Range range = new Range(new Position(file.ranges[at], file.ranges[at + 1]),
+                        new Position(file.ranges[at + 2], file.ranges[at + 3]));
+                result.add(new Diagnostic(range, file.messages[i], DiagnosticSeverity.forValue(file.severities[i]),
+                        null));
+            }
+        }
+        return result.isEmpty() ? Collections.emptyList() : result;
+    }
+
+    /**
+     * Passes every diagnostic kept in detail to the consumer, file by file, without creating objects for them.
+     */
+    public void forEach(@NotNull ProblemConsumer consumer) {
+        files.values().forEach(served -> served.forEach((uri, file) -> {
+            for (int i = 0; i < file.size(); i++) {
+                int at = i * 4;
+                consumer.accept(uri, file.ranges[at], file.ranges[at + 1], file.ranges[at + 2], file.ranges[at + 3],
+                        DiagnosticSeverity.forValue(file.severities[i]), file.messages[i]);
+            }
+        }));
+    }
+
+    /**
+     * @return The number of errors published for the file by all servers, including those not kept in detail
+     */
+    public int getErrorCount(@NotNull String uri) {
+        int errors = 0;
+        for (Map<String, FileDiagnostics> served : files.values()) {
+            FileDiagnostics file = served.get(uri);
+            errors += file != null ? file.errors : 0;
+        }
+        return errors;
+    }
+
+    /**
+     * @return The number of warnings published for the file by all servers, including those not kept in detail
+     */
+    public int getWarningCount(@NotNull String uri) {
+        int warnings = 0;
+        for (Map<String, FileDiagnostics> served : files.values()) {
+            FileDiagnostics file = served.get(uri);
+            warnings += file != null ? file.warnings : 0;
+        }
+        return warnings;
+    }
+
+    /**
+     * @return The number of files with diagnostics
+     */
+    public int getFileCount() {
+        if (files.size() == 1) {
+            return files.values().iterator().next().size();
+        }
+        Set<String> uris = new HashSet<>();
+        files.values().forEach(served -> uris.addAll(served.keySet()));
+        return uris.size();
+    }
+
+    /**
+     * @return The number of diagnostics published for all files, including those not kept in detail
+     */
+    public int getDiagnosticCount() {
+        return files.values().stream().flatMap(served -> served.values().stream()).mapToInt(file -> file.total).sum();
+    }
+
+    /**
+     * @return The number of diagnostics kept in detail, never more than the limit
+     */
+    public synchronized int getStoredCount() {
+        return stored;
+    }
+
+    /**
+     * @return The result id of the diagnostics last pulled for the file from the server by a workspace diagnostic
+     * request
+     */
+    @Nullable
+    public String getResultId(@NotNull LanguageServerDefinition definition, @NotNull String uri) {
+        Map<String, String> ids = resultIds.get(definition);
+        return ids != null ? ids.get(uri) : null;
+    }
+
+    public void setResultId(@NotNull LanguageServerDefinition definition, @NotNull String uri,
+                            @Nullable String resultId) {
+        if (resultId == null) {
+            Map<String, String> ids = resultIds.get(definition);
+            if (ids != null) {
+                ids.remove(uri);
+            }
+        } else {
+            resultIds.computeIfAbsent(definition, key -> new ConcurrentHashMap<>()).put(uri, resultId);
+        }
+    }
+
+    /**
+     * @return The result ids of the files pulled from the server, to be sent with its next workspace diagnostic
+     * request
+     */
+    @NotNull
+    public Map<String, String> getResultIds(@NotNull LanguageServerDefinition definition) {
+        Map<String, String> ids = resultIds.get(definition);
+        return ids != null ? new HashMap<>(ids) : new HashMap<>();
+    }
+
+    private static Object key(@Nullable LanguageServerDefinition definition) {
+        return definition != null ? definition : NO_SERVER;
+    }
+
+    /**
+     * Makes room for the diagnostics of a file which do not fit into the budget left, by dropping less severe
+     * diagnostics kept for other files, least severe first.
+     *
+     * @param served The diagnostics of the server publishing those of the file
+     * @return The number of the file's diagnostics which can be kept
+     */
+    private int makeRoom(Map<String, FileDiagnostics> served, String uri, List<Diagnostic> diagnostics, int budget) {
+        if (diagnostics.size() <= budget) {
+            return budget;
+        }
+        int[] severities = diagnostics.stream().mapToInt(WorkspaceDiagnosticIndex::severity).sorted().toArray();
+        for (int severity = LEAST_SEVERE; severity > severities[budget]; severity--) {
+            // The diagnostics which did not fit yet and are more severe than those to drop.
+            int wanted = 0;
+            while (budget + wanted < severities.length && severities[budget + wanted] < severity) {
+                wanted++;
+            }
+            budget += drop(served, uri, severity, Math.min(wanted, storedBySeverity[severity]));
+            if (budget == severities.length) {
+                break;
+            }
+        }
+        return budget;
+    }
+
+    /**
+     * Drops up to the given number of diagnostics of the given severity from the files other than the given one of
+     * the given server.
+     *
+     * @return The number of diagnostics dropped
+     */
+    private int drop(Map<String, FileDiagnostics> served, String uri, int severity, int count) {
+        int dropped = 0;
+        for (Map<String, FileDiagnostics> other : files.values()) {
+            for (Map.Entry<String, FileDiagnostics> entry : other.entrySet()) {
+                if (dropped == count) {
+                    return dropped;
+                }
+                if (other == served && entry.getKey().equals(uri)) {
+                    continue;
+                }
+                FileDiagnostics file = entry.getValue();
+                FileDiagnostics trimmed = file.without(severity, count - dropped);
+                if (trimmed != file) {
+                    count(file, -1);
+                    entry.setValue(trimmed);
+                    count(trimmed, 1);
+                    dropped += file.size() - trimmed.size();
+                }
+            }
+        }
+        return dropped;
+    }
+
+    private void count(@Nullable FileDiagnostics file, int sign) {
+        if (file == null) {
+            return;
+        }
+        stored += sign * file.size();
+        for (byte severity : file.severities) {
+            storedBySeverity[severity] += sign;
+        }
+    }
+
+    private FileDiagnostics compact(List<Diagnostic> diagnostics, int budget) {
+        int errors = 0;
+        int warnings = 0;
+        for (Diagnostic diagnostic : diagnostics) {
+            int severity = severity(diagnostic);
+            if (severity == DiagnosticSeverity.Error.getValue()) {
+                errors++;
+            } else if (severity == DiagnosticSeverity.Warning.getValue()) {
+                warnings++;
+            }
+        }
+        List<Diagnostic> kept = diagnostics;
+        if (diagnostics.size() > budget) {
+            kept = new ArrayList<>(diagnostics);
+            kept.sort(Comparator.comparingInt(WorkspaceDiagnosticIndex::severity));
+            kept = kept.subList(0, budget);
+        }
+        int[] ranges = new int[kept.size() * 4];
+        byte[] severities = new byte[kept.size()];
+        String[] texts = new String[kept.size()];
+        for (int i = 0; i < kept.size(); i++) {
+            Diagnostic diagnostic = kept.get(i);
+            Range range = diagnostic.getRange();
+            ranges[i * 4] = range.getStart().getLine();
+            ranges[i * 4 + 1] = range.getStart().getCharacter();
+            ranges[i * 4 + 2] = range.getEnd().getLine();
+            ranges[i * 4 + 3] = range.getEnd().getCharacter();
+            severities[i] = (byte) severity(diagnostic);
+            texts[i] = messages.intern(diagnostic.getMessage() != null ? diagnostic.getMessage() : "");
+        }
+        return new FileDiagnostics(ranges, severities, texts, errors, warnings, diagnostics.size());
+    }
+
+    private static int severity(Diagnostic diagnostic) {
+        // As per the LSP spec, a diagnostic without a severity is treated as an error.
+        return diagnostic.getSeverity() != null ? diagnostic.getSeverity().getValue() : 1;
+    }
+
+    /**
+     * Reports the files which started or stopped having errors to the project view, in batches.
+     */
+    private void errorsChanged(String uri) {
+        if (project == null) {
+            return;
+        }
+        errorsChanged.add(uri);
+        if (reportScheduled.compareAndSet(false, true)) {
+            try {
+                AppExecutorUtil.getAppScheduledExecutorService()
+                        .schedule(this::reportErrors, REPORT_DELAY_MS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // The application is shutting down.
+                reportScheduled.set(false);
+            }
+        }
+    }
+
+    private void reportErrors() {
+        reportScheduled.set(false);
+        Map<VirtualFile, Boolean> changes = new HashMap<>();
+        for (String uri : new ArrayList<>(errorsChanged)) {
+            errorsChanged.remove(uri);
+            VirtualFile file = FileUtils.virtualFileFromURI(uri);
+            if (file != null) {
+                changes.put(file, getErrorCount(uri) > 0);
+            }
+        }
+        if (changes.isEmpty() || project == null || project.isDisposed()) {
+            return;
+        }
+        ApplicationManager.getApplication().invokeLater(() -> {
+            WolfTheProblemSolver wolf = WolfTheProblemSolver.getInstance(project);
+            changes.forEach((file, hasErrors) -> {
+                if (hasErrors) {
+                    wolf.reportProblemsFromExternalSource(file, this);
+                } else {
+                    wolf.clearProblemsFromExternalSource(file, this);
+                }
+            });
+        }, project.getDisposed());
+    }
+
+    /**
+     * Receives the diagnostics of {@link #forEach(ProblemConsumer)}. Lines and characters are zero-based, as in LSP.
+     */
+    @FunctionalInterface
+    public interface ProblemConsumer {
+        void accept(@NotNull String uri, int startLine, int startCharacter, int endLine, int endCharacter,
+                    @NotNull DiagnosticSeverity severity, @NotNull String message);
+    }
+
+    /**
+     * The diagnostics of one file. Immutable; replaced as a whole on every publish.
+     */
+    private static final class FileDiagnostics {
+
+        // Start line, start character, end line and end character of each diagnostic.
+        final int[] ranges;
+        final byte[] severities;
+        final String[] messages;
+        final int errors;
+        final int warnings;
+        final int total;
+
+        FileDiagnostics(int[] ranges, byte[] severities, String[] messages, int errors, int warnings, int total) {
+            this.ranges = ranges;
+            this.severities = severities;
+            this.messages = messages;
+            this.errors = errors;
+            this.warnings = warnings;
+            this.total = total;
+        }
+
+        int size() {
+            return severities.length;
+        }
+
+        /**
+         * @return A copy without up to the given number of diagnostics of the given severity, most severe first, or
+         * this if it has none
+         */
+        FileDiagnostics without(int severity, int count) {
+            int matching = 0;
+            for (byte value : severities) {
+                if (value == severity) {
+                    matching++;
+                }
+            }
+            if (matching == 0) {
+                return this;
+            }
+            int keep = matching - Math.min(count, matching);
+            int size = size() - matching + keep;
+            int[] keptRanges = new int[size * 4];
+            byte[] keptSeverities = new byte[size];
+            String[] keptMessages = new String[size];
+            int at = 0;
+            for (int value = 1; value <= LEAST_SEVERE; value++) {
+                for (int i = 0; i < size(); i++) {
+                    if (severities[i] == value && (value != severity || keep-- > 0)) {
+                        System.arraycopy(ranges, i * 4, keptRanges, at * 4, 4);
+                        keptSeverities[at] = severities[i];
+                        keptMessages[at] = messages[i];
+                        at++;
+                    }
+                }
+            }
+            return new FileDiagnostics(keptRanges, keptSeverities, keptMessages, errors, warnings, total);
+        }
+    }
+}
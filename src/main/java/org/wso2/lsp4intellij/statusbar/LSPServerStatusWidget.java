@@ -16,29 +16,50 @@
 package org.wso2.lsp4intellij.statusbar;
 
 import com.intellij.ide.DataManager;
+import com.intellij.ide.errorTreeView.NewErrorTreeViewPanel;
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.DataContext;
 import com.intellij.openapi.actionSystem.DefaultActionGroup;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.fileTypes.PlainTextFileType;
 import com.intellij.openapi.project.DumbAware;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.Messages;
 import com.intellij.openapi.ui.popup.JBPopupFactory;
 import com.intellij.openapi.ui.popup.ListPopup;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.wm.StatusBar;
 import com.intellij.openapi.wm.StatusBarWidget;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowId;
+import com.intellij.openapi.wm.ToolWindowManager;
 import com.intellij.openapi.wm.WindowManager;
 import com.intellij.ui.awt.RelativePoint;
+import com.intellij.ui.content.Content;
+import com.intellij.ui.content.ContentFactory;
+import com.intellij.ui.content.ContentManager;
+import com.intellij.ui.content.MessageView;
+import com.intellij.testFramework.LightVirtualFile;
 import com.intellij.util.Consumer;
+import com.intellij.util.ui.MessageCategory;
 import org.apache.commons.lang3.tuple.MutablePair;
 import org.apache.commons.lang3.tuple.Pair;
+import org.eclipse.lsp4j.DiagnosticSeverity;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.wso2.lsp4intellij.Lsp4IntellijBundle;
+import org.wso2.lsp4intellij.client.connection.ProcessResourceUsage;
 import org.wso2.lsp4intellij.client.languageserver.ServerStatus;
 import org.wso2.lsp4intellij.client.languageserver.wrapper.LanguageServerWrapper;
+import org.wso2.lsp4intellij.client.languageserver.wrapper.LauncherExecutor;
 import org.wso2.lsp4intellij.contributors.icon.LSPDefaultIconProvider;
 import org.wso2.lsp4intellij.requests.Timeouts;
+import org.wso2.lsp4intellij.services.DaemonRestartCoalescer;
+import org.wso2.lsp4intellij.services.WorkspaceDiagnosticIndex;
+import org.wso2.lsp4intellij.utils.FileUtils;
 import org.wso2.lsp4intellij.utils.GUIUtils;
 
 import java.awt.Component;
@@ -46,9 +67,11 @@ import java.awt.Dimension;
 import java.awt.Point;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.swing.Icon;
 
@@ -58,6 +81,7 @@ public class LSPServerStatusWidget implements StatusBarWidget {
     private final Project project;
     private final String projectName;
     private ServerStatus status = ServerStatus.STOPPED;
+    private volatile ProcessResourceUsage resourceUsage;
 
     LSPServerStatusWidget(Project project) {
         this.project = project;
@@ -77,6 +101,15 @@ public class LSPServerStatusWidget implements StatusBarWidget {
         }
     }
 
+    /**
+     * Sets the latest resource usage sample of the server process.
+     *
+     * @param resourceUsage The sample, or null if the server is not running
+     */
+    public void setResourceUsage(@Nullable ProcessResourceUsage resourceUsage) {
+        this.resourceUsage = resourceUsage;
+    }
+
     public IconPresentation getPresentation() {
         return new IconPresentation();
     }
@@ -143,6 +176,9 @@ public class LSPServerStatusWidget implements StatusBarWidget {
                     actions.add(new ShowConnectedFiles());
                 }
                 actions.add(new ShowTimeouts());
+                actions.add(new ShowResourceUsage());
+                actions.add(new ShowErrorOutput());
+                actions.add(new ShowWorkspaceProblems());
 
                 actions.add(new Restart());
 
@@ -213,6 +249,185 @@ public class LSPServerStatusWidget implements StatusBarWidget {
             }
         }
 
+        class ShowResourceUsage extends AnAction implements DumbAware {
+            ShowResourceUsage() {
+                super(Lsp4IntellijBundle.message("action.show.resource.usage"),
+                      Lsp4IntellijBundle.message("action.show.resource.usage.description"), null);
+            }
+
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e) {
+                ProcessResourceUsage usage = resourceUsage;
+                String title = Lsp4IntellijBundle.message("resource.usage.title");
+                if (usage == null) {
+                    Messages.showInfoMessage(Lsp4IntellijBundle.message("resource.usage.unavailable"), title);
+                    return;
+                }
+                StringBuilder message = new StringBuilder();
+                message.append(Lsp4IntellijBundle.message("resource.usage.pid", String.valueOf(usage.getPid())));
+                if (usage.getResidentBytes() != ProcessResourceUsage.UNKNOWN) {
+                    message.append(System.lineSeparator()).append(Lsp4IntellijBundle.message(
+                            "resource.usage.memory", usage.getResidentBytes() / (1024 * 1024)));
+                }
+                if (usage.getCpuTimeMillis() != ProcessResourceUsage.UNKNOWN) {
+                    message.append(System.lineSeparator()).append(Lsp4IntellijBundle.message(
+                            "resource.usage.cpu", String.format("%.1f", usage.getCpuTimeMillis() / 1000.0)));
+                }
+                if (usage.getThreads() != ProcessResourceUsage.UNKNOWN) {
+                    message.append(System.lineSeparator()).append(Lsp4IntellijBundle.message(
+                            "resource.usage.threads", usage.getThreads()));
+                }
+                LanguageServerWrapper wrapper = LanguageServerWrapper.forProject(project);
+                long ceiling = wrapper != null ? wrapper.getServerDefinition().getMemoryCeiling() : 0;
+                if (ceiling > 0) {
+                    message.append(System.lineSeparator()).append(Lsp4IntellijBundle.message(
+                            "resource.usage.ceiling", ceiling / (1024 * 1024)));
+                }
+                LauncherExecutor executor = wrapper != null ? wrapper.getLauncherExecutor() : null;
+                if (executor != null) {
+                    message.append(System.lineSeparator()).append(Lsp4IntellijBundle.message(
+                            "resource.usage.messages", executor.getActiveCount(), executor.getQueueDepth(),
+                            String.format("%.1f", executor.getAverageWaitMillis())));
+                }
+                DaemonRestartCoalescer coalescer = project.getServiceIfCreated(DaemonRestartCoalescer.class);
+                if (coalescer != null) {
+                    message.append(System.lineSeparator()).append(Lsp4IntellijBundle.message(
+                            "resource.usage.daemon.restarts", coalescer.getPerformedCount(),
+                            coalescer.getAvoidedCount()));
+                }
+                Messages.showInfoMessage(message.toString(), title);
+            }
+        }
+
+        class ShowErrorOutput extends AnAction implements DumbAware {
+            ShowErrorOutput() {
+                super(Lsp4IntellijBundle.message("action.show.error.output"),
+                      Lsp4IntellijBundle.message("action.show.error.output.description"), null);
+            }
+
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e) {
+                LanguageServerWrapper wrapper = LanguageServerWrapper.forProject(project);
+                String errorOutput = wrapper != null ? wrapper.getErrorOutput() : "";
+                if (errorOutput.isEmpty()) {
+                    Messages.showInfoMessage(Lsp4IntellijBundle.message("error.output.empty"),
+                            Lsp4IntellijBundle.message("error.output.title"));
+                    return;
+                }
+                LightVirtualFile file = new LightVirtualFile(Lsp4IntellijBundle.message("error.output.file",
+                        wrapper.getServerDefinition().ext), PlainTextFileType.INSTANCE, errorOutput);
+                file.setWritable(false);
+                FileEditorManager.getInstance(project).openFile(file, true);
+            }
+        }
+
+        class ShowWorkspaceProblems extends AnAction implements DumbAware {
+            // Listing more rows than this slows the messages view down without helping anybody.
+            private static final int MAX_ROWS = 10_000;
+            private static final int ROWS_PER_BATCH = 500;
+
+            ShowWorkspaceProblems() {
+                super(Lsp4IntellijBundle.message("action.show.workspace.problems"),
+                      Lsp4IntellijBundle.message("action.show.workspace.problems.description"), null);
+            }
+
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e) {
+                WorkspaceDiagnosticIndex index = WorkspaceDiagnosticIndex.getInstance(project);
+                String title = Lsp4IntellijBundle.message("workspace.problems.title");
+                if (index.getFileCount() == 0) {
+                    Messages.showInfoMessage(Lsp4IntellijBundle.message("workspace.problems.empty"), title);
+                    return;
+                }
+                ApplicationManager.getApplication().executeOnPooledThread(() -> {
+                    List<ProblemRow> rows = collectRows(index);
+                    int notListed = index.getDiagnosticCount() - rows.size();
+                    ApplicationManager.getApplication()
+                            .invokeLater(() -> show(title, rows, notListed), project.getDisposed());
+                });
+            }
+
+            /**
+             * Collects the rows to list, most severe first, and looks up their files. Runs on a pooled thread.
+             */
+            private List<ProblemRow> collectRows(WorkspaceDiagnosticIndex index) {
+                Map<DiagnosticSeverity, List<ProblemRow>> bySeverity = new EnumMap<>(DiagnosticSeverity.class);
+                Map<String, VirtualFile> files = new HashMap<>();
+                index.forEach((uri, startLine, startCharacter, endLine, endCharacter, severity, message) -> {
+                    List<ProblemRow> listed = bySeverity.computeIfAbsent(severity, key -> new ArrayList<>());
+                    if (listed.size() < MAX_ROWS) {
+                        VirtualFile file = files.computeIfAbsent(uri, FileUtils::virtualFileFromURI);
+                        listed.add(new ProblemRow(toCategory(severity), message, file, startLine, startCharacter));
+                    }
+                });
+                List<ProblemRow> rows = new ArrayList<>();
+                for (List<ProblemRow> severityRows : bySeverity.values()) {
+                    rows.addAll(severityRows.subList(0, Math.min(severityRows.size(), MAX_ROWS - rows.size())));
+                }
+                return rows;
+            }
+
+            private void show(String title, List<ProblemRow> rows, int notListed) {
+                NewErrorTreeViewPanel panel = new NewErrorTreeViewPanel(project, null);
+                Content content = ContentFactory.getInstance().createContent(panel, title, true);
+                Disposer.register(content, panel);
+                AtomicBoolean closed = new AtomicBoolean();
+                Disposer.register(content, () -> closed.set(true));
+                MessageView messageView = MessageView.getInstance(project);
+                messageView.runWhenInitialized(() -> {
+                    ContentManager contents = messageView.getContentManager();
+                    for (Content previous : contents.getContents()) {
+                        if (title.equals(previous.getDisplayName())) {
+                            contents.removeContent(previous, true);
+                        }
+                    }
+                    contents.addContent(content);
+                    contents.setSelectedContent(content);
+                    ToolWindow toolWindow =
+                            ToolWindowManager.getInstance(project).getToolWindow(ToolWindowId.MESSAGES_WINDOW);
+                    if (toolWindow != null) {
+                        toolWindow.activate(null);
+                    }
+                });
+                addRows(panel, closed, rows, 0, notListed);
+            }
+
+            /**
+             * Adds the rows a batch at a time, so that the event dispatch thread stays responsive in between.
+             */
+            private void addRows(NewErrorTreeViewPanel panel, AtomicBoolean closed, List<ProblemRow> rows, int from,
+                                 int notListed) {
+                if (closed.get()) {
+                    return;
+                }
+                int to = Math.min(rows.size(), from + ROWS_PER_BATCH);
+                for (ProblemRow row : rows.subList(from, to)) {
+                    panel.addMessage(row.category, new String[]{row.message}, row.file, row.line, row.character,
+                            null);
+                }
+                if (to < rows.size()) {
+                    ApplicationManager.getApplication().invokeLater(
+                            () -> addRows(panel, closed, rows, to, notListed), project.getDisposed());
+                } else if (notListed > 0) {
+                    panel.addMessage(MessageCategory.INFORMATION, new String[]{
+                            Lsp4IntellijBundle.message("workspace.problems.truncated", notListed)}, null, -1, -1, null);
+                }
+            }
+
+            private int toCategory(DiagnosticSeverity severity) {
+                switch (severity) {
+                    case Warning:
+                        return MessageCategory.WARNING;
+                    case Information:
+                        return MessageCategory.INFORMATION;
+                    case Hint:
+                        return MessageCategory.NOTE;
+                    default:
+                        return MessageCategory.ERROR;
+                }
+            }
+        }
+
         class Restart extends AnAction implements DumbAware {
 
             Restart() {
@@ -234,10 +449,35 @@ public class LSPServerStatusWidget implements StatusBarWidget {
             LanguageServerWrapper wrapper = LanguageServerWrapper.forProject(project);
             if (wrapper == null) {
                 return Lsp4IntellijBundle.message("tooltip.language.server.project", projectName);
-            } else {
-                return Lsp4IntellijBundle.message("tooltip.language.server.extension.project", 
-                                                 wrapper.getServerDefinition().ext, projectName);
             }
+            String tooltip = Lsp4IntellijBundle.message("tooltip.language.server.extension.project",
+                    wrapper.getServerDefinition().ext, projectName);
+            long latency = wrapper.getProbeLatency();
+            if (wrapper.getStatus() == ServerStatus.INITIALIZED && latency >= 0) {
+                tooltip = Lsp4IntellijBundle.message("tooltip.language.server.health", tooltip,
+                        wrapper.getHealthScore(), latency);
+            }
+            return tooltip;
+        }
+    }
+
+    /**
+     * A row of the workspace problems view.
+     */
+    private static final class ProblemRow {
+        final int category;
+        final String message;
+        @Nullable
+        final VirtualFile file;
+        final int line;
+        final int character;
+
+        ProblemRow(int category, String message, @Nullable VirtualFile file, int line, int character) {
+            this.category = category;
+            this.message = message;
+            this.file = file;
+            this.line = line;
+            this.character = character;
         }
     }
 }
@@ -24,10 +24,15 @@ import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.util.DocumentUtil;
 import org.eclipse.lsp4j.InsertReplaceEdit;
 import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.TextEdit;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
@@ -106,32 +111,66 @@ public class DocumentUtils {
             if (editor.isDisposed()) {
                 return -2;
             }
-            // lsp and intellij start lines/columns zero-based
             Document doc = editor.getDocument();
-            int line = max(0, Math.min(pos.getLine(), doc.getLineCount()));
-            if (line >= doc.getLineCount()) {
-                return doc.getTextLength();
-            }
-            String lineText = doc.getText(DocumentUtil.getLineTextRange(doc, line));
+            return toOffset(editor, doc, pos, () -> getTabSize(editor),
+                    line -> doc.getText(DocumentUtil.getLineTextRange(doc, line)));
+        });
+    }
 
-            final int positionInLine = max(0, min(lineText.length(), pos.getCharacter()));
-            int tabs = StringUtil.countChars(lineText, '\t', 0, positionInLine, false);
-            int tabSize = getTabSize(editor);
-            int column = positionInLine + tabs * (tabSize - 1);
-            int offset = editor.logicalPositionToOffset(new LogicalPosition(line, column));
-            if (pos.getCharacter() >= lineText.length()) {
-                LOG.debug(String.format("LSPPOS outofbounds: %s, line : %s, column : %d, offset : %d", pos,
-                        lineText, column, offset));
+    /**
+     * Transforms a batch of LSP ranges to editor offsets, all within a single read action. Gives the same results
+     * as {@link #lspPosToOffset(Editor, Position)} on both ends of every range, but reads the tab size only once
+     * and the text of each line at most once.
+     *
+     * @param editor The editor
+     * @param ranges The LSP ranges
+     * @return The start and end offsets of the ranges, two entries per range, or null if the editor is disposed
+     */
+    @Nullable
+    public static int[] lspRangesToOffsets(Editor editor, List<Range> ranges) {
+        return computableReadAction(() -> {
+            if (editor == null || editor.isDisposed()) {
+                return null;
             }
-            int docLength = doc.getTextLength();
-            if (offset > docLength) {
-                LOG.debug(String.format("Offset greater than text length : %d > %d", offset, docLength));
+            Document doc = editor.getDocument();
+            int tabSize = editor.getSettings().getTabSize(editor.getProject());
+            Map<Integer, String> lines = new HashMap<>();
+            IntFunction<String> lineText = line -> lines.computeIfAbsent(line,
+                    l -> doc.getText(DocumentUtil.getLineTextRange(doc, l)));
+            int[] offsets = new int[ranges.size() * 2];
+            for (int i = 0; i < ranges.size(); i++) {
+                Range range = ranges.get(i);
+                offsets[2 * i] = toOffset(editor, doc, range.getStart(), () -> tabSize, lineText);
+                offsets[2 * i + 1] = toOffset(editor, doc, range.getEnd(), () -> tabSize, lineText);
             }
-            return Math.min(max(offset, 0), docLength);
-
+            return offsets;
         });
     }
 
+    private static int toOffset(Editor editor, Document doc, Position pos, IntSupplier tabSize,
+                                IntFunction<String> lineTexts) {
+        // lsp and intellij start lines/columns zero-based
+        int line = max(0, Math.min(pos.getLine(), doc.getLineCount()));
+        if (line >= doc.getLineCount()) {
+            return doc.getTextLength();
+        }
+        String lineText = lineTexts.apply(line);
+
+        final int positionInLine = max(0, min(lineText.length(), pos.getCharacter()));
+        int tabs = StringUtil.countChars(lineText, '\t', 0, positionInLine, false);
+        int column = positionInLine + tabs * (tabSize.getAsInt() - 1);
+        int offset = editor.logicalPositionToOffset(new LogicalPosition(line, column));
+        if (pos.getCharacter() >= lineText.length()) {
+            LOG.debug(String.format("LSPPOS outofbounds: %s, line : %s, column : %d, offset : %d", pos,
+                    lineText, column, offset));
+        }
+        int docLength = doc.getTextLength();
+        if (offset > docLength) {
+            LOG.debug(String.format("Offset greater than text length : %d > %d", offset, docLength));
+        }
+        return Math.min(max(offset, 0), docLength);
+    }
+
     @Nullable
     public static LogicalPosition getTabsAwarePosition(Editor editor, Position pos) {
         return computableReadAction(() -> {
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.connection;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link AppCdsArchives}, against a fake JDK layout in a temporary folder.
+ */
+public class AppCdsArchivesTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AppCdsArchives archives;
+    private Path archiveDir;
+    private String java;
+    private Path jar;
+
+    @Before
+    public void setUp() throws IOException {
+        archiveDir = folder.getRoot().toPath().resolve("cds");
+        archives = new AppCdsArchives(archiveDir);
+        java = fakeJdk("jdk17", "17.0.2").toString();
+        jar = folder.newFile("server.jar").toPath();
+        Files.writeString(jar, "v1");
+    }
+
+    /**
+     * The first launch records the archive, the next one maps it.
+     */
+    @Test
+    public void recordsThenReusesTheArchive() throws IOException {
+        List<String> command = Arrays.asList(java, "-Xmx1g", "-jar", jar.toString(), "--stdio");
+
+        List<String> first = archives.apply(command, null);
+        String record = option(first, "-XX:ArchiveClassesAtExit=");
+        Assert.assertNotNull(record);
+        // The options go right after the executable, ahead of the ones of the command line.
+        Assert.assertEquals(java, first.get(0));
+        Assert.assertEquals(command.subList(1, command.size()),
+                first.subList(first.size() - command.size() + 1, first.size()));
+
+        Path archive = Path.of(record);
+        Files.writeString(archive, "archive");
+        List<String> second = archives.apply(command, null);
+        Assert.assertEquals(archive.toString(), option(second, "-XX:SharedArchiveFile="));
+        Assert.assertNull(option(second, "-XX:ArchiveClassesAtExit="));
+    }
+
+    /**
+     * A changed jar gets a new archive, and the old one is deleted.
+     */
+    @Test
+    public void changedJarInvalidatesTheArchive() throws IOException {
+        List<String> command = Arrays.asList(java, "-jar", jar.toString());
+        Path archive = Path.of(option(archives.apply(command, null), "-XX:ArchiveClassesAtExit="));
+        Files.writeString(archive, "archive");
+
+        Files.writeString(jar, "version 2");
+        String next = option(archives.apply(command, null), "-XX:ArchiveClassesAtExit=");
+
+        Assert.assertNotNull(next);
+        Assert.assertNotEquals(archive.toString(), next);
+        Assert.assertFalse(Files.exists(archive));
+    }
+
+    /**
+     * While one launch records an archive, others start without class data sharing options.
+     */
+    @Test
+    public void onlyOneLaunchRecords() {
+        List<String> command = Arrays.asList(java, "-cp", jar.toString(), "org.example.Server");
+
+        Assert.assertNotNull(option(archives.apply(command, null), "-XX:ArchiveClassesAtExit="));
+        Assert.assertSame(command, archives.apply(command, null));
+    }
+
+    /**
+     * A recording JVM which exits without writing the archive, e.g. because it was killed, lets the next launch
+     * record again.
+     */
+    @Test
+    public void recordsAgainOnceTheRecordingProcessExitsWithoutAnArchive() {
+        List<String> command = Arrays.asList(java, "-jar", jar.toString());
+        List<String> recorded = archives.apply(command, null);
+        Process process = mock(Process.class);
+        CompletableFuture<Process> exit = new CompletableFuture<>();
+        when(process.onExit()).thenReturn(exit);
+
+        archives.started(recorded, process);
+        Assert.assertSame("still recording", command, archives.apply(command, null));
+
+        exit.complete(process);
+        Assert.assertEquals(option(recorded, "-XX:ArchiveClassesAtExit="),
+                option(archives.apply(command, null), "-XX:ArchiveClassesAtExit="));
+
+        // A launch which fails to start the process gives the recording up at once.
+        archives.started(recorded, null);
+        Assert.assertNotNull(option(archives.apply(command, null), "-XX:ArchiveClassesAtExit="));
+    }
+
+    @Test
+    public void leavesOtherCommandsAlone() throws IOException {
+        String java11 = fakeJdk("jdk11", "11.0.20").toString();
+        List<String> old = Arrays.asList(java11, "-jar", jar.toString());
+        List<String> script = Arrays.asList(folder.newFile("server.sh").toString(), "--stdio");
+        List<String> noJar = Arrays.asList(java, "-version");
+        List<String> missingJar = Arrays.asList(java, "-jar", "missing.jar");
+
+        Assert.assertSame(old, archives.apply(old, null));
+        Assert.assertSame(script, archives.apply(script, null));
+        Assert.assertSame(noJar, archives.apply(noJar, null));
+        Assert.assertSame(missingJar, archives.apply(missingJar, folder.getRoot().toString()));
+    }
+
+    @Test
+    public void readsTheFeatureVersion() throws IOException {
+        Path home = folder.newFolder("jdk8").toPath();
+        Files.writeString(home.resolve("release"), "JAVA_VERSION=\"1.8.0_382\"\nOS_NAME=\"Linux\"\n");
+
+        Assert.assertEquals(8, AppCdsArchives.javaVersion(home));
+        Assert.assertEquals(0, AppCdsArchives.javaVersion(folder.getRoot().toPath()));
+    }
+
+    private Path fakeJdk(String name, String version) throws IOException {
+        Path home = folder.newFolder(name).toPath();
+        Files.writeString(home.resolve("release"), "IMPLEMENTOR=\"Test\"\nJAVA_VERSION=\"" + version + "\"\n");
+        Path bin = Files.createDirectories(home.resolve("bin"));
+        return Files.createFile(bin.resolve("java")).toRealPath();
+    }
+
+    private static String option(List<String> command, String prefix) {
+        return command.stream().filter(arg -> arg.startsWith(prefix)).map(arg -> arg.substring(prefix.length()))
+                .findFirst().orElse(null);
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.connection;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for {@link CoalescingOutputStream}. The scheduler is a mock, so a deferred flush only runs when
+ * a test runs the captured task; no test depends on timing.
+ */
+public class CoalescingOutputStreamTest {
+
+    private CountingOutputStream target;
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> scheduled;
+
+    @Before
+    public void setUp() {
+        target = new CountingOutputStream();
+        scheduler = mock(ScheduledExecutorService.class);
+        scheduled = mock(ScheduledFuture.class);
+        doReturn(scheduled).when(scheduler).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    /**
+     * A flush after a notification only schedules the write; the bytes reach the server when the task runs.
+     */
+    @Test
+    public void flushIsDeferredUntilTheLingerTaskRuns() throws IOException {
+        CoalescingOutputStream stream = new CoalescingOutputStream(target, scheduler, 64, 5);
+
+        stream.write(bytes("first"));
+        stream.flush();
+        stream.write(bytes("second"));
+        stream.flush();
+
+        Assert.assertEquals(0, target.size());
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        // The second flush rides along with the one already scheduled.
+        verify(scheduler, times(1)).schedule(task.capture(), eq(5L), eq(TimeUnit.MILLISECONDS));
+
+        task.getValue().run();
+
+        Assert.assertEquals("firstsecond", target.text());
+        Assert.assertEquals("both messages must go out in one write", 1, target.writes);
+        Assert.assertEquals(1, target.flushes);
+    }
+
+    /**
+     * flushNow writes the buffer at once and cancels the pending deferred flush.
+     */
+    @Test
+    public void flushNowWritesImmediatelyAndCancelsTheDeferredFlush() throws IOException {
+        CoalescingOutputStream stream = new CoalescingOutputStream(target, scheduler, 64, 5);
+
+        stream.write(bytes("notification"));
+        stream.flush();
+        stream.write(bytes("request"));
+        stream.flushNow();
+
+        Assert.assertEquals("notificationrequest", target.text());
+        Assert.assertEquals(1, target.flushes);
+        Assert.assertEquals(0, stream.getBufferedCount());
+        verify(scheduled).cancel(false);
+    }
+
+    /**
+     * A message that does not fit drains the buffer first, so bytes keep their order.
+     */
+    @Test
+    public void fullBufferIsWrittenOutInOrder() throws IOException {
+        CoalescingOutputStream stream = new CoalescingOutputStream(target, scheduler, 8, 5);
+
+        stream.write(bytes("abcde"));
+        stream.write(bytes("fghij"));
+
+        Assert.assertEquals("abcde", target.text());
+        Assert.assertEquals(5, stream.getBufferedCount());
+
+        stream.flushNow();
+        Assert.assertEquals("abcdefghij", target.text());
+    }
+
+    /**
+     * A message at least as large as the buffer bypasses it after the buffered bytes are written.
+     */
+    @Test
+    public void largeMessageBypassesTheBuffer() throws IOException {
+        CoalescingOutputStream stream = new CoalescingOutputStream(target, scheduler, 8, 5);
+
+        stream.write(bytes("ab"));
+        stream.write(bytes("0123456789"));
+
+        Assert.assertEquals("ab0123456789", target.text());
+        Assert.assertEquals(0, stream.getBufferedCount());
+    }
+
+    /**
+     * With a zero linger interval the stream behaves like a plain buffered stream.
+     */
+    @Test
+    public void zeroLingerFlushesSynchronously() throws IOException {
+        CoalescingOutputStream stream = new CoalescingOutputStream(target, scheduler, 64, 0);
+
+        stream.write(bytes("didSave"));
+        stream.flush();
+
+        Assert.assertEquals("didSave", target.text());
+        verify(scheduler, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    /**
+     * Closing writes out what is still buffered and rejects further writes.
+     */
+    @Test
+    public void closeFlushesPendingBytesAndRejectsWrites() throws IOException {
+        CoalescingOutputStream stream = new CoalescingOutputStream(target, scheduler, 64, 5);
+
+        stream.write(bytes("exit"));
+        stream.flush();
+        stream.close();
+
+        Assert.assertEquals("exit", target.text());
+        Assert.assertTrue(target.closed);
+        Assert.assertThrows(IOException.class, () -> stream.write(bytes("late")));
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static class CountingOutputStream extends ByteArrayOutputStream {
+
+        int writes = 0;
+        int flushes = 0;
+        boolean closed = false;
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            writes++;
+            super.write(b, off, len);
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        String text() {
+            return toString(StandardCharsets.UTF_8);
+        }
+    }
+}
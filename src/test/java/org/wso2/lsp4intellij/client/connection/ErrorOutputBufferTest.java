@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.connection;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Unit tests for {@link ErrorOutputBuffer}.
+ */
+public class ErrorOutputBufferTest {
+
+    @Test
+    public void keepsEverythingBelowCapacity() {
+        ErrorOutputBuffer buffer = new ErrorOutputBuffer(64);
+
+        append(buffer, "first line\n");
+        append(buffer, "second line\n");
+
+        Assert.assertEquals("first line\nsecond line\n", buffer.getText());
+        Assert.assertEquals(23, buffer.getWrittenCount());
+    }
+
+    /**
+     * Once the buffer wraps, the oldest output is dropped and the text starts at a complete line.
+     */
+    @Test
+    public void keepsTheMostRecentCompleteLines() {
+        ErrorOutputBuffer buffer = new ErrorOutputBuffer(16);
+
+        append(buffer, "aaaaaaa\n");
+        append(buffer, "bbbbbbb\n");
+        append(buffer, "ccccccc\n");
+
+        Assert.assertEquals("bbbbbbb\nccccccc\n", buffer.getText());
+        Assert.assertEquals(24, buffer.getWrittenCount());
+
+        append(buffer, "dd\n");
+        Assert.assertEquals("ccccccc\ndd\n", buffer.getText());
+    }
+
+    /**
+     * A chunk larger than the buffer leaves only its tail.
+     */
+    @Test
+    public void largeChunkKeepsItsTail() {
+        ErrorOutputBuffer buffer = new ErrorOutputBuffer(8);
+
+        append(buffer, "xy");
+        append(buffer, "0123\n456789\n");
+
+        Assert.assertEquals("456789\n", buffer.getText());
+        Assert.assertEquals(14, buffer.getWrittenCount());
+    }
+
+    @Test
+    public void drainsTheStreamToItsEnd() {
+        ErrorOutputBuffer buffer = new ErrorOutputBuffer(64);
+
+        buffer.drain(new ByteArrayInputStream("Exception in thread main\n".getBytes(StandardCharsets.UTF_8)),
+                Runnable::run);
+
+        Assert.assertEquals("Exception in thread main\n", buffer.getText());
+    }
+
+    private static void append(ErrorOutputBuffer buffer, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        buffer.append(bytes, 0, bytes.length);
+    }
+}
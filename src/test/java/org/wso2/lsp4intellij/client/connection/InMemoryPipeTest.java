@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.connection;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link InMemoryPipe}.
+ */
+public class InMemoryPipeTest {
+
+    /**
+     * A read returns what is buffered without waiting for the requested length.
+     */
+    @Test
+    public void readReturnsAvailableBytes() throws IOException {
+        InMemoryPipe pipe = new InMemoryPipe(16);
+        pipe.getOutputStream().write(bytes("abc"));
+
+        byte[] read = new byte[10];
+        Assert.assertEquals(3, pipe.getInputStream().read(read, 0, read.length));
+        Assert.assertEquals("abc", new String(read, 0, 3, StandardCharsets.UTF_8));
+        Assert.assertEquals(0, pipe.getInputStream().available());
+    }
+
+    /**
+     * Data wrapping around the end of the buffer comes out in order.
+     */
+    @Test
+    public void bytesWrapAroundInOrder() throws IOException {
+        InMemoryPipe pipe = new InMemoryPipe(8);
+        OutputStream out = pipe.getOutputStream();
+        InputStream in = pipe.getInputStream();
+
+        out.write(bytes("012345"));
+        Assert.assertEquals("0123", read(in, 4));
+        out.write(bytes("6789ab"));
+
+        Assert.assertEquals("456789ab", read(in, 8));
+    }
+
+    /**
+     * A writer blocked on a full buffer continues once the reader catches up.
+     */
+    @Test
+    public void writerWaitsForTheReader() throws Exception {
+        InMemoryPipe pipe = new InMemoryPipe(4);
+        CompletableFuture<Void> writing = CompletableFuture.runAsync(() -> {
+            try {
+                pipe.getOutputStream().write(bytes("0123456789"));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        Assert.assertEquals("0123456789", read(pipe.getInputStream(), 10));
+        writing.get(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Closing the output ends the stream after the buffered bytes; closing the input fails writes.
+     */
+    @Test
+    public void closingEitherEndIsSeenByTheOther() throws IOException {
+        InMemoryPipe pipe = new InMemoryPipe(16);
+        pipe.getOutputStream().write(bytes("bye"));
+        pipe.getOutputStream().close();
+
+        Assert.assertEquals("bye", read(pipe.getInputStream(), 3));
+        Assert.assertEquals(-1, pipe.getInputStream().read());
+
+        InMemoryPipe other = new InMemoryPipe(16);
+        other.getInputStream().close();
+        Assert.assertThrows(IOException.class, () -> other.getOutputStream().write(bytes("late")));
+    }
+
+    private static String read(InputStream in, int length) throws IOException {
+        byte[] buffer = new byte[length];
+        int offset = 0;
+        while (offset < length) {
+            int read = in.read(buffer, offset, length - offset);
+            Assert.assertNotEquals(-1, read);
+            offset += read;
+        }
+        return new String(buffer, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
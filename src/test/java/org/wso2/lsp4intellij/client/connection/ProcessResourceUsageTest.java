@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.connection;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for reading {@code /proc/<pid>/status} in {@link ProcessResourceUsage}.
+ */
+public class ProcessResourceUsageTest {
+
+    private static final String STATUS = "Name:\tjava\n"
+            + "State:\tS (sleeping)\n"
+            + "VmPeak:\t 5000000 kB\n"
+            + "VmRSS:\t  524288 kB\n"
+            + "RssAnon:\t  400000 kB\n"
+            + "Threads:\t37\n";
+
+    @Test
+    public void residentSizeAndThreadsAreRead() {
+        ProcessResourceUsage usage = ProcessResourceUsage.fromProcStatus(42, STATUS, 1500);
+
+        Assert.assertEquals(42, usage.getPid());
+        Assert.assertEquals(512L * 1024 * 1024, usage.getResidentBytes());
+        Assert.assertEquals(37, usage.getThreads());
+        Assert.assertEquals(1500, usage.getCpuTimeMillis());
+    }
+
+    /**
+     * Kernel threads and zombies have no VmRSS line.
+     */
+    @Test
+    public void missingFieldsAreUnknown() {
+        ProcessResourceUsage usage = ProcessResourceUsage.fromProcStatus(42, "Name:\tkthreadd\nThreads:\t1\n",
+                ProcessResourceUsage.UNKNOWN);
+
+        Assert.assertEquals(ProcessResourceUsage.UNKNOWN, usage.getResidentBytes());
+        Assert.assertEquals(1, usage.getThreads());
+    }
+
+    @Test
+    public void currentProcessCanBeSampled() {
+        ProcessResourceUsage usage = ProcessResourceUsage.sample(ProcessHandle.current());
+
+        Assert.assertNotNull(usage);
+        Assert.assertEquals(ProcessHandle.current().pid(), usage.getPid());
+    }
+}
@@ -21,10 +21,12 @@ import org.eclipse.lsp4j.CompletionItem;
 import org.eclipse.lsp4j.CompletionList;
 import org.eclipse.lsp4j.CompletionOptions;
 import org.eclipse.lsp4j.CompletionParams;
+import org.eclipse.lsp4j.DiagnosticRegistrationOptions;
 import org.eclipse.lsp4j.DidChangeTextDocumentParams;
 import org.eclipse.lsp4j.DidCloseTextDocumentParams;
 import org.eclipse.lsp4j.DidOpenTextDocumentParams;
 import org.eclipse.lsp4j.DidSaveTextDocumentParams;
+import org.eclipse.lsp4j.DocumentDiagnosticParams;
 import org.eclipse.lsp4j.FoldingRangeRequestParams;
 import org.eclipse.lsp4j.Hover;
 import org.eclipse.lsp4j.HoverOptions;
@@ -34,6 +36,7 @@ import org.eclipse.lsp4j.InitializeResult;
 import org.eclipse.lsp4j.RenameOptions;
 import org.eclipse.lsp4j.RenameParams;
 import org.eclipse.lsp4j.SaveOptions;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
 import org.eclipse.lsp4j.ServerCapabilities;
 import org.eclipse.lsp4j.TextDocumentSyncKind;
 import org.eclipse.lsp4j.TextDocumentSyncOptions;
@@ -455,6 +458,35 @@ public class DefaultRequestManagerTest {
         Assert.assertNotNull(managerWithCaps(caps).foldingRange(new FoldingRangeRequestParams()));
     }
 
+    // ── diagnostic ────────────────────────────────────────────────────────────
+
+    /**
+     * Verifies that {@link DefaultRequestManager#diagnostic(DocumentDiagnosticParams)} returns
+     * null when the server only pushes diagnostics.
+     */
+    @Test
+    public void diagnosticReturnsNullWhenProviderAbsent() {
+        when(wrapper.getStatus()).thenReturn(ServerStatus.INITIALIZED);
+        Assert.assertNull(managerWithCaps(new ServerCapabilities())
+                .diagnostic(new DocumentDiagnosticParams(new TextDocumentIdentifier("file:///a.bal"))));
+        verify(textDocumentService, never()).diagnostic(any());
+    }
+
+    /**
+     * Verifies that {@link DefaultRequestManager#diagnostic(DocumentDiagnosticParams)} delegates
+     * when a diagnostic provider is declared.
+     */
+    @Test
+    public void diagnosticDelegatesWhenProviderPresent() {
+        when(wrapper.getStatus()).thenReturn(ServerStatus.INITIALIZED);
+        when(textDocumentService.diagnostic(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        ServerCapabilities caps = new ServerCapabilities();
+        caps.setDiagnosticProvider(new DiagnosticRegistrationOptions(false, false));
+        Assert.assertNotNull(managerWithCaps(caps)
+                .diagnostic(new DocumentDiagnosticParams(new TextDocumentIdentifier("file:///a.bal"))));
+    }
+
     // ── checkProvider / rename ────────────────────────────────────────────────
 
     /**
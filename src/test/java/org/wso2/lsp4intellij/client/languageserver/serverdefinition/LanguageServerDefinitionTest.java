@@ -45,6 +45,7 @@ public class LanguageServerDefinitionTest {
         final AtomicInteger stopCount = new AtomicInteger();
         final InputStream in = new ByteArrayInputStream(new byte[0]);
         final OutputStream out = new ByteArrayOutputStream();
+        volatile boolean alive = true;
 
         @Override
         public void start() {
@@ -65,6 +66,11 @@ public class LanguageServerDefinitionTest {
         public void stop() {
             stopCount.incrementAndGet();
         }
+
+        @Override
+        public boolean isAlive() {
+            return alive;
+        }
     }
 
     /** Subclass exposing a controllable connection provider so we can test lifecycle without spawning a process. */
@@ -258,6 +264,91 @@ public class LanguageServerDefinitionTest {
         Assert.assertTrue(def.toString().contains("go"));
     }
 
+    /**
+     * Verifies that {@link LanguageServerDefinition#prepareStandby(String)} does not spawn anything
+     * while the standby pool is disabled, which is the default.
+     */
+    @Test
+    public void prepareStandbyIsNoOpWhenDisabled() throws IOException {
+        TestableDefinition def = new TestableDefinition("go");
+        def.prepareStandby("/work");
+
+        Assert.assertTrue(def.created.isEmpty());
+        Assert.assertNull(def.takeStandby("/work"));
+    }
+
+    /**
+     * Verifies that {@link LanguageServerDefinition#start(String)} attaches a prepared spare process
+     * instead of starting a new one, and that the spare is then stopped like any other server.
+     */
+    @Test
+    public void startAttachesPreparedStandby() throws IOException {
+        TestableDefinition def = new TestableDefinition("go");
+        def.setStandbyEnabled(true);
+        def.prepareStandby("/work");
+        FakeConnection spare = def.created.get("/work");
+
+        Pair<InputStream, OutputStream> streams = def.start("/work");
+
+        Assert.assertSame("no new provider must be created", spare, def.created.get("/work"));
+        Assert.assertEquals(1, spare.startCount.get());
+        Assert.assertSame(spare.in, streams.getLeft());
+        def.stop("/work");
+        Assert.assertEquals(1, spare.stopCount.get());
+    }
+
+    /**
+     * Verifies that a spare process which exited while waiting is stopped and not handed out.
+     */
+    @Test
+    public void deadStandbyIsNotHandedOut() throws IOException {
+        TestableDefinition def = new TestableDefinition("go");
+        def.setStandbyEnabled(true);
+        def.prepareStandby("/work");
+        FakeConnection spare = def.created.get("/work");
+        spare.alive = false;
+
+        Assert.assertNull(def.takeStandby("/work"));
+        Assert.assertEquals(1, spare.stopCount.get());
+    }
+
+    /**
+     * Verifies that spares are kept per working directory, unless the definition declares them shared.
+     */
+    @Test
+    public void sharedStandbyServesOtherWorkingDirs() throws IOException {
+        TestableDefinition perDir = new TestableDefinition("go");
+        perDir.setStandbyEnabled(true);
+        perDir.prepareStandby("/work-a");
+        Assert.assertNull(perDir.takeStandby("/work-b"));
+
+        TestableDefinition shared = new TestableDefinition("go") {
+            @Override
+            public boolean isStandbyShared() {
+                return true;
+            }
+        };
+        shared.setStandbyEnabled(true);
+        shared.prepareStandby("/work-a");
+        Assert.assertSame(shared.created.get("/work-a"), shared.takeStandby("/work-b"));
+    }
+
+    /**
+     * Verifies that disabling the standby pool stops the spare processes it holds.
+     */
+    @Test
+    public void disablingStandbyStopsSpares() throws IOException {
+        TestableDefinition def = new TestableDefinition("go");
+        def.setStandbyEnabled(true);
+        def.prepareStandby("/work");
+        FakeConnection spare = def.created.get("/work");
+
+        def.setStandbyEnabled(false);
+
+        Assert.assertEquals(1, spare.stopCount.get());
+        Assert.assertNull(def.takeStandby("/work"));
+    }
+
     /**
      * Verifies that the base {@link LanguageServerDefinition#createConnectionProvider(String)}
      * throws {@link UnsupportedOperationException}, enforcing that subclasses must override it.
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.languageserver.wrapper;
+
+import org.eclipse.lsp4j.CompletionOptions;
+import org.eclipse.lsp4j.InitializeResult;
+import org.eclipse.lsp4j.ServerCapabilities;
+import org.eclipse.lsp4j.ServerInfo;
+import org.eclipse.lsp4j.TextDocumentSyncKind;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Unit tests for {@link CapabilitySnapshots}, which stores initialize results in a temporary directory here.
+ */
+public class CapabilitySnapshotsTest {
+
+    private static final String KEY = "RawCommandServerDefinition : /opt/server --stdio";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Either and enum fields survive the round trip through lsp4j's Gson.
+     */
+    @Test
+    public void snapshotIsReadBackInAnotherSession() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        new CapabilitySnapshots(directory).save(KEY, result("1.0", "."));
+
+        InitializeResult snapshot = new CapabilitySnapshots(directory).load(KEY);
+
+        Assert.assertNotNull(snapshot);
+        Assert.assertEquals(TextDocumentSyncKind.Incremental,
+                snapshot.getCapabilities().getTextDocumentSync().getLeft());
+        Assert.assertEquals(List.of("."), snapshot.getCapabilities().getCompletionProvider().getTriggerCharacters());
+        Assert.assertTrue(CapabilitySnapshots.matches(snapshot, result("1.0", ".")));
+    }
+
+    @Test
+    public void otherServerVersionOrCapabilitiesDoNotMatch() {
+        Assert.assertFalse(CapabilitySnapshots.matches(result("1.0", "."), result("1.1", ".")));
+        Assert.assertFalse(CapabilitySnapshots.matches(result("1.0", "."), result("1.0", ":")));
+    }
+
+    @Test
+    public void missingOrCorruptSnapshotIsIgnored() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        Assert.assertNull(new CapabilitySnapshots(directory).load(KEY));
+
+        Files.writeString(directory.resolve(CapabilitySnapshots.fileName(KEY)), "{not json", StandardCharsets.UTF_8);
+        Assert.assertNull(new CapabilitySnapshots(directory).load(KEY));
+    }
+
+    private static InitializeResult result(String version, String triggerCharacter) {
+        ServerCapabilities capabilities = new ServerCapabilities();
+        capabilities.setTextDocumentSync(TextDocumentSyncKind.Incremental);
+        capabilities.setHoverProvider(true);
+        capabilities.setCompletionProvider(new CompletionOptions(false, List.of(triggerCharacter)));
+        return new InitializeResult(capabilities, new ServerInfo("test-server", version));
+    }
+}
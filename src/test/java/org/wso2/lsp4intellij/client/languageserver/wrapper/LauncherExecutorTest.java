@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.languageserver.wrapper;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unit tests for {@link LauncherExecutor}.
+ */
+public class LauncherExecutorTest {
+
+    /**
+     * Tasks beyond the thread limit wait in the queue instead of starting more threads.
+     */
+    @Test
+    public void boundsThreadsAndQueuesTheRest() throws InterruptedException {
+        LauncherExecutor executor = new LauncherExecutor("test", 2, null);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+        try {
+            for (int i = 0; i < 5; i++) {
+                executor.execute(() -> {
+                    started.countDown();
+                    await(release);
+                });
+            }
+            Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(2, executor.getActiveCount());
+            Assert.assertEquals(3, executor.getQueueDepth());
+            Assert.assertEquals(2, executor.getPoolSize());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertEquals(5, executor.getCompletedTaskCount());
+    }
+
+    @Test
+    public void namesThreadsAfterTheServer() throws InterruptedException {
+        LauncherExecutor executor = new LauncherExecutor("bal my-project");
+        AtomicReference<String> name = new AtomicReference<>();
+        executor.execute(() -> name.set(Thread.currentThread().getName()));
+        executor.shutdown();
+
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertEquals("LSP messages bal my-project #1", name.get());
+    }
+
+    /**
+     * The callback runs after every task, including one which failed.
+     */
+    @Test
+    public void reportsTheEndOfEveryTask() throws InterruptedException {
+        AtomicInteger ended = new AtomicInteger();
+        LauncherExecutor executor = new LauncherExecutor("test", 1, e -> ended.incrementAndGet());
+        executor.execute(() -> {
+        });
+        executor.execute(() -> {
+            throw new IllegalStateException("reader failed");
+        });
+        executor.shutdown();
+
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertEquals(2, ended.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.languageserver.wrapper;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RestartBackoff}, driven by a fake clock.
+ */
+public class RestartBackoffTest {
+
+    private long now;
+    private RestartBackoff backoff;
+
+    @Before
+    public void setUp() {
+        now = 0;
+        backoff = new RestartBackoff(100, 1000, 6, 5000, () -> now);
+    }
+
+    @Test
+    public void delayDoublesUpToTheCeiling() {
+        Assert.assertEquals(100, backoff.nextDelay());
+        Assert.assertEquals(200, backoff.nextDelay());
+        Assert.assertEquals(400, backoff.nextDelay());
+        Assert.assertEquals(800, backoff.nextDelay());
+        Assert.assertEquals(1000, backoff.nextDelay());
+        Assert.assertEquals(1000, backoff.nextDelay());
+    }
+
+    @Test
+    public void givesUpAfterTheLastAttempt() {
+        for (int i = 0; i < 6; i++) {
+            Assert.assertTrue(backoff.nextDelay() > 0);
+        }
+        Assert.assertEquals(-1, backoff.nextDelay());
+        backoff.reset();
+        Assert.assertEquals(100, backoff.nextDelay());
+    }
+
+    /**
+     * A server that stays up for the stable period starts over with the shortest delay.
+     */
+    @Test
+    public void stableServerStartsOver() {
+        backoff.nextDelay();
+        backoff.nextDelay();
+        backoff.recovered();
+        now += 5000;
+        Assert.assertEquals(100, backoff.nextDelay());
+    }
+
+    /**
+     * A server that crashes again soon after recovering keeps backing off.
+     */
+    @Test
+    public void crashLoopKeepsBackingOff() {
+        backoff.nextDelay();
+        backoff.recovered();
+        now += 1000;
+        Assert.assertEquals(200, backoff.nextDelay());
+        backoff.recovered();
+        now += 1000;
+        Assert.assertEquals(400, backoff.nextDelay());
+    }
+}
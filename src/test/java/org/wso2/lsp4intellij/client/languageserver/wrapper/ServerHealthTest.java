@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.languageserver.wrapper;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for the health score of {@link ServerHealth}.
+ */
+public class ServerHealthTest {
+
+    @Test
+    public void promptServerIsFullyHealthy() {
+        ServerHealth health = new ServerHealth();
+        health.answered(5);
+
+        Assert.assertEquals(ServerHealth.MAX_SCORE, health.getScore());
+        Assert.assertEquals(5, health.getLatency());
+        Assert.assertFalse(health.isUnresponsive());
+    }
+
+    /**
+     * One slow round trip only moves the smoothed latency part of the way.
+     */
+    @Test
+    public void latencyIsSmoothed() {
+        ServerHealth health = new ServerHealth();
+        health.answered(100);
+        health.answered(1100);
+
+        Assert.assertEquals(400, health.getLatency());
+        Assert.assertEquals(96, health.getScore());
+    }
+
+    @Test
+    public void unansweredProbesMakeTheServerUnresponsive() {
+        ServerHealth health = new ServerHealth(3);
+        health.answered(10);
+        health.unanswered();
+        health.unanswered();
+
+        Assert.assertEquals(32, health.getScore());
+        Assert.assertFalse(health.isUnresponsive());
+
+        health.unanswered();
+        Assert.assertEquals(0, health.getScore());
+        Assert.assertTrue(health.isUnresponsive());
+    }
+
+    @Test
+    public void answerClearsUnansweredProbes() {
+        ServerHealth health = new ServerHealth(3);
+        health.unanswered();
+        health.unanswered();
+        health.answered(10);
+
+        Assert.assertEquals(ServerHealth.MAX_SCORE, health.getScore());
+    }
+}
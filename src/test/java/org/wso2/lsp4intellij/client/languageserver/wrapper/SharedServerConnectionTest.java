@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.client.languageserver.wrapper;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Unit tests for the document routing of {@link SharedServerConnection}: messages about a document go to the
+ * innermost project root containing it.
+ */
+public class SharedServerConnectionTest {
+
+    private static final List<String> ROOTS = List.of("file:///work/app/", "file:///work/app/lib", "file:///other/");
+
+    @Test
+    public void documentIsRoutedToItsProjectRoot() {
+        Assert.assertEquals("file:///other/",
+                SharedServerConnection.routeRoot(ROOTS, "file:///other/src/main.bal"));
+    }
+
+    /**
+     * Nested projects: the innermost root wins, with or without a trailing separator on the root.
+     */
+    @Test
+    public void innermostRootWins() {
+        Assert.assertEquals("file:///work/app/lib",
+                SharedServerConnection.routeRoot(ROOTS, "file:///work/app/lib/util.bal"));
+        Assert.assertEquals("file:///work/app/",
+                SharedServerConnection.routeRoot(ROOTS, "file:///work/app/main.bal"));
+    }
+
+    /**
+     * A sibling directory sharing a name prefix with a root is not inside that root.
+     */
+    @Test
+    public void namePrefixIsNotContainment() {
+        Assert.assertEquals("file:///work/app/",
+                SharedServerConnection.routeRoot(ROOTS, "file:///work/app/library/x.bal"));
+        Assert.assertNull(SharedServerConnection.routeRoot(ROOTS, "file:///work/application/x.bal"));
+    }
+
+    @Test
+    public void documentOutsideAllRootsIsNotRouted() {
+        Assert.assertNull(SharedServerConnection.routeRoot(ROOTS, "file:///tmp/scratch.bal"));
+        Assert.assertNull(SharedServerConnection.routeRoot(ROOTS, null));
+    }
+}
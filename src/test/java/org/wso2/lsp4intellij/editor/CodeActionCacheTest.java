@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.editor;
+
+import org.eclipse.lsp4j.CodeAction;
+import org.eclipse.lsp4j.Command;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for {@link CodeActionCache}.
+ */
+public class CodeActionCacheTest {
+
+    private final CodeActionCache cache = new CodeActionCache();
+    private final List<Diagnostic> diagnostics = new ArrayList<>();
+
+    /**
+     * A result is returned for the same version, diagnostics and range, and for nothing else.
+     */
+    @Test
+    public void hitsOnlyForTheSameVersionDiagnosticsAndRange() {
+        List<Either<Command, CodeAction>> actions = actions("Fix");
+        cache.put(3, diagnostics, range(1, 2), actions);
+
+        Assert.assertEquals(actions, cache.get(3, diagnostics, range(1, 2)));
+        Assert.assertNull(cache.get(3, diagnostics, range(1, 3)));
+        Assert.assertNull(cache.get(4, diagnostics, range(1, 2)));
+        Assert.assertNull("diagnostics are compared by identity",
+                cache.get(3, new ArrayList<>(diagnostics), range(1, 2)));
+    }
+
+    /**
+     * A result for a newer version drops the older ones; a late result for an older version is ignored.
+     */
+    @Test
+    public void newerVersionReplacesOlderOnes() {
+        cache.put(3, diagnostics, range(1, 2), actions("Old"));
+        cache.put(4, diagnostics, range(5, 0), actions("New"));
+        cache.put(3, diagnostics, range(1, 2), actions("Late"));
+
+        Assert.assertNull(cache.get(3, diagnostics, range(1, 2)));
+        Assert.assertEquals(actions("New"), cache.get(4, diagnostics, range(5, 0)));
+        Assert.assertNull(cache.get(4, diagnostics, range(1, 2)));
+    }
+
+    /**
+     * Only the most recently used ranges are kept within a version.
+     */
+    @Test
+    public void keepsTheMostRecentRanges() {
+        for (int line = 0; line <= CodeActionCache.MAX_RANGES; line++) {
+            cache.put(1, diagnostics, range(line, 0), actions("Fix " + line));
+        }
+
+        Assert.assertNull(cache.get(1, diagnostics, range(0, 0)));
+        Assert.assertNotNull(cache.get(1, diagnostics, range(CodeActionCache.MAX_RANGES, 0)));
+    }
+
+    private static Range range(int line, int character) {
+        return new Range(new Position(line, character), new Position(line, character));
+    }
+
+    private static List<Either<Command, CodeAction>> actions(String title) {
+        return Collections.singletonList(Either.forRight(new CodeAction(title)));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.editor;
+
+import org.eclipse.lsp4j.CompletionItem;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Unit tests for {@link CompletionResolver}. Requests are recorded rather than sent, and answered by the tests.
+ */
+public class CompletionResolverTest {
+
+    private final List<CompletableFuture<CompletionItem>> sent = new ArrayList<>();
+    private final CompletionResolver resolver = new CompletionResolver(item -> {
+        CompletableFuture<CompletionItem> request = new CompletableFuture<>();
+        sent.add(request);
+        return request;
+    });
+
+    /**
+     * An item is resolved once per session; asking again returns the kept result.
+     */
+    @Test
+    public void resolvedItemIsKeptForTheSession() {
+        CompletionItem item = new CompletionItem("print");
+        CompletionItem resolved = new CompletionItem("print");
+        resolved.setDetail("void print(String)");
+
+        resolver.resolve(item).complete(resolved);
+
+        Assert.assertSame(resolved, resolver.resolve(item).join());
+        Assert.assertEquals(1, sent.size());
+    }
+
+    /**
+     * Focusing another item cancels the resolve still running for the previous one, and asking for that one again
+     * sends a new request.
+     */
+    @Test
+    public void resolveOfTheItemFocusedBeforeIsCancelled() {
+        CompletionItem first = new CompletionItem("print");
+        CompletionItem second = new CompletionItem("println");
+
+        CompletableFuture<CompletionItem> firstResolve = resolver.resolve(first);
+        resolver.resolve(second);
+
+        Assert.assertTrue(firstResolve.isCancelled());
+        Assert.assertFalse(resolver.resolve(first).isDone());
+        Assert.assertEquals(3, sent.size());
+    }
+
+    /**
+     * Ending the session cancels what is still running and forgets what was resolved.
+     */
+    @Test
+    public void clearEndsTheSession() {
+        CompletionItem item = new CompletionItem("print");
+        CompletableFuture<CompletionItem> running = resolver.resolve(item);
+
+        resolver.clear();
+
+        Assert.assertTrue(running.isCancelled());
+        resolver.resolve(item);
+        Assert.assertEquals(2, sent.size());
+    }
+
+    /**
+     * The resolve of an inserted item survives focusing another item and the end of the session, so that its
+     * additional edits are not lost.
+     */
+    @Test
+    public void resolveOfAnInsertedItemIsNotCancelled() {
+        CompletionItem inserted = new CompletionItem("List");
+        CompletableFuture<CompletionItem> focused = resolver.resolve(inserted);
+
+        CompletableFuture<CompletionItem> insertion = resolver.resolveInserted(inserted);
+        resolver.resolve(new CompletionItem("Map"));
+        resolver.clear();
+
+        Assert.assertSame(focused, insertion);
+        Assert.assertFalse(insertion.isCancelled());
+        Assert.assertEquals(2, sent.size());
+    }
+
+    /**
+     * An inserted item which was never focused is resolved outside the session.
+     */
+    @Test
+    public void insertedItemIsResolvedOutsideTheSession() {
+        CompletableFuture<CompletionItem> insertion = resolver.resolveInserted(new CompletionItem("List"));
+
+        resolver.clear();
+
+        Assert.assertFalse(insertion.isCancelled());
+        Assert.assertEquals(1, sent.size());
+    }
+
+    /**
+     * Without resolve support on the server, the item stands for itself.
+     */
+    @Test
+    public void unresolvableItemIsReturnedAsIs() {
+        CompletionResolver unsupported = new CompletionResolver(item -> null);
+        CompletionItem item = new CompletionItem("print");
+
+        Assert.assertSame(item, unsupported.resolve(item).join());
+    }
+}
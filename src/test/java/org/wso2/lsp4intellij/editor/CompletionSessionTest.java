@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.editor;
+
+import com.intellij.codeInsight.completion.PrefixMatcher;
+import com.intellij.codeInsight.completion.impl.CamelHumpMatcher;
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.InsertReplaceEdit;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextEdit;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for {@link CompletionSession}.
+ */
+public class CompletionSessionTest {
+
+    private final CompletionSession session = new CompletionSession(CompletionSessionTest::matcher);
+
+    /**
+     * Typing on in the same word filters the complete list by prefix and filter text.
+     */
+    @Test
+    public void completeListIsFilteredWhileTypingTheSameWord() {
+        CompletionItem println = new CompletionItem("println");
+        CompletionItem print = new CompletionItem("print");
+        CompletionItem length = new CompletionItem("size()");
+        length.setFilterText("length");
+        session.start(word(4, ""), Arrays.asList(println, print, length), true);
+
+        Assert.assertEquals(Arrays.asList("println", "print"), labels(session.reuse(word(4, "pri"))));
+        Assert.assertEquals(Arrays.asList("println"), labels(session.reuse(word(4, "printl"))));
+        Assert.assertEquals(Arrays.asList("size()"), labels(session.reuse(word(4, "len"))));
+    }
+
+    /**
+     * The filter text counts as much as the label.
+     */
+    @Test
+    public void filterTextIsMatched() {
+        CompletionItem item = new CompletionItem("size()");
+        item.setFilterText("length");
+
+        Assert.assertEquals(1, CompletionSession.filter(Arrays.asList(item), matcher("LEN")).size());
+        Assert.assertEquals(0, CompletionSession.filter(Arrays.asList(item), matcher("count")).size());
+    }
+
+    /**
+     * Items the lookup would show by camel humps are kept, so filtering here hides nothing the lookup would offer.
+     */
+    @Test
+    public void camelHumpsAreMatched() {
+        List<CompletionItem> items = Arrays.asList(new CompletionItem("printLine"), new CompletionItem("print"));
+
+        Assert.assertEquals(Arrays.asList("printLine"), labels(CompletionSession.filter(items, matcher("pL"))));
+    }
+
+    /**
+     * An incomplete list, a new word, a changed text before the word or deleting into the requested prefix all go
+     * back to the server.
+     */
+    @Test
+    public void sessionEndsWhenTheListCannotBeReused() {
+        List<CompletionItem> items = Arrays.asList(new CompletionItem("print"));
+
+        session.start(word(4, "pr"), items, false);
+        Assert.assertNull(session.reuse(word(4, "pri")));
+
+        session.start(word(4, "pr"), items, true);
+        Assert.assertNull(session.reuse(new CompletionSession.Word(0, 9, 8, "foo.", "pri")));
+        Assert.assertNull(session.reuse(new CompletionSession.Word(0, 7, 4, "bar.", "pri")));
+        Assert.assertNull(session.reuse(word(4, "p")));
+    }
+
+    /**
+     * The edit of a reused item ends at the current caret, as if the server had been asked there, and the item the
+     * server sent keeps its own edit.
+     */
+    @Test
+    public void textEditIsStretchedToTheCaret() {
+        CompletionItem item = new CompletionItem("print");
+        item.setTextEdit(Either.forLeft(new TextEdit(new Range(new Position(0, 4), new Position(0, 5)), "print")));
+        session.start(word(4, "p"), Arrays.asList(item), true);
+
+        Assert.assertEquals(new Position(0, 7), end(session.reuse(word(4, "pri")).get(0)));
+        Assert.assertEquals(new Position(0, 6), end(session.reuse(word(4, "pr")).get(0)));
+        Assert.assertEquals(new Position(0, 5), end(item));
+    }
+
+    /**
+     * Filtering the same list again does not move the edits of earlier results, and each result ends at its own
+     * caret rather than at the sum of the earlier moves.
+     */
+    @Test
+    public void filteringTwiceKeepsTheRanges() {
+        CompletionItem println = new CompletionItem("println");
+        println.setTextEdit(Either.forLeft(new TextEdit(new Range(new Position(0, 4), new Position(0, 4)), "println")));
+        CompletionItem print = new CompletionItem("print");
+        print.setTextEdit(Either.forRight(new InsertReplaceEdit("print",
+                new Range(new Position(0, 4), new Position(0, 4)), new Range(new Position(0, 4), new Position(0, 6)))));
+        session.start(word(4, ""), Arrays.asList(println, print), true);
+
+        List<CompletionItem> first = session.reuse(word(4, "pri"));
+        List<CompletionItem> second = session.reuse(word(4, "prin"));
+
+        Assert.assertEquals(new Position(0, 7), end(first.get(0)));
+        Assert.assertEquals(new Position(0, 7), first.get(1).getTextEdit().getRight().getInsert().getEnd());
+        Assert.assertEquals(new Position(0, 9), first.get(1).getTextEdit().getRight().getReplace().getEnd());
+        Assert.assertEquals(new Position(0, 8), end(second.get(0)));
+        Assert.assertEquals(new Position(0, 8), second.get(1).getTextEdit().getRight().getInsert().getEnd());
+        Assert.assertEquals(new Position(0, 10), second.get(1).getTextEdit().getRight().getReplace().getEnd());
+        Assert.assertEquals(new Position(0, 4), end(println));
+        Assert.assertEquals(new Position(0, 6), print.getTextEdit().getRight().getReplace().getEnd());
+    }
+
+    /**
+     * A word on the first line after "foo.", with the caret after the prefix.
+     */
+    private static CompletionSession.Word word(int start, String prefix) {
+        return new CompletionSession.Word(0, start + prefix.length(), start, "foo.", prefix);
+    }
+
+    /**
+     * The matcher the lookup uses, without reading the case sensitivity from the settings.
+     */
+    private static PrefixMatcher matcher(String prefix) {
+        return new CamelHumpMatcher(prefix, false, false);
+    }
+
+    private static Position end(CompletionItem item) {
+        return item.getTextEdit().getLeft().getRange().getEnd();
+    }
+
+    private static List<String> labels(List<CompletionItem> items) {
+        return items.stream().map(CompletionItem::getLabel).collect(Collectors.toList());
+    }
+}
@@ -15,10 +15,14 @@
  */
 package org.wso2.lsp4intellij.integration;
 
+import com.intellij.codeInsight.daemon.impl.HighlightInfo;
+import com.intellij.lang.ExternalLanguageAnnotators;
 import com.intellij.openapi.command.WriteCommandAction;
 import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.fileTypes.PlainTextLanguage;
 import com.intellij.testFramework.EdtTestUtil;
 import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import org.eclipse.lsp4j.Diagnostic;
 import org.eclipse.lsp4j.DidChangeConfigurationParams;
 import org.eclipse.lsp4j.DidChangeTextDocumentParams;
 import org.eclipse.lsp4j.DidChangeWatchedFilesParams;
@@ -27,6 +31,8 @@ import org.eclipse.lsp4j.DidOpenTextDocumentParams;
 import org.eclipse.lsp4j.DidSaveTextDocumentParams;
 import org.eclipse.lsp4j.InitializeParams;
 import org.eclipse.lsp4j.InitializeResult;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.ServerCapabilities;
 import org.eclipse.lsp4j.TextDocumentSyncKind;
 import org.eclipse.lsp4j.jsonrpc.Launcher;
@@ -40,6 +46,8 @@ import org.wso2.lsp4intellij.client.connection.StreamConnectionProvider;
 import org.wso2.lsp4intellij.client.languageserver.ServerStatus;
 import org.wso2.lsp4intellij.client.languageserver.serverdefinition.LanguageServerDefinition;
 import org.wso2.lsp4intellij.client.languageserver.wrapper.LanguageServerWrapper;
+import org.wso2.lsp4intellij.contributors.annotator.LSPAnnotator;
+import org.wso2.lsp4intellij.editor.EditorEventManagerBase;
 import org.wso2.lsp4intellij.utils.FileUtils;
 
 import java.io.IOException;
@@ -47,7 +55,9 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
@@ -136,6 +146,41 @@ public class LspServerIntegrationTest extends BasePlatformTestCase {
         waitFor("server status must become STOPPED", () -> wrapper.getStatus() == ServerStatus.STOPPED);
     }
 
+    /**
+     * The highlight of a diagnostic moves with the text it was published for, without the server publishing again.
+     */
+    public void testDiagnosticHighlightFollowsEdits() throws Exception {
+        ExternalLanguageAnnotators.INSTANCE.addExplicitExtension(PlainTextLanguage.INSTANCE, new LSPAnnotator(),
+                getTestRootDisposable());
+        // A plain text file, so that the annotator runs on it.
+        Editor editor = openEditorFor("txt");
+        LanguageServerWrapper wrapper = LanguageServerWrapper.forEditor(editor);
+        assertNotNull(wrapper);
+        waitFor("server status must become INITIALIZED",
+                () -> wrapper.getStatus() == ServerStatus.INITIALIZED);
+
+        Diagnostic diagnostic = new Diagnostic(new Range(new Position(0, 6), new Position(0, 9)), "unknown word");
+        EditorEventManagerBase.diagnostics(getProject(), FileUtils.editorToURIString(editor),
+                Collections.singletonList(diagnostic));
+        assertEquals(6, highlightStart("unknown word"));
+
+        EdtTestUtil.runInEdtAndWait(() -> WriteCommandAction.runWriteCommandAction(getProject(),
+                () -> editor.getDocument().insertString(0, "//\n")));
+        assertEquals(9, highlightStart("unknown word"));
+    }
+
+    /**
+     * @return The start offset of the highlight with the given description, or -1 if there is none
+     */
+    private int highlightStart(String description) {
+        List<HighlightInfo> highlights = EdtTestUtil.runInEdtAndGet(() -> myFixture.doHighlighting());
+        return highlights.stream()
+                .filter(highlight -> description.equals(highlight.getDescription()))
+                .mapToInt(HighlightInfo::getStartOffset)
+                .findFirst()
+                .orElse(-1);
+    }
+
     /**
      * Registers a stub server definition for the given extension, opens an editor on a matching
      * file, and routes the open event through the library entry point.
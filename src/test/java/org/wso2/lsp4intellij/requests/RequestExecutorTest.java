@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.requests;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.lsp4intellij.client.languageserver.requestmanager.RequestManager;
+import org.wso2.lsp4intellij.client.languageserver.wrapper.LanguageServerWrapper;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the cancellable wait of {@link RequestExecutor}.
+ */
+public class RequestExecutorTest {
+
+    private LanguageServerWrapper wrapper;
+    private RequestExecutor executor;
+
+    @Before
+    public void setUp() {
+        wrapper = mock(LanguageServerWrapper.class);
+        executor = new RequestExecutor(wrapper);
+    }
+
+    @Test
+    public void answeredRequestIsReturned() {
+        CompletableFuture<String> future = CompletableFuture.completedFuture("report");
+        Assert.assertEquals("report", executor.waitFor(future, Timeouts.DIAGNOSTIC, () -> {
+        }));
+        verify(wrapper).notifySuccess(Timeouts.DIAGNOSTIC);
+    }
+
+    /**
+     * A failing check, such as an edit cancelling the daemon pass, ends the wait and cancels the request.
+     */
+    @Test
+    public void failingCheckCancelsTheRequest() {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        AtomicInteger checks = new AtomicInteger();
+        IllegalStateException canceled = new IllegalStateException("edited");
+
+        IllegalStateException thrown = Assert.assertThrows(IllegalStateException.class,
+                () -> executor.waitFor(future, Timeouts.DIAGNOSTIC, () -> {
+                    if (checks.incrementAndGet() == 3) {
+                        throw canceled;
+                    }
+                }));
+
+        Assert.assertSame(canceled, thrown);
+        Assert.assertTrue(future.isCancelled());
+    }
+
+    /**
+     * A request cancelled by somebody else while a caller waits on a future derived from it yields no result, and
+     * is not mistaken for a crashed server.
+     */
+    @Test
+    public void cancelledSourceRequestIsNotACrash() {
+        CompletableFuture<String> source = new CompletableFuture<>();
+        CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS).execute(() -> source.cancel(true));
+
+        Assert.assertNull(executor.waitFor(source.thenApply(Function.identity()), Timeouts.COMPLETION, () -> {
+        }));
+        Assert.assertNull(executor.waitFor(source, Timeouts.COMPLETION));
+        verify(wrapper, never()).crashed(any());
+    }
+
+    /**
+     * A request to a hibernated server is sent once the server is back, instead of to the manager of the previous
+     * server.
+     */
+    @Test
+    public void requestWaitsForAHibernatedServer() throws Exception {
+        CompletableFuture<Boolean> startup = new CompletableFuture<>();
+        when(wrapper.ensureStarted()).thenReturn(startup);
+        when(wrapper.getRequestManager()).thenReturn(mock(RequestManager.class));
+        AtomicInteger sent = new AtomicInteger();
+
+        CompletableFuture<String> result = CompletableFuture.supplyAsync(() -> executor.waitFor(manager -> {
+            sent.incrementAndGet();
+            return CompletableFuture.completedFuture("hover");
+        }, Timeouts.HOVER));
+        Thread.sleep(100);
+        Assert.assertEquals(0, sent.get());
+
+        startup.complete(true);
+        Assert.assertEquals("hover", result.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, sent.get());
+    }
+
+    @Test
+    public void unansweredRequestTimesOutAndIsCancelled() {
+        Timeout.getTimeouts().put(Timeouts.DIAGNOSTIC, 50);
+        try {
+            CompletableFuture<String> future = new CompletableFuture<>();
+            Assert.assertNull(executor.waitFor(future, Timeouts.DIAGNOSTIC, () -> {
+            }));
+            Assert.assertTrue(future.isCancelled());
+            verify(wrapper).notifyFailure(Timeouts.DIAGNOSTIC);
+        } finally {
+            Timeout.getTimeouts().put(Timeouts.DIAGNOSTIC, Timeouts.DIAGNOSTIC.getDefaultTimeout());
+        }
+    }
+
+    /**
+     * A request which can be sent again is cancelled when it times out, and a later restart does not send it again.
+     */
+    @Test
+    public void timedOutReplayableRequestIsNotReissued() {
+        Timeout.getTimeouts().put(Timeouts.HOVER, 50);
+        try {
+            when(wrapper.ensureStarted()).thenReturn(CompletableFuture.completedFuture(true));
+            when(wrapper.getRequestManager()).thenReturn(mock(RequestManager.class));
+            CompletableFuture<String> future = new CompletableFuture<>();
+            AtomicInteger sent = new AtomicInteger();
+
+            Assert.assertNull(executor.waitFor(manager -> {
+                sent.incrementAndGet();
+                return future;
+            }, Timeouts.HOVER));
+            Assert.assertTrue(future.isCancelled());
+
+            executor.reissue(mock(RequestManager.class));
+            Assert.assertEquals(1, sent.get());
+        } finally {
+            Timeout.getTimeouts().put(Timeouts.HOVER, Timeouts.HOVER.getDefaultTimeout());
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.services;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link DaemonRestartCoalescer}. The scheduler is a mock and the UI executor runs tasks in place, so
+ * a window only closes when a test runs the captured task.
+ */
+public class DaemonRestartCoalescerTest {
+
+    private ScheduledExecutorService scheduler;
+    private Set<VirtualFile> visible;
+    private List<VirtualFile> restarted;
+    private DaemonRestartCoalescer coalescer;
+
+    @Before
+    public void setUp() {
+        scheduler = mock(ScheduledExecutorService.class);
+        doReturn(mock(ScheduledFuture.class)).when(scheduler)
+                .schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        visible = new HashSet<>();
+        restarted = new ArrayList<>();
+        coalescer = new DaemonRestartCoalescer(scheduler, Runnable::run, 100, visible::contains, restarted::add);
+    }
+
+    /**
+     * Requests arriving within one window are served by a single restart.
+     */
+    @Test
+    public void requestsWithinTheWindowAreMerged() {
+        VirtualFile file = file();
+        visible.add(file);
+
+        coalescer.request(file);
+        coalescer.request(file);
+        coalescer.request(file);
+
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(1)).schedule(task.capture(), eq(100L), eq(TimeUnit.MILLISECONDS));
+        Assert.assertTrue(restarted.isEmpty());
+
+        task.getValue().run();
+
+        Assert.assertEquals(List.of(file), restarted);
+        Assert.assertEquals(3, coalescer.getRequestedCount());
+        Assert.assertEquals(1, coalescer.getPerformedCount());
+        Assert.assertEquals(2, coalescer.getAvoidedCount());
+    }
+
+    /**
+     * Each file has a window of its own, and a request after a window closed opens the next one.
+     */
+    @Test
+    public void windowsArePerFileAndReopen() {
+        VirtualFile first = file();
+        VirtualFile second = file();
+        visible.add(first);
+        visible.add(second);
+
+        coalescer.request(first);
+        coalescer.request(second);
+        ArgumentCaptor<Runnable> tasks = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(2)).schedule(tasks.capture(), anyLong(), any(TimeUnit.class));
+        tasks.getAllValues().forEach(Runnable::run);
+
+        coalescer.request(first);
+        verify(scheduler, times(3)).schedule(tasks.capture(), anyLong(), any(TimeUnit.class));
+        tasks.getValue().run();
+
+        Assert.assertEquals(List.of(first, second, first), restarted);
+        Assert.assertEquals(0, coalescer.getAvoidedCount());
+    }
+
+    /**
+     * A file which is not visible when its window closes is only restarted once it is selected.
+     */
+    @Test
+    public void hiddenFileIsRestartedWhenSelected() {
+        VirtualFile file = file();
+
+        coalescer.request(file);
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(task.capture(), anyLong(), any(TimeUnit.class));
+        task.getValue().run();
+
+        Assert.assertTrue(restarted.isEmpty());
+        Assert.assertEquals(1, coalescer.getAvoidedCount());
+
+        coalescer.selected(file);
+        coalescer.selected(file);
+
+        Assert.assertEquals("a stale file is restarted once", List.of(file), restarted);
+    }
+
+    /**
+     * Selecting a file whose restarts all went through does not restart it again.
+     */
+    @Test
+    public void selectingAnUpToDateFileDoesNothing() {
+        VirtualFile file = file();
+
+        coalescer.selected(file);
+
+        Assert.assertTrue(restarted.isEmpty());
+        Assert.assertEquals(0, coalescer.getPerformedCount());
+    }
+
+    private static VirtualFile file() {
+        VirtualFile file = mock(VirtualFile.class);
+        when(file.isValid()).thenReturn(true);
+        return file;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.services;
+
+import com.google.gson.JsonPrimitive;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.DiagnosticSeverity;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for {@link DiagnosticStore}.
+ */
+public class DiagnosticStoreTest {
+
+    private static final String URI = "file:///project/main.bal";
+
+    private DiagnosticStore store;
+
+    @Before
+    public void setUp() {
+        store = new DiagnosticStore();
+    }
+
+    @Test
+    public void republishingTheSameDiagnosticsIsNotAChange() {
+        Assert.assertTrue(store.publish(URI, Arrays.asList(diagnostic(1, "a"), diagnostic(2, "b"))));
+        Assert.assertFalse(store.publish(URI, Arrays.asList(diagnostic(1, "a"), diagnostic(2, "b"))));
+    }
+
+    @Test
+    public void orderDoesNotMatter() {
+        store.publish(URI, Arrays.asList(diagnostic(1, "a"), diagnostic(2, "b")));
+        Assert.assertFalse(store.publish(URI, Arrays.asList(diagnostic(2, "b"), diagnostic(1, "a"))));
+    }
+
+    @Test
+    public void changedMessageRangeOrSeverityIsAChange() {
+        store.publish(URI, Collections.singletonList(diagnostic(1, "a")));
+        Assert.assertTrue(store.publish(URI, Collections.singletonList(diagnostic(1, "b"))));
+        Assert.assertTrue(store.publish(URI, Collections.singletonList(diagnostic(3, "b"))));
+
+        Diagnostic warning = diagnostic(3, "b");
+        warning.setSeverity(DiagnosticSeverity.Warning);
+        Assert.assertTrue(store.publish(URI, Collections.singletonList(warning)));
+    }
+
+    @Test
+    public void duplicatesAreCounted() {
+        store.publish(URI, Arrays.asList(diagnostic(1, "a"), diagnostic(1, "a"), diagnostic(2, "b")));
+        Assert.assertTrue(store.publish(URI,
+                Arrays.asList(diagnostic(1, "a"), diagnostic(2, "b"), diagnostic(2, "b"))));
+    }
+
+    /**
+     * Fields the editor does not show do not trigger highlighting, but code actions must still see the new values.
+     */
+    @Test
+    public void invisibleFieldsAreStoredWithoutAChange() {
+        Diagnostic first = diagnostic(1, "a");
+        first.setData(new JsonPrimitive("v1"));
+        store.publish(URI, Collections.singletonList(first));
+
+        Diagnostic second = diagnostic(1, "a");
+        second.setData(new JsonPrimitive("v2"));
+        Assert.assertFalse(store.publish(URI, Collections.singletonList(second)));
+        Assert.assertEquals(new JsonPrimitive("v2"), store.get(URI).get(0).getData());
+    }
+
+    @Test
+    public void clearingIsAChangeOnlyIfThereWasSomethingToClear() {
+        Assert.assertFalse(store.publish(URI, Collections.emptyList()));
+        store.publish(URI, Collections.singletonList(diagnostic(1, "a")));
+        Assert.assertTrue(store.publish(URI, null));
+        Assert.assertTrue(store.get(URI).isEmpty());
+    }
+
+    @Test
+    public void resultIdsArePerDocument() {
+        store.setResultId(URI, "1");
+        Assert.assertEquals("1", store.getResultId(URI));
+        Assert.assertNull(store.getResultId("file:///project/other.bal"));
+
+        store.setResultId(URI, null);
+        Assert.assertNull(store.getResultId(URI));
+    }
+
+    @Test
+    public void storedListIsACopy() {
+        List<Diagnostic> published = new ArrayList<>(Collections.singletonList(diagnostic(1, "a")));
+        store.publish(URI, published);
+        published.clear();
+        Assert.assertEquals(1, store.get(URI).size());
+    }
+
+    private static Diagnostic diagnostic(int line, String message) {
+        Range range = new Range(new Position(line, 0), new Position(line, 5));
+        return new Diagnostic(range, message, DiagnosticSeverity.Error, "test");
+    }
+}
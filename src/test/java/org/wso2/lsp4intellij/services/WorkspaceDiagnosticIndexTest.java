@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.lsp4intellij.services;
+
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.DiagnosticSeverity;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.lsp4intellij.client.languageserver.serverdefinition.LanguageServerDefinition;
+import org.wso2.lsp4intellij.client.languageserver.serverdefinition.RawCommandServerDefinition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for {@link WorkspaceDiagnosticIndex}. No project is given, so nothing is reported to the project view.
+ */
+public class WorkspaceDiagnosticIndexTest {
+
+    private static final String URI = "file:///project/main.bal";
+    private static final LanguageServerDefinition BAL = new RawCommandServerDefinition("bal", new String[]{"bal"});
+    private static final LanguageServerDefinition LINT = new RawCommandServerDefinition("bal", new String[]{"lint"});
+
+    @Test
+    public void diagnosticsAreRebuiltFromTheCompactForm() {
+        WorkspaceDiagnosticIndex index = new WorkspaceDiagnosticIndex(null, 100);
+        Diagnostic diagnostic = diagnostic(3, "undefined symbol", DiagnosticSeverity.Warning);
+        diagnostic.setCode("E042");
+        index.put(URI, Collections.singletonList(diagnostic));
+
+        List<Diagnostic> rebuilt = index.getDiagnostics(URI);
+        Assert.assertEquals(1, rebuilt.size());
+        Assert.assertEquals(diagnostic.getRange(), rebuilt.get(0).getRange());
+        Assert.assertEquals("undefined symbol", rebuilt.get(0).getMessage());
+        Assert.assertEquals(DiagnosticSeverity.Warning, rebuilt.get(0).getSeverity());
+        Assert.assertNull("only what is shown is kept", rebuilt.get(0).getCode());
+    }
+
+    @Test
+    public void countsFollowThePublishes() {
+        WorkspaceDiagnosticIndex index = new WorkspaceDiagnosticIndex(null, 100);
+        index.put(URI, Arrays.asList(diagnostic(1, "a", DiagnosticSeverity.Error),
+                diagnostic(2, "b", null), diagnostic(3, "c", DiagnosticSeverity.Warning)));
+        index.put("file:///project/other.bal", Collections.singletonList(diagnostic(1, "d", DiagnosticSeverity.Hint)));
+
+        Assert.assertEquals("a diagnostic without severity is an error", 2, index.getErrorCount(URI));
+        Assert.assertEquals(1, index.getWarningCount(URI));
+        Assert.assertEquals(2, index.getFileCount());
+        Assert.assertEquals(4, index.getDiagnosticCount());
+
+        index.put(URI, null);
+        Assert.assertEquals(0, index.getErrorCount(URI));
+        Assert.assertEquals(1, index.getFileCount());
+        Assert.assertEquals(1, index.getStoredCount());
+    }
+
+    @Test
+    public void equalMessagesShareOneString() {
+        WorkspaceDiagnosticIndex index = new WorkspaceDiagnosticIndex(null, 100);
+        index.put(URI, Collections.singletonList(diagnostic(1, new String("unused import"), null)));
+        index.put("file:///project/other.bal",
+                Collections.singletonList(diagnostic(1, new String("unused import"), null)));
+
+        Assert.assertSame(index.getDiagnostics(URI).get(0).getMessage(),
+                index.getDiagnostics("file:///project/other.bal").get(0).getMessage());
+    }
+
+    /**
+     * Past the limit, the most severe diagnostics are kept in detail and the rest are only counted.
+     */
+    @Test
+    public void limitKeepsTheMostSevereDiagnostics() {
+        WorkspaceDiagnosticIndex index = new WorkspaceDiagnosticIndex(null, 3);
+        index.put(URI, Arrays.asList(diagnostic(1, "hint", DiagnosticSeverity.Hint),
+                diagnostic(2, "warning", DiagnosticSeverity.Warning), diagnostic(3, "error", DiagnosticSeverity.Error),
+                diagnostic(4, "error", DiagnosticSeverity.Error)));
+
+        Assert.assertEquals(3, index.getStoredCount());
+        Assert.assertEquals(4, index.getDiagnosticCount());
+        Assert.assertEquals(2, index.getErrorCount(URI));
+        List<String> kept = new ArrayList<>();
+        index.getDiagnostics(URI).forEach(d -> kept.add(d.getMessage()));
+        Assert.assertEquals(Arrays.asList("error", "error", "warning"), kept);
+
+        // A second file does not displace diagnostics as severe as its own, and the budget comes back when the
+        // first is cleared.
+        String other = "file:///project/other.bal";
+        index.put(other, Collections.singletonList(diagnostic(1, "x", DiagnosticSeverity.Warning)));
+        Assert.assertTrue(index.getDiagnostics(other).isEmpty());
+        Assert.assertEquals(1, index.getWarningCount(other));
+
+        index.put(URI, null);
+        index.put(other, Collections.singletonList(diagnostic(1, "x", DiagnosticSeverity.Warning)));
+        Assert.assertEquals(1, index.getDiagnostics(other).size());
+    }
+
+    /**
+     * Errors published once the limit is reached displace the hints kept for the files published earlier.
+     */
+    @Test
+    public void laterErrorsDisplaceEarlierHints() {
+        WorkspaceDiagnosticIndex index = new WorkspaceDiagnosticIndex(null, 4);
+        index.put(URI, Arrays.asList(diagnostic(1, "hint", DiagnosticSeverity.Hint),
+                diagnostic(2, "error", DiagnosticSeverity.Error), diagnostic(3, "info", DiagnosticSeverity.Information),
+                diagnostic(4, "hint", DiagnosticSeverity.Hint)));
+
+        String other = "file:///project/other.bal";
+        index.put(other, Arrays.asList(diagnostic(1, "x", DiagnosticSeverity.Error),
+                diagnostic(2, "y", DiagnosticSeverity.Error), diagnostic(3, "z", DiagnosticSeverity.Hint)));
+
+        Assert.assertEquals(4, index.getStoredCount());
+        Assert.assertEquals(2, index.getDiagnostics(other).size());
+        List<String> kept = new ArrayList<>();
+        index.getDiagnostics(URI).forEach(d -> kept.add(d.getMessage()));
+        Assert.assertEquals(Arrays.asList("error", "info"), kept);
+        Assert.assertEquals("dropped diagnostics are still counted", 7, index.getDiagnosticCount());
+    }
+
+    @Test
+    public void holdsAHundredThousandDiagnostics() {
+        WorkspaceDiagnosticIndex index = new WorkspaceDiagnosticIndex(null, WorkspaceDiagnosticIndex.DEFAULT_LIMIT);
+        for (int file = 0; file < 1000; file++) {
+            List<Diagnostic> diagnostics = new ArrayList<>();
+            for (int line = 0; line < 100; line++) {
+                diagnostics.add(diagnostic(line, "problem " + (line % 10), DiagnosticSeverity.Warning));
+            }
+            index.put("file:///project/src/file" + file + ".bal", diagnostics);
+        }
+
+        Assert.assertEquals(100_000, index.getStoredCount());
+        int[] visited = new int[1];
+        index.forEach((uri, startLine, startCharacter, endLine, endCharacter, severity, message) -> visited[0]++);
+        Assert.assertEquals(100_000, visited[0]);
+    }
+
+    @Test
+    public void resultIdsArePerServerAndFile() {
+        WorkspaceDiagnosticIndex index = new WorkspaceDiagnosticIndex(null, 100);
+        index.setResultId(BAL, URI, "7");
+        Assert.assertEquals("7", index.getResultIds(BAL).get(URI));
+        Assert.assertTrue("another server gets only its own", index.getResultIds(LINT).isEmpty());
+        index.setResultId(BAL, URI, null);
+        Assert.assertTrue(index.getResultIds(BAL).isEmpty());
+    }
+
+    /**
+     * A file served by two servers shows the problems of both, and loses those of a server once it is cleared.
+     */
+    @Test
+    public void clearingAServerKeepsTheProblemsOfTheOthers() {
+        WorkspaceDiagnosticIndex index = new WorkspaceDiagnosticIndex(null, 100);
+        index.put(BAL, URI, Collections.singletonList(diagnostic(1, "type error", DiagnosticSeverity.Error)));
+        index.put(LINT, URI, Collections.singletonList(diagnostic(2, "style", DiagnosticSeverity.Warning)));
+        index.put(BAL, "file:///project/other.bal", Collections.singletonList(diagnostic(1, "x", null)));
+        index.setResultId(BAL, URI, "3");
+
+        Assert.assertEquals(2, index.getDiagnostics(URI).size());
+        Assert.assertEquals(2, index.getFileCount());
+        Assert.assertEquals(3, index.getStoredCount());
+
+        index.clear(BAL);
+        Assert.assertEquals(Collections.singletonList("style"),
+                index.getDiagnostics(URI).stream().map(Diagnostic::getMessage).collect(Collectors.toList()));
+        Assert.assertEquals(0, index.getErrorCount(URI));
+        Assert.assertEquals(1, index.getFileCount());
+        Assert.assertEquals(1, index.getStoredCount());
+        Assert.assertTrue(index.getResultIds(BAL).isEmpty());
+    }
+
+    private static Diagnostic diagnostic(int line, String message, DiagnosticSeverity severity) {
+        Range range = new Range(new Position(line, 0), new Position(line, 5));
+        return new Diagnostic(range, message, severity, "test");
+    }
+}
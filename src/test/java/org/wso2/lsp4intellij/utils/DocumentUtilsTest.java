@@ -40,6 +40,8 @@ import java.util.List;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -315,6 +317,48 @@ public class DocumentUtilsTest {
         Assert.assertEquals(6, result.column);
     }
 
+    /**
+     * Verifies that {@link DocumentUtils#lspRangesToOffsets(Editor, List)} gives the same offsets as
+     * {@link DocumentUtils#lspPosToOffset(Editor, Position)}, while reading the tab size once and each line once.
+     */
+    @Test
+    public void lspRangesToOffsetsConvertsAllRangesReadingEachLineOnce() {
+        Document doc = mock(Document.class);
+        when(doc.getLineCount()).thenReturn(2);
+        when(doc.getTextLength()).thenReturn(100);
+        when(doc.getLineStartOffset(0)).thenReturn(0);
+        when(doc.getLineEndOffset(0)).thenReturn(6);
+        when(doc.getText(TextRange.create(0, 6))).thenReturn("\thello");
+
+        Editor editor = mockEditor(doc, false);
+        EditorSettings settings = mock(EditorSettings.class);
+        when(settings.getTabSize(any())).thenReturn(4);
+        when(editor.getSettings()).thenReturn(settings);
+        when(editor.getProject()).thenReturn(mock(Project.class));
+        // positionInLine=1 and 3 after one tab → columns 4 and 6
+        when(editor.logicalPositionToOffset(new LogicalPosition(0, 4))).thenReturn(1);
+        when(editor.logicalPositionToOffset(new LogicalPosition(0, 6))).thenReturn(3);
+
+        List<Range> ranges = Arrays.asList(
+                new Range(new Position(0, 1), new Position(0, 3)),
+                new Range(new Position(0, 3), new Position(9, 0)));
+        int[] offsets = DocumentUtils.lspRangesToOffsets(editor, ranges);
+
+        Assert.assertArrayEquals(new int[]{1, 3, 3, 100}, offsets);
+        verify(settings, times(1)).getTabSize(any());
+        verify(doc, times(1)).getText(TextRange.create(0, 6));
+    }
+
+    /**
+     * Verifies that {@link DocumentUtils#lspRangesToOffsets(Editor, List)} returns null when the editor is
+     * disposed.
+     */
+    @Test
+    public void lspRangesToOffsetsReturnsNullForDisposedEditor() {
+        Editor editor = mockEditor(mock(Document.class), true);
+        Assert.assertNull(DocumentUtils.lspRangesToOffsets(editor, Collections.emptyList()));
+    }
+
     /**
      * Verifies that {@link DocumentUtils#getTabSize(Editor)} retrieves the tab size from
      * the editor's settings.